@@ -0,0 +1,45 @@
+package bench;
+
+/**
+ * One benchmark of BenchmarkRunner.
+ * The runner calls <code>setUp</code> once, then <code>operation</code> once to get the checksum of the benchmark
+ * and then as often as it can in each measured iteration.
+ * Everything random in the operation must come from a generator created with a fixed seed in <code>setUp</code>,
+ * so that the checksum is the same on every run as long as the behaviour of the code measured does not change.
+ */
+public abstract class Benchmark {
+
+	/**
+	 * Name of the benchmark, the code measured followed by its input.
+	 */
+	private String name;
+
+	/**
+	 * Creates a benchmark.
+	 * @param newName name of the benchmark.
+	 */
+	public Benchmark(String newName) {
+		this.name = newName;
+	}
+
+	/**
+	 * Gives the name of the benchmark.
+	 * @return name of the benchmark.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Prepares the input of the operation, not measured.
+	 */
+	public void setUp() {
+		/*most benchmarks prepare their input in the constructor.*/
+	}
+
+	/**
+	 * Runs the code measured once.
+	 * @return value computed from the result, so that the work can not be optimized away.
+	 */
+	public abstract long operation();
+}
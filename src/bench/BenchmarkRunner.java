@@ -0,0 +1,350 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Runs the benchmarks of EngineBenchmarks and compares them with a baseline.
+ * Each benchmark is warmed up, then measured in iterations of a fixed time and reported as the mean time of one operation
+ * with the standard deviation between iterations. The checksum of a benchmark is the result of its first operation,
+ * it only changes when the behaviour of the code measured changes.
+ * <p>
+ * Usage: <code>java bench.BenchmarkRunner [-f regex] [-w warmups] [-i iterations] [-t millis] [-s file] [-b file] [-r percent]</code>
+ * <ul>
+ * <li>-f runs only the benchmarks whose name contains a match of the regular expression.</li>
+ * <li>-w, -i and -t set the number of warmup and measured iterations and the time of one iteration.</li>
+ * <li>-s saves the results as a baseline.</li>
+ * <li>-b compares the results with a saved baseline and exits with status 1 if a benchmark got slower by more than the
+ * regression limit given with -r, 20 percent by default, or if its checksum changed.</li>
+ * </ul>
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * Result of one benchmark.
+	 */
+	public static class Result {
+
+		/**
+		 * Name of the benchmark.
+		 */
+		private String name;
+
+		/**
+		 * Number of operations measured.
+		 */
+		private long operations;
+
+		/**
+		 * Mean time of one operation in nanoseconds.
+		 */
+		private double mean;
+
+		/**
+		 * Standard deviation of the time of one operation between iterations.
+		 */
+		private double deviation;
+
+		/**
+		 * Result of the first operation.
+		 */
+		private long checksum;
+
+		/**
+		 * Creates a result.
+		 * @param newName name of the benchmark.
+		 * @param newOperations number of operations measured.
+		 * @param newMean mean time of one operation in nanoseconds.
+		 * @param newDeviation standard deviation between iterations.
+		 * @param newChecksum result of the first operation.
+		 */
+		public Result(String newName, long newOperations, double newMean, double newDeviation, long newChecksum) {
+			this.name = newName;
+			this.operations = newOperations;
+			this.mean = newMean;
+			this.deviation = newDeviation;
+			this.checksum = newChecksum;
+		}
+
+		/**
+		 * Gives the name of the benchmark.
+		 * @return name of the benchmark.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Gives the number of operations measured.
+		 * @return number of operations.
+		 */
+		public long getOperations() {
+			return this.operations;
+		}
+
+		/**
+		 * Gives the mean time of one operation.
+		 * @return time in nanoseconds.
+		 */
+		public double getMean() {
+			return this.mean;
+		}
+
+		/**
+		 * Gives the standard deviation of the time of one operation between iterations.
+		 * @return deviation in nanoseconds.
+		 */
+		public double getDeviation() {
+			return this.deviation;
+		}
+
+		/**
+		 * Gives the result of the first operation.
+		 * @return checksum of the benchmark.
+		 */
+		public long getChecksum() {
+			return this.checksum;
+		}
+	}
+
+	/**
+	 * Number of warmup iterations.
+	 */
+	private int warmups = 3;
+
+	/**
+	 * Number of measured iterations.
+	 */
+	private int iterations = 5;
+
+	/**
+	 * Time of one iteration in milliseconds.
+	 */
+	private long iterationMillis = 500;
+
+	/**
+	 * Sum of the results of all operations, printed at the end so that no operation can be optimized away.
+	 */
+	private long sink;
+
+	/**
+	 * Sets the number of warmup and measured iterations.
+	 * @param newWarmups number of warmup iterations.
+	 * @param newIterations number of measured iterations, at least 1.
+	 * @param millis time of one iteration in milliseconds, at least 1.
+	 */
+	public void setIterations(int newWarmups, int newIterations, long millis) {
+		this.warmups = Math.max(0, newWarmups);
+		this.iterations = Math.max(1, newIterations);
+		this.iterationMillis = Math.max(1, millis);
+	}
+
+	/**
+	 * Runs one benchmark.
+	 * @param benchmark benchmark to be run.
+	 * @return result of the benchmark.
+	 */
+	public Result run(Benchmark benchmark) {
+		benchmark.setUp();
+		long checksum = benchmark.operation();
+		for(int i=0; i<warmups; i++) {
+			iteration(benchmark);
+		}
+		long operations = 0;
+		double[] times = new double[iterations];
+		double total = 0;
+		for(int i=0; i<iterations; i++) {
+			long[] measured = iteration(benchmark);
+			operations += measured[0];
+			times[i] = (double) measured[1]/measured[0];
+			total += times[i];
+		}
+		double mean = total/iterations;
+		double squares = 0;
+		for(double time : times) {
+			squares += (time-mean)*(time-mean);
+		}
+		double deviation = iterations>1 ? Math.sqrt(squares/(iterations-1)) : 0;
+		return new Result(benchmark.getName(), operations, mean, deviation, checksum);
+	}
+
+	/**
+	 * Runs the operation of a benchmark for the time of one iteration.
+	 * The operation is run in batches that double until a batch takes a millisecond, so that reading the clock
+	 * does not add to the time of short operations.
+	 * @param benchmark benchmark to be run.
+	 * @return number of operations and time taken in nanoseconds.
+	 */
+	private long[] iteration(Benchmark benchmark) {
+		long limit = iterationMillis*1000000L;
+		long operations = 0;
+		long batch = 1;
+		long start = System.nanoTime();
+		long elapsed = 0;
+		while(elapsed<limit) {
+			long batchStart = System.nanoTime();
+			for(long n=0; n<batch; n++) {
+				sink += benchmark.operation();
+			}
+			long now = System.nanoTime();
+			operations += batch;
+			elapsed = now - start;
+			if(now-batchStart<1000000L) {
+				batch *= 2;
+			}
+		}
+		return new long[] {operations, elapsed};
+	}
+
+	/**
+	 * Gives the value all operations added up to.
+	 * @return sum of the results of the operations.
+	 */
+	public long getSink() {
+		return this.sink;
+	}
+
+	/**
+	 * Reads a baseline saved with <code>save</code>.
+	 * @param filename path of the baseline.
+	 * @return results of the baseline by name of benchmark.
+	 * @throws IOException if the file can not be read.
+	 */
+	public static HashMap<String, Result> load(String filename) throws IOException {
+		HashMap<String, Result> baseline = new HashMap<String, Result>();
+		try(BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8))) {
+			String line;
+			while((line = in.readLine())!=null) {
+				String[] cells = line.split("\t");
+				if(cells.length<5 || cells[0].equals("Benchmark")) {
+					continue;
+				}
+				baseline.put(cells[0], new Result(cells[0], Long.parseLong(cells[1]), Double.parseDouble(cells[2]),
+						Double.parseDouble(cells[3]), Long.parseLong(cells[4])));
+			}
+		}
+		return baseline;
+	}
+
+	/**
+	 * Saves results as a baseline.
+	 * @param filename path of the baseline.
+	 * @param results results to be saved.
+	 * @throws IOException if the file can not be written.
+	 */
+	public static void save(String filename, ArrayList<Result> results) throws IOException {
+		try(PrintStream out = new PrintStream(new FileOutputStream(filename), false, "UTF-8")) {
+			out.println("Benchmark\tOperations\tns/op\tDeviation\tChecksum");
+			for(Result r : results) {
+				out.println(r.getName()+"\t"+r.getOperations()+"\t"+format(r.getMean())+"\t"+format(r.getDeviation())+"\t"+r.getChecksum());
+			}
+		}
+	}
+
+	/**
+	 * Formats a time for the results.
+	 * @param nanos time in nanoseconds.
+	 * @return time with one decimal.
+	 */
+	private static String format(double nanos) {
+		return String.format(Locale.ROOT, "%.1f", nanos);
+	}
+
+	/**
+	 * Compares a result with its baseline.
+	 * @param result result of a benchmark.
+	 * @param base result of the same benchmark in the baseline, may be null.
+	 * @param limit slowdown allowed in percent.
+	 * @return empty if the result is as good as the baseline, otherwise the reason it is not.
+	 */
+	public static String compare(Result result, Result base, double limit) {
+		if(base==null) {
+			return "";
+		}
+		if(base.getChecksum()!=result.getChecksum()) {
+			return "CHECKSUM";
+		}
+		if(result.getMean()>base.getMean()*(1+limit/100)) {
+			return "REGRESSION";
+		}
+		return "";
+	}
+
+	/**
+	 * Runs the benchmarks, see the description of the class for the arguments.
+	 * @param arg command line arguments.
+	 * @throws IOException if a baseline can not be read or written.
+	 */
+	public static void main(String[] arg) throws IOException {
+		String filter = null;
+		String savePath = null;
+		String baselinePath = null;
+		double limit = 20;
+		int warmups = 3;
+		int iterations = 5;
+		long millis = 500;
+		for(int i=0; i+1<arg.length; i+=2) {
+			if(arg[i].equals("-f")) {
+				filter = arg[i+1];
+			}
+			else if(arg[i].equals("-w")) {
+				warmups = Integer.parseInt(arg[i+1]);
+			}
+			else if(arg[i].equals("-i")) {
+				iterations = Integer.parseInt(arg[i+1]);
+			}
+			else if(arg[i].equals("-t")) {
+				millis = Long.parseLong(arg[i+1]);
+			}
+			else if(arg[i].equals("-s")) {
+				savePath = arg[i+1];
+			}
+			else if(arg[i].equals("-b")) {
+				baselinePath = arg[i+1];
+			}
+			else if(arg[i].equals("-r")) {
+				limit = Double.parseDouble(arg[i+1]);
+			}
+			else {
+				throw new IllegalArgumentException("Unknown option "+arg[i]);
+			}
+		}
+		HashMap<String, Result> baseline = baselinePath==null ? new HashMap<String, Result>() : load(baselinePath);
+		BenchmarkRunner runner = new BenchmarkRunner();
+		runner.setIterations(warmups, iterations, millis);
+		ArrayList<Result> results = new ArrayList<Result>();
+		int failures = 0;
+		System.out.println("Benchmark\tOperations\tns/op\tDeviation\tChecksum\tBaseline ns/op\tChange %\tStatus");
+		for(Benchmark benchmark : EngineBenchmarks.all()) {
+			if(filter!=null && !benchmark.getName().matches(".*(?:"+filter+").*")) {
+				continue;
+			}
+			Result result = runner.run(benchmark);
+			results.add(result);
+			Result base = baseline.get(result.getName());
+			String status = compare(result, base, limit);
+			if(!status.isEmpty()) {
+				failures++;
+			}
+			System.out.println(result.getName()+"\t"+result.getOperations()+"\t"+format(result.getMean())+"\t"+format(result.getDeviation())
+					+"\t"+result.getChecksum()+"\t"+(base==null ? "" : format(base.getMean()))
+					+"\t"+(base==null ? "" : format(100*(result.getMean()/base.getMean()-1)))+"\t"+status);
+		}
+		System.out.println("Sink\t"+runner.getSink());
+		if(savePath!=null) {
+			save(savePath, results);
+		}
+		if(failures>0) {
+			System.err.println(failures+" benchmarks regressed against "+baselinePath);
+			System.exit(1);
+		}
+	}
+}
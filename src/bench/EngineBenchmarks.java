@@ -0,0 +1,300 @@
+package bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import risk.model.gamemode.GameDriver;
+import risk.model.map.CountryNode;
+import risk.model.map.Map;
+import risk.model.map.MapModel;
+import risk.model.map.MapNode;
+import risk.model.map.MapReader;
+import risk.model.player.MctsStrategy;
+import risk.model.player.Player;
+import risk.model.util.GameRandom;
+
+/**
+ * Benchmarks of the hot paths of the game engine, run by BenchmarkRunner.
+ * Games are played on World.map with fixed seeds, so every benchmark does the same work on every run.
+ */
+public class EngineBenchmarks {
+
+	/**
+	 * Folder of the maps read by the map benchmarks.
+	 */
+	public static final String MAP_FOLDER = "data"+File.separator+"map";
+
+	/**
+	 * Map the games are played on.
+	 */
+	public static final String GAME_MAP = MAP_FOLDER+File.separator+"World.map";
+
+	/**
+	 * Seed of every game.
+	 */
+	public static final long SEED = 2017;
+
+	/**
+	 * Number of moves of a benchmarked game.
+	 */
+	public static final int MOVE_LIMIT = 30;
+
+	/**
+	 * Strategies of the computer players, every pair plays a game.
+	 */
+	public static final String[] STRATEGIES = {"aggressive", "benevolent", "random", "cheater", "mcts"};
+
+	/**
+	 * Number of iterations of the mcts player, it searches without a time limit to be reproducible.
+	 */
+	public static final int MCTS_ITERATIONS = 20;
+
+	/**
+	 * Gives every benchmark of the engine.
+	 * @return benchmarks in the order they are run.
+	 */
+	public static ArrayList<Benchmark> all() {
+		ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		File[] files = new File(MAP_FOLDER).listFiles();
+		if(files!=null) {
+			Arrays.sort(files);
+			for(File file : files) {
+				if(file.getName().endsWith(".map")) {
+					benchmarks.add(readMap(file.getPath()));
+				}
+			}
+		}
+		benchmarks.add(diceRoll());
+		benchmarks.add(battle());
+		benchmarks.add(getArmies());
+		benchmarks.add(checkContinent());
+		benchmarks.add(getPlayerNeighbourCountries());
+		benchmarks.add(connectedMap(GAME_MAP));
+		benchmarks.add(connectedMap(MAP_FOLDER+File.separator+"World2005.map"));
+		for(int i=0; i<STRATEGIES.length; i++) {
+			for(int j=i+1; j<STRATEGIES.length; j++) {
+				benchmarks.add(game(STRATEGIES[i], STRATEGIES[j]));
+			}
+		}
+		return benchmarks;
+	}
+
+	/**
+	 * Creates a seeded game of two players after the startup phase.
+	 * @param first strategy of the first player.
+	 * @param second strategy of the second player.
+	 * @param moveLimit number of moves of the game.
+	 * @return game ready to start the first turn.
+	 */
+	public static GameDriver createGame(String first, String second, int moveLimit) {
+		GameDriver driver = new GameDriver(GAME_MAP, moveLimit);
+		driver.setRandom(new GameRandom(SEED));
+		driver.createPlayers(new String[][] {{"Player1", first}, {"Player2", second}});
+		for(Player p : driver.getPlayers()) {
+			if(p.getPlayerStrategy().equals("mcts")) {
+				p.setStrategy(new MctsStrategy(driver, 0, MCTS_ITERATIONS, 1));
+			}
+		}
+		driver.startUpPhase();
+		return driver;
+	}
+
+	/**
+	 * Benchmark of MapReader.readMap on a map file.
+	 * @param path path of the map.
+	 * @return benchmark returning the number of countries read.
+	 */
+	static Benchmark readMap(final String path) {
+		return new Benchmark("MapReader.readMap/"+new File(path).getName()) {
+			@Override
+			public long operation() {
+				long countries = 0;
+				for(MapNode continent : new MapReader().readMap(path)) {
+					countries += continent.getCountries().length;
+				}
+				return countries;
+			}
+		};
+	}
+
+	/**
+	 * Benchmark of GameDriver.diceRoll with three dice.
+	 * @return benchmark returning the sum of the dice.
+	 */
+	static Benchmark diceRoll() {
+		return new Benchmark("GameDriver.diceRoll/3") {
+			private GameDriver driver;
+
+			@Override
+			public void setUp() {
+				driver = new GameDriver();
+				driver.setRandom(new GameRandom(SEED));
+			}
+
+			@Override
+			public long operation() {
+				long sum = 0;
+				for(int die : driver.diceRoll(3)) {
+					sum += die;
+				}
+				return sum;
+			}
+		};
+	}
+
+	/**
+	 * Benchmark of GameDriver.battle between two neighbours with three and two dice rolled before.
+	 * @return benchmark returning the armies left on both countries.
+	 */
+	static Benchmark battle() {
+		return new Benchmark("GameDriver.battle/3v2") {
+			private GameDriver driver;
+			private CountryNode attacker;
+			private CountryNode defender;
+			private ArrayList<ArrayList<Integer>> rolls = new ArrayList<ArrayList<Integer>>();
+			private int next;
+
+			@Override
+			public void setUp() {
+				driver = createGame("aggressive", "aggressive", MOVE_LIMIT);
+				Player owner = driver.getPlayers().get(0);
+				for(CountryNode c : owner.getCountries()) {
+					for(CountryNode n : c.getNeighbours()) {
+						if(defender==null && n.getOwner()!=null && n.getOwner()!=owner) {
+							attacker = c;
+							defender = n;
+						}
+					}
+				}
+				for(int i=0; i<1024; i++) {
+					rolls.add(driver.diceRoll(i%2==0 ? 3 : 2));
+				}
+				next = 0;
+			}
+
+			@Override
+			public long operation() {
+				if(attacker.getArmiesCount()<4 || defender.getArmiesCount()<3) {
+					attacker.setArmies(1000000);
+					defender.setArmies(1000000);
+				}
+				ArrayList<Integer> aResults = rolls.get(next);
+				ArrayList<Integer> dResults = rolls.get(next+1);
+				next = (next+2)%rolls.size();
+				driver.battle(defender, defender.getOwner(), attacker, 3, 2, aResults, dResults);
+				return attacker.getArmiesCount() + defender.getArmiesCount();
+			}
+		};
+	}
+
+	/**
+	 * Benchmark of Player.getArmies for the first player after the startup phase.
+	 * @return benchmark returning the reinforcement of the player.
+	 */
+	static Benchmark getArmies() {
+		return new Benchmark("Player.getArmies") {
+			private Player player;
+
+			@Override
+			public void setUp() {
+				player = createGame("aggressive", "aggressive", MOVE_LIMIT).getPlayers().get(0);
+			}
+
+			@Override
+			public long operation() {
+				return player.getArmies();
+			}
+		};
+	}
+
+	/**
+	 * Benchmark of Player.checkContinent for the cheater player after a few turns, when it owns whole continents.
+	 * @return benchmark returning the reinforcement of the player.
+	 */
+	static Benchmark checkContinent() {
+		return new Benchmark("Player.checkContinent") {
+			private Player player;
+
+			@Override
+			public void setUp() {
+				GameDriver driver = createGame("cheater", "benevolent", 6);
+				driver.getTurnManager().startTurn(driver.getCurrentPlayer());
+				player = driver.getPlayers().get(0);
+			}
+
+			@Override
+			public long operation() {
+				player.checkContinent();
+				return player.getArmies();
+			}
+		};
+	}
+
+	/**
+	 * Benchmark of Map.getPlayerNeighbourCountries on every country of the map, for own and for enemy neighbours.
+	 * @return benchmark returning the number of neighbours found.
+	 */
+	static Benchmark getPlayerNeighbourCountries() {
+		return new Benchmark("Map.getPlayerNeighbourCountries/all") {
+			private Map map;
+			private Player player;
+
+			@Override
+			public void setUp() {
+				GameDriver driver = createGame("aggressive", "aggressive", MOVE_LIMIT);
+				map = driver.getMap();
+				player = driver.getPlayers().get(0);
+			}
+
+			@Override
+			public long operation() {
+				long found = 0;
+				for(int i=0; i<map.getCountryCount(); i++) {
+					found += map.getPlayerNeighbourCountries(map.getCountry(i), player, i%2==0).size();
+				}
+				return found;
+			}
+		};
+	}
+
+	/**
+	 * Benchmark of MapModel.connectedMap on a map file.
+	 * @param path path of the map.
+	 * @return benchmark returning 1 if the map is connected.
+	 */
+	static Benchmark connectedMap(final String path) {
+		return new Benchmark("MapModel.connectedMap/"+new File(path).getName()) {
+			private MapModel model;
+
+			@Override
+			public void setUp() {
+				model = new MapModel();
+				model.writeExistingMap(new MapReader().readMap(path));
+			}
+
+			@Override
+			public long operation() {
+				return model.connectedMap() ? 1 : 0;
+			}
+		};
+	}
+
+	/**
+	 * Benchmark of a whole headless game between two computer players.
+	 * @param first strategy of the first player.
+	 * @param second strategy of the second player.
+	 * @return benchmark returning a hash of the armies at the end and the winner.
+	 */
+	static Benchmark game(final String first, final String second) {
+		return new Benchmark("Game/"+first+"-"+second) {
+			@Override
+			public long operation() {
+				GameDriver driver = createGame(first, second, MOVE_LIMIT);
+				driver.getTurnManager().startTurn(driver.getCurrentPlayer());
+				String winner = driver.getWinner()==null ? "draw" : driver.getWinner();
+				return 31L*Arrays.hashCode(driver.getMap().getArmyArray()) + winner.hashCode();
+			}
+		};
+	}
+}
@@ -2,30 +2,47 @@ package risk.controller;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import risk.model.gamemode.GameDriver;
+import risk.model.gamemode.GameSnapshot;
 import risk.model.map.CountryNode;
 import risk.model.player.Player;
 import risk.model.util.GameLogger;
+import risk.model.util.LogFileSink;
 import risk.view.CardsView;
 import risk.view.ControlsView;
 import risk.view.MainView;
 import risk.view.MapView;
 import risk.view.PhaseView;
+import risk.view.PlaybackView;
 import risk.view.PlayerInfoView;
 import risk.view.SetUpDialog;
+import risk.view.SwingThread;
 import risk.view.WorldDominationView;
 
 
 /**
  * MVC - Controller that controls the interaction between models and view.
+ * The game runs on the thread of a GameLoop: the listeners of the views queue the moves of the user as commands,
+ * and the calls of the game to the views are moved to the event dispatch thread.
  * @author Gunpreet
  * @author Gurpreet
  * @author Amitt
  */
 public class GameController{
 	
+	/**
+	 * System property with the path of a file the whole log of each game is written to, no file if not set.
+	 */
+	public static final String LOG_FILE_PROPERTY = "risk.log.file";
+	
 	/**
 	 * driver variable storing the reference of the class GameDriver.
 	 */
@@ -81,6 +98,26 @@ public class GameController{
 	 */
 	private GameLogger gameLogger;
 	
+	/**
+	 * File the log of this game is added to, null if no log file is set.
+	 */
+	private LogFileSink logSink;
+	
+	/**
+	 * Thread running the game.
+	 */
+	private GameLoop loop = new GameLoop("game-loop");
+	
+	/**
+	 * Playback of a game between computer players, null if a human plays.
+	 */
+	private PlaybackController playback;
+	
+	/**
+	 * Playback controls, null if a human plays.
+	 */
+	private PlaybackView playbackView;
+	
 	/**
 	 * Constructor for object creation
 	 * @param newSetupBox SetUpDialog object
@@ -107,16 +144,23 @@ public class GameController{
 	 * @param newMapImage Map file image path.
 	 * @param moveLimit number of turns
 	 * @param playerNames names of the players.
+	 * @throws IllegalArgumentException if the map file can not be read in full, before any window is opened.
 	 */
-	public GameController(String newMap, String newMapImage, String[][] playerNames, int moveLimit) {
+	public GameController(String newMap, String newMapImage, final String[][] playerNames, int moveLimit) {
+		driver = new GameDriver(newMap, moveLimit);
 		mapGUI = new MapView(newMapImage);
 		setupBox = new SetUpDialog();
-		driver = new GameDriver(newMap, moveLimit);
 		driver.setController(this);
 		playerInfoGUI = new PlayerInfoView();
 		playerInfoGUI.setPlayerInfo(playerNames);
+		watch(playerNames);
 		init();
-		driver.runGame(playerNames);
+		loop.submit(new Runnable() {
+			@Override
+			public void run() {
+				driver.runGame(playerNames);
+			}
+		});
 	}
 	
 	/**
@@ -124,16 +168,23 @@ public class GameController{
 	 * @param newMap Map file path.
 	 * @param moveLimit number of turns
 	 * @param playerNames names of the players.
+	 * @throws IllegalArgumentException if the map file can not be read in full, before any window is opened.
 	 */
-	public GameController(String newMap, String[][] playerNames, int moveLimit) {
+	public GameController(String newMap, final String[][] playerNames, int moveLimit) {
+		driver = new GameDriver(newMap, moveLimit);
 		mapGUI = new MapView();
 		setupBox = new SetUpDialog();
-		driver = new GameDriver(newMap, moveLimit);
 		driver.setController(this);
 		playerInfoGUI = new PlayerInfoView();
 		playerInfoGUI.setPlayerInfo(playerNames);
+		watch(playerNames);
 		init();
-		driver.runGame(playerNames);
+		loop.submit(new Runnable() {
+			@Override
+			public void run() {
+				driver.runGame(playerNames);
+			}
+		});
 	}
 	
 	/**
@@ -144,11 +195,12 @@ public class GameController{
 	 * @param countryList country list of each player
 	 * @param players game players
 	 * @param phaseName name of the phase ongoing.
+	 * @throws IllegalArgumentException if the map file can not be read in full, before any window is opened.
 	 */
 	public GameController(String newMap, String[][] players, ArrayList<ArrayList<String>> countryList, ArrayList<ArrayList<Integer>> armyCountList, String currentPlayer, String phaseName){
+		driver = new GameDriver(newMap, 0);
 		mapGUI = new MapView();
 		setupBox = new SetUpDialog();
-		driver = new GameDriver(newMap, 0);
 		driver.setController(this);
 		playerInfoGUI = new PlayerInfoView();
 		int i = 0;
@@ -172,12 +224,111 @@ public class GameController{
 		}
 
 		playerInfoGUI.setPlayerInfo(players);
+		watch(players);
 		init();
 		driver.getTurnManager().setPhase(phaseName);
 		if(phaseName.trim().equals("Reinforcement")){
 			driver.getCurrentPlayer().assignArmies(driver.getCurrentPlayer().getArmies());
 		}
-		driver.continuePhase();
+		continueGame();
+	}
+	
+	/**
+	 * Controller constructor to load a game saved as a snapshot.
+	 * @param snapshot saved game.
+	 * @throws IOException if the map has changed since the game was saved.
+	 * @throws IllegalArgumentException if the map file can not be read in full, before any window is opened.
+	 */
+	public GameController(GameSnapshot snapshot) throws IOException {
+		driver = new GameDriver(snapshot.getMapFile(), snapshot.getMoveLimit());
+		mapGUI = new MapView();
+		setupBox = new SetUpDialog();
+		driver.setController(this);
+		playerInfoGUI = new PlayerInfoView();
+		snapshot.restore(driver);
+		playerInfoGUI.setPlayerInfo(snapshot.getPlayers());
+		watch(snapshot.getPlayers());
+		init();
+		continueGame();
+	}
+	
+	/**
+	 * Continues a loaded game on the game thread.
+	 */
+	private void continueGame() {
+		loop.submit(new Runnable() {
+			@Override
+			public void run() {
+				driver.continuePhase();
+			}
+		});
+	}
+	
+	/**
+	 * Sets up the playback of the game when no human plays, so the user can pause it, step through it and change its speed.
+	 * @param players name and strategy of each player.
+	 */
+	private void watch(String[][] players) {
+		for(String[] player : players) {
+			if("human".equals(player[1])) {
+				return;
+			}
+		}
+		playback = new PlaybackController();
+		driver.setPlayback(playback);
+		final PlaybackController.Speed[] speeds = PlaybackController.Speed.values();
+		String[] names = new String[speeds.length];
+		for(int i=0; i<speeds.length; i++) {
+			names[i] = speeds[i].toString();
+		}
+		playbackView = new PlaybackView(names, playback.getSpeed().ordinal());
+		/*the game thread may be waiting in the playback, so the controls call it directly instead of queuing commands.*/
+		playbackView.pauseButtonAction(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if(playback.isPaused()) {
+					playback.resume();
+				}
+				else {
+					playback.pause();
+				}
+				playbackView.setPaused(playback.isPaused());
+			}
+		});
+		playbackView.stepButtonAction(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				playback.step();
+			}
+		});
+		playbackView.speedAction(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				playback.setSpeed(speeds[playbackView.getSpeedIndex()]);
+			}
+		});
+		playbackView.renderEveryAction(new ChangeListener() {
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				playback.setRenderEvery(playbackView.getRenderEvery());
+			}
+		});
+	}
+	
+	/**
+	 * Gives the playback of the game.
+	 * @return playback controller, null if a human plays.
+	 */
+	public PlaybackController getPlayback() {
+		return this.playback;
+	}
+	
+	/**
+	 * Gives the thread running the game.
+	 * @return game loop of this game.
+	 */
+	public GameLoop getLoop() {
+		return this.loop;
 	}
 	
 	/**
@@ -190,9 +341,20 @@ public class GameController{
         phaseView = new PhaseView();
         dominationView = new WorldDominationView();
         gameLogger = new GameLogger();
+        String logFile = System.getProperty(LOG_FILE_PROPERTY);
+        if(logFile!=null) {
+        	logSink = new LogFileSink(new File(logFile));
+        	gameLogger.setFileSink(logSink);
+        }
         MainView.createInstance(playerInfoGUI, mapGUI, controlsGUI, phaseView, dominationView);
-		driver.addObserver(phaseView);
-		driver.addObserver(dominationView);
+		if(playback!=null) {
+			driver.addObserver(playback.filter(phaseView));
+			driver.addObserver(playback.filter(dominationView));
+		}
+		else {
+			driver.addObserver(phaseView);
+			driver.addObserver(dominationView);
+		}
 		driver.addObserver(cardsGUI);
 		driver.addObserver(gameLogger);
 		driver.getMap().addObserver(mapGUI);
@@ -205,8 +367,13 @@ public class GameController{
 	 * @param message message explaining the purpose of input.
 	 * @return the country selected by the user to place army.
 	 */
-	public String placeArmyDialog(String[] countriesNamesNoArmy, String message) {
-		return setupBox.placeArmyDialog(countriesNamesNoArmy, message);
+	public String placeArmyDialog(final String[] countriesNamesNoArmy, final String message) {
+		return SwingThread.call(new Callable<String>() {
+			@Override
+			public String call() {
+				return setupBox.placeArmyDialog(countriesNamesNoArmy, message);
+			}
+		});
 	}
 	
 	/**
@@ -216,33 +383,69 @@ public class GameController{
 		addArmiesListner = new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				int armies = controlsGUI.getArmiesValue();
-				driver.shiftArmiesOnReinforcement(controlsGUI.getCountrySelected(), armies);
+				final int armies = controlsGUI.getArmiesValue();
+				final String country = controlsGUI.getCountrySelected();
+				loop.submit(new Runnable() {
+					@Override
+					public void run() {
+						driver.shiftArmiesOnReinforcement(country, armies);
+					}
+				});
 			}
 		};
-		controlsGUI.addArmiesButtonAction(this.addArmiesListner);
+		SwingThread.run(new Runnable() {
+			@Override
+			public void run() {
+				controlsGUI.addArmiesButtonAction(addArmiesListner);
+			}
+		});
 	}
 	
 	/**
 	 * Sets Action Listeners for fortification controls.
 	 */
 	public void setFortificationListeners() {
+		SwingThread.run(new Runnable() {
+			@Override
+			public void run() {
+				addFortificationListeners();
+			}
+		});
+	}
+	
+	/**
+	 * Adds the listeners of the fortification controls, on the event dispatch thread.
+	 */
+	private void addFortificationListeners() {
 		controlsGUI.countrieslistAction(new ActionListener() {
 			@Override
             public void actionPerformed(ActionEvent e) {
-				String countrySelected = (String) controlsGUI.getCountrySelected();
-				driver.fortificationNeighbourListUpdate(countrySelected);
+				final String countrySelected = (String) controlsGUI.getCountrySelected();
+				loop.submit(new Runnable() {
+					@Override
+					public void run() {
+						driver.fortificationNeighbourListUpdate(countrySelected);
+					}
+				});
 			}
 		});
 		
 		controlsGUI.playButtonAction(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent arg0) {
-				if(controlsGUI.isNeighbourSelected()) {
-					driver.getArmiesShiftedAfterFortification(controlsGUI.getCountrySelected(), 
-							controlsGUI.getNeighborSelected(), controlsGUI.getArmiesValue());
-				}
-				driver.changePhase();
+				final boolean move = controlsGUI.isNeighbourSelected();
+				final String country = controlsGUI.getCountrySelected();
+				final String neighbour = controlsGUI.getNeighborSelected();
+				final int armies = controlsGUI.getArmiesValue();
+				loop.submit(new Runnable() {
+					@Override
+					public void run() {
+						if(move) {
+							driver.getArmiesShiftedAfterFortification(country, neighbour, armies);
+						}
+						driver.changePhase();
+					}
+				});
 			}
 		});
 	}
@@ -252,19 +455,41 @@ public class GameController{
 	 * @param newArmies number of armies user can move
 	 * @param newNeighbourList list of neighbor counties
 	 */
-	public void updateControlsFortification(int newArmies, String[] newNeighbourList) {
-		controlsGUI.updateFortification(newArmies, newNeighbourList);
+	public void updateControlsFortification(final int newArmies, final String[] newNeighbourList) {
+		SwingThread.run(new Runnable() {
+			@Override
+			public void run() {
+				controlsGUI.updateFortification(newArmies, newNeighbourList);
+			}
+		});
 	}
 	
 	/**
 	 * Method set the listeners to components for attack phase in controls view
 	 */
 	public void setAttackListeners() {
+		SwingThread.run(new Runnable() {
+			@Override
+			public void run() {
+				addAttackListeners();
+			}
+		});
+	}
+	
+	/**
+	 * Adds the listeners of the attack controls, on the event dispatch thread.
+	 */
+	private void addAttackListeners() {
 		controlsGUI.countrieslistAction(new ActionListener() {
 			@Override
             public void actionPerformed(ActionEvent e) {
-				String countrySelected = (String) controlsGUI.getCountrySelected();
-				driver.attackNeighbourListUpdate(countrySelected);
+				final String countrySelected = (String) controlsGUI.getCountrySelected();
+				loop.submit(new Runnable() {
+					@Override
+					public void run() {
+						driver.attackNeighbourListUpdate(countrySelected);
+					}
+				});
 			}
 		});
 		
@@ -272,7 +497,14 @@ public class GameController{
 			@Override
 			public void actionPerformed(ActionEvent arg0) {
 				if(controlsGUI.isNeighbourSelected()) {
-					driver.announceAttack(controlsGUI.getCountrySelected(),controlsGUI.getNeighborSelected());
+					final String country = controlsGUI.getCountrySelected();
+					final String neighbour = controlsGUI.getNeighborSelected();
+					loop.submit(new Runnable() {
+						@Override
+						public void run() {
+							driver.announceAttack(country, neighbour);
+						}
+					});
 				}
 			}
 		});
@@ -280,7 +512,12 @@ public class GameController{
 		controlsGUI.endPhaseAction(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent arg0) {
-				driver.changePhase();
+				loop.submit(new Runnable() {
+					@Override
+					public void run() {
+						driver.changePhase();
+					}
+				});
 			}
 		});
 	}
@@ -289,8 +526,13 @@ public class GameController{
 	 * Update list of neighbors for combobox in controls view
 	 * @param neighbourList list of neighbor countries
 	 */
-	public void updateNeighborList(String[] neighbourList) {
-		controlsGUI.setNeighborList(neighbourList);
+	public void updateNeighborList(final String[] neighbourList) {
+		SwingThread.run(new Runnable() {
+			@Override
+			public void run() {
+				controlsGUI.setNeighborList(neighbourList);
+			}
+		});
 	}
 	
 	/**
@@ -301,15 +543,48 @@ public class GameController{
 	 * @param message message explaining the purpose of input
 	 * @return a number selected by user
 	 */
-	public int setUpBoxInput(int min, int max, String message) {
-		return setupBox.getInput(min, max,message);
+	public int setUpBoxInput(final int min, final int max, final String message) {
+		return SwingThread.call(new Callable<Integer>() {
+			@Override
+			public Integer call() {
+				return setupBox.getInput(min, max,message);
+			}
+		});
 	}
 
 	/**
 	 * Removes all controls when Game is Over.
 	 */
 	public void removeAllControls() {
-		controlsGUI.removeAll();
+		SwingThread.run(new Runnable() {
+			@Override
+			public void run() {
+				controlsGUI.removeAll();
+			}
+		});
+	}
+	
+	/**
+	 * Ends the game: removes the controls, stops the game thread and tells the game mode who won.
+	 * The log file is closed before the next game of a tournament opens it again.
+	 * @param winner name of the winner or draw.
+	 */
+	public void gameOver(final String winner) {
+		loop.stop();
+		if(logSink!=null) {
+			gameLogger.setFileSink(null);
+			logSink.close();
+		}
+		SwingThread.run(new Runnable() {
+			@Override
+			public void run() {
+				controlsGUI.removeAll();
+				if(playbackView!=null) {
+					playbackView.gameOver();
+				}
+				MainController.getInstance().notifyGameResult(winner);
+			}
+		});
 	}
 
 	/**
@@ -317,24 +592,39 @@ public class GameController{
 	* @param countryList country list
 	* @param armies Armies assigned on reinforcement
 	*/
-	public void setReinforcementControls(int armies, String[] countryList) {
-		controlsGUI.reinforcementControls(armies, countryList);
+	public void setReinforcementControls(final int armies, final String[] countryList) {
+		SwingThread.run(new Runnable() {
+			@Override
+			public void run() {
+				controlsGUI.reinforcementControls(armies, countryList);
+			}
+		});
 	}
 
 	/**
 	* set attack controls using string array
 	* @param array country list
 	*/
-	public void setAttackControls(String[] array) {
-		controlsGUI.attackControls(array);
+	public void setAttackControls(final String[] array) {
+		SwingThread.run(new Runnable() {
+			@Override
+			public void run() {
+				controlsGUI.attackControls(array);
+			}
+		});
 	}
 
 	/**
 	* set fortification controls using string array
 	* @param array country list
 	*/
-	public void setFortificationControls(String[] array) {
-		controlsGUI.fortificationControls(array);		
+	public void setFortificationControls(final String[] array) {
+		SwingThread.run(new Runnable() {
+			@Override
+			public void run() {
+				controlsGUI.fortificationControls(array);
+			}
+		});
 	}
 	
 	/**
@@ -344,7 +634,12 @@ public class GameController{
 		saveGameListener = new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				driver.saveGameDataToFile();
+				loop.submit(new Runnable() {
+					@Override
+					public void run() {
+						driver.saveGameDataToFile();
+					}
+				});
 			}
 		};
 		controlsGUI.saveGameButtonAction(this.saveGameListener);
@@ -0,0 +1,113 @@
+package risk.controller;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Thread that runs a game, the game is only changed by commands taken from its queue.
+ * The views put the moves of the user in the queue instead of calling the game on the event dispatch thread,
+ * so computer turns never freeze the window and the game is never entered twice at the same time.
+ * The thread waits on the queue while the game waits for the user.
+ */
+public class GameLoop {
+
+	/**
+	 * Command that stops the loop.
+	 */
+	private static final Runnable STOP = new Runnable() {
+		@Override
+		public void run() {
+			/*marker only.*/
+		}
+	};
+
+	/**
+	 * Commands waiting to be run.
+	 */
+	private BlockingQueue<Runnable> commands = new LinkedBlockingQueue<Runnable>();
+
+	/**
+	 * Thread running the commands.
+	 */
+	private Thread thread;
+
+	/**
+	 * True once the loop was stopped, later commands are ignored.
+	 */
+	private volatile boolean stopped = false;
+
+	/**
+	 * Creates the loop and starts its thread.
+	 * @param name name of the thread.
+	 */
+	public GameLoop(String name) {
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				runCommands();
+			}
+		}, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Queues a command, it runs after the commands queued before.
+	 * @param command change of the game.
+	 */
+	public void submit(Runnable command) {
+		if(!stopped) {
+			commands.add(command);
+		}
+	}
+
+	/**
+	 * Stops the loop once the commands already queued have run.
+	 */
+	public void stop() {
+		if(!stopped) {
+			stopped = true;
+			commands.add(STOP);
+		}
+	}
+
+	/**
+	 * Tells if the current thread is the thread of the loop.
+	 * @return true when called by a command.
+	 */
+	public boolean isLoopThread() {
+		return Thread.currentThread()==thread;
+	}
+
+	/**
+	 * Waits until the loop has stopped.
+	 * @param millis longest time to wait.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public void join(long millis) throws InterruptedException {
+		thread.join(millis);
+	}
+
+	/**
+	 * Runs the commands one after another until the loop is stopped.
+	 * A command that fails is reported and the loop goes on with the next one.
+	 */
+	private void runCommands() {
+		while(true) {
+			Runnable command;
+			try {
+				command = commands.take();
+			}catch(InterruptedException e) {
+				return;
+			}
+			if(command==STOP) {
+				return;
+			}
+			try {
+				command.run();
+			}catch(RuntimeException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+}
@@ -0,0 +1,280 @@
+package risk.controller;
+
+import java.util.Observable;
+import java.util.Observer;
+
+import risk.model.gamemode.GameDriver;
+
+/**
+ * Controls how a game between computer players is played back to the views.
+ * The game calls <code>turnEnded</code> on its own thread after every turn; there the game waits while it is paused
+ * and for the time of a turn at the chosen speed. Only every Nth turn is rendered: the map and the views given by
+ * <code>filter</code> are not updated during the other turns, and the next rendered turn shows everything that changed.
+ * At the highest speed the game never waits and the views sample the game a few times per second.
+ */
+public class PlaybackController {
+
+	/**
+	 * Speeds of the playback.
+	 */
+	public enum Speed {
+		/** One turn every half second. */
+		NORMAL("1x", 500),
+		/** Ten times faster. */
+		FAST("10x", 50),
+		/** As fast as the game runs. */
+		MAX("Max", 0);
+
+		/**
+		 * Name shown to the user.
+		 */
+		private String label;
+
+		/**
+		 * Shortest time of a turn in milliseconds.
+		 */
+		private long turnMillis;
+
+		/**
+		 * Creates a speed.
+		 * @param newLabel name shown to the user.
+		 * @param newTurnMillis shortest time of a turn in milliseconds.
+		 */
+		Speed(String newLabel, long newTurnMillis) {
+			this.label = newLabel;
+			this.turnMillis = newTurnMillis;
+		}
+
+		/**
+		 * Gives the shortest time of a turn.
+		 * @return time in milliseconds.
+		 */
+		public long getTurnMillis() {
+			return this.turnMillis;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return this.label;
+		}
+	}
+
+	/**
+	 * Time between two rendered turns at the highest speed, in milliseconds.
+	 */
+	public static final long SAMPLE_MILLIS = 250;
+
+	/**
+	 * Current speed, a game runs as fast as it can until the user slows it down.
+	 */
+	private Speed speed = Speed.MAX;
+
+	/**
+	 * Only one turn in this number is rendered.
+	 */
+	private int renderEvery = 1;
+
+	/**
+	 * True while the game waits at the end of each turn.
+	 */
+	private boolean paused = false;
+
+	/**
+	 * Turns allowed to run while paused.
+	 */
+	private int steps = 0;
+
+	/**
+	 * True once the game is over, the game never waits again.
+	 */
+	private boolean stopped = false;
+
+	/**
+	 * Number of turns ended.
+	 */
+	private int turns = 0;
+
+	/**
+	 * Time the last turn ended, in nanoseconds.
+	 */
+	private long lastTurn = System.nanoTime();
+
+	/**
+	 * Time the last rendered turn started, in nanoseconds.
+	 */
+	private long lastRender = System.nanoTime();
+
+	/**
+	 * True if the current turn is rendered.
+	 */
+	private volatile boolean rendering = true;
+
+	/**
+	 * Pauses the game at the end of the current turn.
+	 */
+	public synchronized void pause() {
+		paused = true;
+		steps = 0;
+	}
+
+	/**
+	 * Lets the game go on at the current speed.
+	 */
+	public synchronized void resume() {
+		paused = false;
+		steps = 0;
+		notifyAll();
+	}
+
+	/**
+	 * Lets a paused game play one turn, the turn is rendered.
+	 */
+	public synchronized void step() {
+		if(paused) {
+			steps++;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Tells if the game is paused.
+	 * @return true if paused.
+	 */
+	public synchronized boolean isPaused() {
+		return this.paused;
+	}
+
+	/**
+	 * Sets the speed, a game waiting for the end of a turn uses the new speed at once.
+	 * @param newSpeed speed of the playback.
+	 */
+	public synchronized void setSpeed(Speed newSpeed) {
+		this.speed = newSpeed;
+		notifyAll();
+	}
+
+	/**
+	 * Gives the speed.
+	 * @return speed of the playback.
+	 */
+	public synchronized Speed getSpeed() {
+		return this.speed;
+	}
+
+	/**
+	 * Sets how many turns are played for every rendered turn.
+	 * @param turnCount 1 to render every turn, N to render one turn in N.
+	 */
+	public synchronized void setRenderEvery(int turnCount) {
+		this.renderEvery = Math.max(1, turnCount);
+	}
+
+	/**
+	 * Gives how many turns are played for every rendered turn.
+	 * @return 1 if every turn is rendered.
+	 */
+	public synchronized int getRenderEvery() {
+		return this.renderEvery;
+	}
+
+	/**
+	 * Gives the number of turns ended.
+	 * @return turns played.
+	 */
+	public synchronized int getTurns() {
+		return this.turns;
+	}
+
+	/**
+	 * Tells if the current turn is rendered, it can be called by the game on every change.
+	 * @return true if the views are updated.
+	 */
+	public boolean isRendering() {
+		return this.rendering;
+	}
+
+	/**
+	 * Ends the playback when the game is over: the game no longer waits and every change is rendered.
+	 */
+	public synchronized void stop() {
+		stopped = true;
+		rendering = true;
+		notifyAll();
+	}
+
+	/**
+	 * Called by the game on its own thread when a turn ends.
+	 * The game waits here while paused and until the turn has lasted as long as the speed asks for.
+	 * Before waiting for the user the game is rendered, so a paused game always shows its current state.
+	 * @param driver game played back.
+	 */
+	public void turnEnded(GameDriver driver) {
+		boolean show;
+		synchronized(this) {
+			turns++;
+			show = paused && !rendering && steps==0;
+			if(show) {
+				rendering = true;
+			}
+		}
+		if(show) {
+			driver.updateMap();
+		}
+		synchronized(this) {
+			while(!stopped) {
+				if(paused) {
+					if(steps>0) {
+						steps--;
+						break;
+					}
+					waitQuietly(0);
+					continue;
+				}
+				long left = (lastTurn + speed.getTurnMillis()*1000000L - System.nanoTime())/1000000L;
+				if(left<=0) {
+					break;
+				}
+				waitQuietly(left);
+			}
+			long now = System.nanoTime();
+			lastTurn = now;
+			rendering = stopped || paused || (turns%renderEvery==0
+					&& (speed!=Speed.MAX || now-lastRender>=SAMPLE_MILLIS*1000000L));
+			if(rendering) {
+				lastRender = now;
+			}
+		}
+	}
+
+	/**
+	 * Waits for a change of the playback, the caller holds the lock.
+	 * @param millis longest time to wait, 0 to wait until notified.
+	 */
+	private void waitQuietly(long millis) {
+		try {
+			wait(millis);
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			stopped = true;
+		}
+	}
+
+	/**
+	 * Gives an observer that only passes the notifications of rendered turns to a view.
+	 * @param view observer of the game.
+	 * @return observer to be added to the game instead of the view.
+	 */
+	public Observer filter(final Observer view) {
+		return new Observer() {
+			@Override
+			public void update(Observable o, Object arg) {
+				if(rendering) {
+					view.update(o, arg);
+				}
+			}
+		};
+	}
+}
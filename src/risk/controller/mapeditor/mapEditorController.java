@@ -114,6 +114,11 @@ public class mapEditorController {
 					path = fc.getSelectedFile().getAbsolutePath();
 					
 					ArrayList<MapNode> map = mapReader.readMap(fc.getSelectedFile().getAbsolutePath());
+					if(mapReader.isIncomplete()) {
+						/*a map missing the lines that can not be read would be saved without them*/
+						existingMap1.showReadErrors(mapReader.getErrors());
+						return;
+					}
 					mapModel.writeExistingMap(map);
 					
 					if(mapModel.checkOnSaveMap()) {
@@ -0,0 +1,308 @@
+package risk.model.gamemode;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exact odds of battles, for players that always roll as many dice as they can:
+ * the attacker rolls <code>min(3, armies-1)</code> dice and the defender <code>min(2, armies)</code>.
+ * The loss tables of a single round are computed once by going through every roll of the dice.
+ * A campaign, attacking again and again until the defender is conquered or the attacker is down to a given number of armies,
+ * is a Markov chain over (attacker armies, defender armies). Its final distribution is computed once per start state
+ * and kept as a cumulative distribution, so a sample is one random number and a binary search.
+ * Only campaigns of up to <code>MAX_CACHED_ARMIES</code> armies per side are kept, within a fixed total size.
+ */
+public final class BattleOdds {
+
+	/**
+	 * Probability of the attacker losing k armies in one round, indexed by [attacker dice][defender dice][k].
+	 */
+	private static final double[][][] ROUND = computeRounds();
+
+	/**
+	 * Largest number of armies on either side of a campaign whose distribution is kept.
+	 * Bigger campaigns are rare, they are computed each time or sampled by rolling the rounds.
+	 */
+	public static final int MAX_CACHED_ARMIES = 100;
+
+	/**
+	 * Largest number of probabilities kept for all campaigns together, 16 MB.
+	 * When a new campaign would go over it, the kept campaigns are dropped and computed again when needed.
+	 */
+	private static final long MAX_CACHED_SIZE = 1L<<21;
+
+	/**
+	 * Cumulative final distributions of campaigns already computed, by start state.
+	 */
+	private static final ConcurrentHashMap<Long, double[]> CAMPAIGNS = new ConcurrentHashMap<Long, double[]>();
+
+	/**
+	 * Number of probabilities in <code>CAMPAIGNS</code>.
+	 */
+	private static final AtomicLong CACHED_SIZE = new AtomicLong();
+
+	/**
+	 * Private constructor, all methods are static.
+	 */
+	private BattleOdds() {}
+
+	/**
+	 * Computes the loss tables of every combination of dice.
+	 * @return loss probabilities indexed by [attacker dice][defender dice][attacker losses].
+	 */
+	private static double[][][] computeRounds() {
+		double[][][] round = new double[Dice.MAX_DICE+1][3][];
+		for(int a=1; a<=Dice.MAX_DICE; a++) {
+			for(int d=1; d<=2; d++) {
+				int compared = Math.min(a, d);
+				long[] counts = new long[compared+1];
+				int rolls = 1;
+				for(int i=0; i<a+d; i++) {
+					rolls *= 6;
+				}
+				for(int r=0; r<rolls; r++) {
+					int v = r;
+					int[] dice = new int[a+d];
+					for(int i=0; i<a+d; i++) {
+						dice[i] = v%6 + 1;
+						v /= 6;
+					}
+					int aDice = Dice.sort(dice[0], a>1 ? dice[1] : 0, a>2 ? dice[2] : 0);
+					int dDice = Dice.sort(dice[a], d>1 ? dice[a+1] : 0, 0);
+					counts[Dice.attackerLosses(Dice.battle(aDice, dDice))]++;
+				}
+				round[a][d] = new double[compared+1];
+				for(int k=0; k<=compared; k++) {
+					round[a][d][k] = (double) counts[k] / rolls;
+				}
+			}
+		}
+		return round;
+	}
+
+	/**
+	 * Gives the probability of the attacker losing a number of armies in one round.
+	 * The defender loses the rest of the compared dice, <code>min(attackerDice, defenderDice) - attackerLosses</code>.
+	 * @param attackerDice dice rolled by attacker, 1 to 3.
+	 * @param defenderDice dice rolled by defender, 1 or 2.
+	 * @param attackerLosses armies lost by attacker.
+	 * @return probability, 0 if the losses are not possible.
+	 */
+	public static double roundProbability(int attackerDice, int defenderDice, int attackerLosses) {
+		double[] table = ROUND[attackerDice][defenderDice];
+		if(attackerLosses<0 || attackerLosses>=table.length) {
+			return 0;
+		}
+		return table[attackerLosses];
+	}
+
+	/**
+	 * Gives the final distribution of a campaign.
+	 * The attacker attacks while it has more than <code>stop</code> armies and at least 2 armies.
+	 * Index <code>i</code> below <code>attacker</code> is the defender conquered with <code>i+1</code> attacker armies left.
+	 * Index <code>attacker + (a-1)*defender + (d-1)</code> is the attacker stopped with <code>a</code> armies
+	 * and the defender left with <code>d</code> armies, for <code>a</code> from 1 to <code>stop</code>.
+	 * @param attacker armies in the attacking country.
+	 * @param defender armies in the defending country.
+	 * @param stop number of armies at which the attacker stops, at least 1.
+	 * @return probabilities of the final states, a new array.
+	 */
+	public static double[] campaign(int attacker, int defender, int stop) {
+		double[] cumulative = cumulative(attacker, defender, stop);
+		double[] result = new double[cumulative.length];
+		double before = 0;
+		for(int i=0; i<result.length; i++) {
+			/*the cumulative distribution is set to 1 after the last possible state.*/
+			double at = Math.min(cumulative[i], 1);
+			result[i] = Math.max(0, at-before);
+			before = Math.max(before, at);
+		}
+		return result;
+	}
+
+	/**
+	 * Gives the cumulative final distribution of a campaign, in the order of <code>campaign</code>.
+	 * Distributions of campaigns up to <code>MAX_CACHED_ARMIES</code> are kept, the others are computed each time.
+	 * The value is set to 1 from the last possible state on, so a random number below 1 always finds a state.
+	 * The array may be shared and must not be changed.
+	 * @param attacker armies in the attacking country.
+	 * @param defender armies in the defending country.
+	 * @param stop number of armies at which the attacker stops, at least 1.
+	 * @return cumulative probabilities of the final states.
+	 */
+	private static double[] cumulative(int attacker, int defender, int stop) {
+		stop = Math.max(1, Math.min(stop, attacker));
+		if(attacker>MAX_CACHED_ARMIES || defender>MAX_CACHED_ARMIES) {
+			return accumulate(computeCampaign(attacker, defender, stop));
+		}
+		Long key = ((long) attacker<<42) | ((long) defender<<21) | stop;
+		double[] result = CAMPAIGNS.get(key);
+		if(result==null) {
+			result = accumulate(computeCampaign(attacker, defender, stop));
+			if(CACHED_SIZE.addAndGet(result.length)>MAX_CACHED_SIZE) {
+				CAMPAIGNS.clear();
+				CACHED_SIZE.set(result.length);
+			}
+			double[] old = CAMPAIGNS.putIfAbsent(key, result);
+			if(old!=null) {
+				CACHED_SIZE.addAndGet(-result.length);
+				result = old;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Turns a distribution into a cumulative distribution, in place.
+	 * @param result probabilities of the final states.
+	 * @return cumulative probabilities, 1 from the last possible state on.
+	 */
+	private static double[] accumulate(double[] result) {
+		int last = 0;
+		double total = 0;
+		for(int i=0; i<result.length; i++) {
+			if(result[i]>0) {
+				last = i;
+			}
+			total += result[i];
+			result[i] = total;
+		}
+		for(int i=last; i<result.length; i++) {
+			result[i] = 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Runs the Markov chain of a campaign from the start state.
+	 * Armies only go down, so the states are visited in decreasing order of total armies.
+	 * @param attacker armies in the attacking country.
+	 * @param defender armies in the defending country.
+	 * @param stop number of armies at which the attacker stops.
+	 * @return probabilities of the final states, see <code>campaign</code>.
+	 */
+	private static double[] computeCampaign(int attacker, int defender, int stop) {
+		double[] result = new double[attacker + stop*defender];
+		double[][] p = new double[attacker+1][defender+1];
+		p[attacker][defender] = 1;
+		for(int total=attacker+defender; total>0; total--) {
+			for(int a=Math.min(attacker, total); a>=1; a--) {
+				int d = total - a;
+				if(d>defender) {
+					break;
+				}
+				double prob = p[a][d];
+				if(prob==0) {
+					continue;
+				}
+				if(d==0) {
+					result[a-1] += prob;
+				}
+				else if(a<=stop || a<2) {
+					result[attacker + (a-1)*defender + (d-1)] += prob;
+				}
+				else {
+					int aDice = Math.min(Dice.MAX_DICE, a-1);
+					int dDice = Math.min(2, d);
+					double[] table = ROUND[aDice][dDice];
+					int compared = table.length-1;
+					for(int k=0; k<=compared; k++) {
+						p[a-k][d-(compared-k)] += prob*table[k];
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gives the probability that a campaign conquers the defending country.
+	 * @param attacker armies in the attacking country.
+	 * @param defender armies in the defending country.
+	 * @param stop number of armies at which the attacker stops, at least 1.
+	 * @return probability of conquering.
+	 */
+	public static double winProbability(int attacker, int defender, int stop) {
+		return Math.min(1, cumulative(attacker, defender, stop)[attacker-1]);
+	}
+
+	/**
+	 * Samples the end of a campaign with one random number, found by a binary search of the cumulative distribution.
+	 * Campaigns bigger than <code>MAX_CACHED_ARMIES</code> are played round by round instead.
+	 * @param rand random generator of the game.
+	 * @param attacker armies in the attacking country.
+	 * @param defender armies in the defending country.
+	 * @param stop number of armies at which the attacker stops, at least 1.
+	 * @return armies left in attacker country in the low 16 bits and in defender country in the high 16 bits,
+	 * read with <code>attackerLeft</code> and <code>defenderLeft</code>.
+	 */
+	public static int sample(Random rand, int attacker, int defender, int stop) {
+		if(attacker>MAX_CACHED_ARMIES || defender>MAX_CACHED_ARMIES) {
+			return roll(rand, attacker, defender, stop);
+		}
+		double[] cumulative = cumulative(attacker, defender, stop);
+		double r = rand.nextDouble();
+		int low = 0;
+		int high = cumulative.length-1;
+		while(low<high) {
+			int mid = (low+high)>>>1;
+			if(cumulative[mid]>r) {
+				high = mid;
+			}
+			else {
+				low = mid+1;
+			}
+		}
+		if(low<attacker) {
+			return low+1;
+		}
+		int a = (low-attacker)/defender + 1;
+		int d = (low-attacker)%defender + 1;
+		return a | d<<16;
+	}
+
+	/**
+	 * Plays a campaign round by round, one random number per round.
+	 * @param rand random generator of the game.
+	 * @param attacker armies in the attacking country.
+	 * @param defender armies in the defending country.
+	 * @param stop number of armies at which the attacker stops, at least 1.
+	 * @return armies left, as given by <code>sample</code>.
+	 */
+	private static int roll(Random rand, int attacker, int defender, int stop) {
+		int a = attacker;
+		int d = defender;
+		while(d>0 && a>Math.max(1, stop)) {
+			double[] table = ROUND[Math.min(Dice.MAX_DICE, a-1)][Math.min(2, d)];
+			int compared = table.length-1;
+			double r = rand.nextDouble();
+			int k = 0;
+			while(k<compared && r>=table[k]) {
+				r -= table[k];
+				k++;
+			}
+			a -= k;
+			d -= compared-k;
+		}
+		return a | d<<16;
+	}
+
+	/**
+	 * Gives the armies left in the attacking country by a sampled campaign.
+	 * @param outcome result of <code>sample</code>.
+	 * @return attacker armies left.
+	 */
+	public static int attackerLeft(int outcome) {
+		return outcome & 0xFFFF;
+	}
+
+	/**
+	 * Gives the armies left in the defending country by a sampled campaign.
+	 * @param outcome result of <code>sample</code>.
+	 * @return defender armies left, 0 if conquered.
+	 */
+	public static int defenderLeft(int outcome) {
+		return outcome>>>16;
+	}
+}
@@ -0,0 +1,127 @@
+package risk.model.gamemode;
+
+import java.util.Random;
+
+/**
+ * Dice rolling and battle resolution on packed integers.
+ * Up to three dice are kept sorted from high to low in one <code>int</code>, three bits per die,
+ * with the highest die in the lowest bits and 0 for a missing die.
+ * The losses of a battle are returned as one <code>int</code> holding the attacker and defender losses,
+ * so rolling and resolving an attack does not create any objects.
+ */
+public final class Dice {
+
+	/**
+	 * Maximum number of dice a player can roll.
+	 */
+	public static final int MAX_DICE = 3;
+
+	/**
+	 * Bits used by one die.
+	 */
+	private static final int BITS = 3;
+
+	/**
+	 * Mask of one die.
+	 */
+	private static final int MASK = 7;
+
+	/**
+	 * Private constructor, all methods are static.
+	 */
+	private Dice() {}
+
+	/**
+	 * Rolls dice and sorts the results.
+	 * @param rand random generator of the game.
+	 * @param n number of dice, from 0 to 3.
+	 * @return packed dice sorted from high to low.
+	 */
+	public static int roll(Random rand, int n) {
+		int a = n>0 ? rand.nextInt(6)+1 : 0;
+		int b = n>1 ? rand.nextInt(6)+1 : 0;
+		int c = n>2 ? rand.nextInt(6)+1 : 0;
+		return sort(a, b, c);
+	}
+
+	/**
+	 * Sorts three dice from high to low with a fixed compare and swap network.
+	 * @param a first die, 0 if missing.
+	 * @param b second die, 0 if missing.
+	 * @param c third die, 0 if missing.
+	 * @return packed dice sorted from high to low.
+	 */
+	public static int sort(int a, int b, int c) {
+		int t;
+		if(b>a) {
+			t = a;
+			a = b;
+			b = t;
+		}
+		if(c>b) {
+			t = b;
+			b = c;
+			c = t;
+		}
+		if(b>a) {
+			t = a;
+			a = b;
+			b = t;
+		}
+		return a | b<<BITS | c<<(2*BITS);
+	}
+
+	/**
+	 * Gives one die of a packed roll.
+	 * @param dice packed dice.
+	 * @param k position of the die, 0 is the highest.
+	 * @return value of the die, 0 if missing.
+	 */
+	public static int die(int dice, int k) {
+		return dice>>(k*BITS) & MASK;
+	}
+
+	/**
+	 * Compares the dice of attacker and defender pair by pair, highest against highest.
+	 * Defender wins ties.
+	 * @param attacker packed dice of attacker.
+	 * @param defender packed dice of defender.
+	 * @return packed losses, read with <code>attackerLosses</code> and <code>defenderLosses</code>.
+	 */
+	public static int battle(int attacker, int defender) {
+		int aLost = 0;
+		int dLost = 0;
+		for(int k=0; k<MAX_DICE; k++) {
+			int a = die(attacker, k);
+			int d = die(defender, k);
+			if(a==0 || d==0) {
+				break;
+			}
+			if(a>d) {
+				dLost++;
+			}
+			else {
+				aLost++;
+			}
+		}
+		return aLost | dLost<<BITS;
+	}
+
+	/**
+	 * Gives the armies lost by the attacker in a battle.
+	 * @param losses result of <code>battle</code>.
+	 * @return armies lost by attacker.
+	 */
+	public static int attackerLosses(int losses) {
+		return losses & MASK;
+	}
+
+	/**
+	 * Gives the armies lost by the defender in a battle.
+	 * @param losses result of <code>battle</code>.
+	 * @return armies lost by defender.
+	 */
+	public static int defenderLosses(int losses) {
+		return losses>>BITS & MASK;
+	}
+}
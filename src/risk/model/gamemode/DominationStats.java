@@ -0,0 +1,143 @@
+package risk.model.gamemode;
+
+import java.util.Arrays;
+
+/**
+ * Share of the map held by each player at one moment of a game, given by <code>GameDriver.getDominationStats</code>.
+ * The players keep their countries, continents and armies up to date as the game changes, so the stats are made
+ * in O(players) without walking the countries. They never change once made and can be read on any thread.
+ */
+public final class DominationStats {
+
+	/**
+	 * Number of countries of the map.
+	 */
+	private final int totalCountries;
+
+	/**
+	 * Name of each player.
+	 */
+	private final String[] names;
+
+	/**
+	 * Countries owned by each player.
+	 */
+	private final int[] countries;
+
+	/**
+	 * Continents held by each player.
+	 */
+	private final int[] continents;
+
+	/**
+	 * Armies of each player on the map.
+	 */
+	private final int[] armies;
+
+	/**
+	 * Creates the stats, the arrays are not copied.
+	 * @param newTotalCountries number of countries of the map.
+	 * @param newNames name of each player.
+	 * @param newCountries countries owned by each player.
+	 * @param newContinents continents held by each player.
+	 * @param newArmies armies of each player on the map.
+	 */
+	DominationStats(int newTotalCountries, String[] newNames, int[] newCountries, int[] newContinents, int[] newArmies) {
+		this.totalCountries = newTotalCountries;
+		this.names = newNames;
+		this.countries = newCountries;
+		this.continents = newContinents;
+		this.armies = newArmies;
+	}
+
+	/**
+	 * Gives the number of countries of the map.
+	 * @return number of countries.
+	 */
+	public int getTotalCountries() {
+		return this.totalCountries;
+	}
+
+	/**
+	 * Gives the number of players still in the game.
+	 * @return number of players.
+	 */
+	public int size() {
+		return this.names.length;
+	}
+
+	/**
+	 * Gives the name of a player.
+	 * @param i index of the player.
+	 * @return name of the player.
+	 */
+	public String getName(int i) {
+		return this.names[i];
+	}
+
+	/**
+	 * Gives the countries owned by a player.
+	 * @param i index of the player.
+	 * @return number of countries.
+	 */
+	public int getCountries(int i) {
+		return this.countries[i];
+	}
+
+	/**
+	 * Gives the share of the map owned by a player.
+	 * @param i index of the player.
+	 * @return percentage of the countries of the map.
+	 */
+	public float getPercentage(int i) {
+		if(totalCountries==0) {
+			return 0;
+		}
+		return countries[i]*100f/totalCountries;
+	}
+
+	/**
+	 * Gives the continents held by a player.
+	 * @param i index of the player.
+	 * @return number of continents.
+	 */
+	public int getContinents(int i) {
+		return this.continents[i];
+	}
+
+	/**
+	 * Gives the armies of a player on the map.
+	 * @param i index of the player.
+	 * @return armies in the countries of the player.
+	 */
+	public int getArmies(int i) {
+		return this.armies[i];
+	}
+
+	/**
+	 * Tells if other stats have the same values, a view only needs to be refreshed when they differ.
+	 * @param o object to be compared.
+	 * @return true if the players and their values are the same.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if(this==o) {
+			return true;
+		}
+		if(!(o instanceof DominationStats)) {
+			return false;
+		}
+		DominationStats other = (DominationStats) o;
+		return totalCountries==other.totalCountries && Arrays.equals(names, other.names)
+				&& Arrays.equals(countries, other.countries) && Arrays.equals(continents, other.continents)
+				&& Arrays.equals(armies, other.armies);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return 31*(31*(31*Arrays.hashCode(names)+Arrays.hashCode(countries))+Arrays.hashCode(continents))+Arrays.hashCode(armies);
+	}
+}
@@ -2,7 +2,6 @@ package risk.model.gamemode;
 
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.ObjectOutputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -10,7 +9,7 @@ import java.util.Observable;
 import java.util.Random;
 
 import risk.controller.GameController;
-import risk.controller.MainController;
+import risk.controller.PlaybackController;
 import risk.model.Card;
 import risk.model.RiskData;
 import risk.model.map.CountryNode;
@@ -20,10 +19,16 @@ import risk.model.player.AggressiveStrategy;
 import risk.model.player.BenevolentStrategy;
 import risk.model.player.CheaterStrategy;
 import risk.model.player.HumanStrategy;
+import risk.model.player.MctsStrategy;
 import risk.model.player.Player;
 import risk.model.player.PlayerStrategy;
 import risk.model.player.RandomStrategy;
+import risk.model.player.StrategyStats;
+import risk.model.player.TimedStrategy;
 import risk.model.turnmanager.TurnManager;
+import risk.model.util.GameEvent;
+import risk.model.util.GameEvent.Level;
+import risk.model.util.GameRandom;
 
 /**
  * This class controls the turns - Startup phase, Fortification, reinforcement and attack phase.
@@ -79,6 +84,46 @@ public class GameDriver extends Observable {
 	 */
 	private int moveCounter = 0;
 	
+	/**
+	 * Name of the winner, or draw, once the game is over.
+	 */
+	private String winner;
+	
+	/**
+	 * Random generator of this game, used for the dice and by the computer players.
+	 */
+	private GameRandom random = new GameRandom();
+	
+	/**
+	 * Lowest level of log messages sent to the observers.
+	 */
+	private Level logLevel = Level.DEBUG;
+	
+	/**
+	 * True to time the decisions of the players.
+	 */
+	private boolean decisionTiming = false;
+	
+	/**
+	 * Time allowed for one decision of a player in milliseconds, 0 for no deadline.
+	 */
+	private long decisionBudget = 0;
+	
+	/**
+	 * Number of threads one search of a computer player may use, every processor unless games run in parallel.
+	 */
+	private int searchThreads = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * Timing of the decisions of each player, empty if decisions are not timed.
+	 */
+	private ArrayList<StrategyStats> strategyStats = new ArrayList<StrategyStats>();
+	
+	/**
+	 * Playback of a watched game, null when the game runs at full speed and renders every change.
+	 */
+	private PlaybackController playback;
+	
 	/**
 	 * Constructor initialize the GUI and  map class object.
 	 * Constructor is private so objects can not be created directly for this class.
@@ -107,6 +152,65 @@ public class GameDriver extends Observable {
 	public void setController(GameController newController) {
 		this.controller = newController;
 	}
+
+	/**
+	 * Sets the playback of a watched game, the game then waits for it at the end of every turn.
+	 * @param newPlayback playback controller, null to render every change at full speed.
+	 */
+	public void setPlayback(PlaybackController newPlayback) {
+		this.playback = newPlayback;
+	}
+	
+	/**
+	 * Gives the random generator of this game.
+	 * Everything random in a game comes from this generator, so a game started with the same seed is played the same way.
+	 * @return random generator of the game.
+	 */
+	public GameRandom getRandom() {
+		return this.random;
+	}
+	
+	/**
+	 * Sets the random generator of this game, must be called before the game is started to replay a game.
+	 * @param newRandom random generator to be used.
+	 */
+	public void setRandom(GameRandom newRandom) {
+		this.random = newRandom;
+	}
+	
+	/**
+	 * Sets whether the decisions of the players are timed, must be called before the players are created.
+	 * @param timing true to record the time of every decision in StrategyStats.
+	 */
+	public void setDecisionTiming(boolean timing) {
+		this.decisionTiming = timing;
+	}
+	
+	/**
+	 * Sets the time allowed for one decision of a player, used only when decisions are timed.
+	 * A player that goes over it is counted in its StrategyStats and ends its attacks for the turn.
+	 * @param millis time in milliseconds, 0 for no deadline.
+	 */
+	public void setDecisionBudget(long millis) {
+		this.decisionBudget = Math.max(0, millis);
+	}
+	
+	/**
+	 * Sets the number of threads one search of a computer player may use, must be called before the players are created.
+	 * Games played at the same time share the processors, so each of them should search on a single thread.
+	 * @param threads number of threads, at least 1.
+	 */
+	public void setSearchThreads(int threads) {
+		this.searchThreads = Math.max(1, threads);
+	}
+	
+	/**
+	 * Gives the timing of the decisions of each player, in the order of the players.
+	 * @return statistics of the players, empty if decisions are not timed.
+	 */
+	public ArrayList<StrategyStats> getStrategyStats() {
+		return this.strategyStats;
+	}
 	
 	/**
 	 * Starts the game.
@@ -125,12 +229,19 @@ public class GameDriver extends Observable {
 	 */
 	public void createPlayers(String[][] playerData) {
 		players = new ArrayList<Player>();
+		strategyStats = new ArrayList<StrategyStats>();
 		for(int i=0; i < playerData.length; i++){
 			Player temp = new Player(playerData[i][0],RiskData.InitialArmiesCount.getArmiesCount(playerData.length), this);
 			temp.setMapData(map.getMapData());
-			temp.setStrategy(createBehavior(playerData[i][1]));
+			PlayerStrategy behavior = createBehavior(playerData[i][1]);
+			if(decisionTiming && behavior!=null) {
+				StrategyStats stats = new StrategyStats(playerData[i][0], playerData[i][1]);
+				strategyStats.add(stats);
+				behavior = new TimedStrategy(this, behavior, stats, decisionBudget);
+			}
+			temp.setStrategy(behavior);
 			players.add(temp);
-			nottifyObservers("Player created and  added "+temp.getName());
+			log(Level.INFO, "Player created and  added {}", temp.getName());
 		}
 	}
 	
@@ -156,6 +267,9 @@ public class GameDriver extends Observable {
 			else if(strategy.equals("random")) {
 				pStrategy = new RandomStrategy(this);
 			}
+			else if(strategy.equals("mcts")) {
+				pStrategy = new MctsStrategy(this, MctsStrategy.DEFAULT_BUDGET_MILLIS, 0, searchThreads);
+			}
 			return pStrategy;
 	}
 
@@ -166,16 +280,12 @@ public class GameDriver extends Observable {
 	public void startUpPhase() {
 		dividingCountries(map.getMapData());
 		updatePlayerView();
-		/*Distribute armies to countries as per player's choice.*/
+		/*Distribute armies to countries as per player's choice, each player places all its armies in one call.*/
 		int totalArmiesDiv = players.get(0).getArmiesCount();
-		for(int i1=0;i1<totalArmiesDiv ;i1++){
-			for(Player p: players){
-				String s = p.placeArmyOnStartUp();
-				p.getCountry(s).addArmy(1);
-				nottifyObservers(p.getName()+" placed 1 army on "+s);
-				p.removeArmies(1);
-			}
+		for(Player p: players){
+			p.placeArmiesOnStartUp(totalArmiesDiv);
 		}
+		log(Level.INFO, "Armies placed by all players");
 		updateMap();
 	}
 	
@@ -187,7 +297,7 @@ public class GameDriver extends Observable {
 	public void dividingCountries(ArrayList<MapNode> mapData) {
 		players.get(0).setTurnTrue();
 		this.currentPlayer = players.get(0);
-		nottifyObservers("Player "+players.get(0)+" has first turn");
+		log(Level.INFO, "Player {} has first turn", players.get(0));
 		int i = 0;
 		/*Random distribution of countries among the players.*/
 		for(MapNode m : mapData){
@@ -198,7 +308,7 @@ public class GameDriver extends Observable {
 				}
 			}
 		}
-		nottifyObservers("Countries divided to players");
+		log(Level.INFO, "Countries divided to players");
 	}
 	
 	/**
@@ -234,8 +344,11 @@ public class GameDriver extends Observable {
 			this.currentPlayer = players.get(currentPlayerIndex+1);
 		}
 		this.currentPlayer.setTurnTrue();
-		nottifyObservers("Turn changed to "+ this.currentPlayer.getName());
+		log(Level.INFO, "Turn changed to {}", this.currentPlayer.getName());
 		this.getCurrentPlayer().setArmies(this.getCurrentPlayer().getArmies());
+		if(playback!=null && !turnManager.isGameOver()) {
+			playback.turnEnded(this);
+		}
 	}
 	
 	/**
@@ -244,10 +357,9 @@ public class GameDriver extends Observable {
 	 * @return Neighbors of the country.
 	 */
 	public String [] getNeighbourCountryNames(String countryname) {
-		for(CountryNode country: getCurrentPlayer().getCountries()){
-			if(country.getCountryName().equals(countryname)){
-				return country.getNeighbourCountriesString();
-			}
+		CountryNode country = getCurrentPlayer().getCountry(countryname);
+		if(country!=null){
+			return country.getNeighbourCountriesString();
 		}
 		return null;
 	}
@@ -274,10 +386,9 @@ public class GameDriver extends Observable {
 	 * @return list of neighbor countries.
 	 */
 	public CountryNode [] getNeighbourCountries(CountryNode countrynode) {
-		for(CountryNode country: getCurrentPlayer().getCountries()){
-			if(country.getCountryName().equals(countrynode.getCountryName())){
-				return country.getNeighbourCountries();
-			}
+		CountryNode country = getCurrentPlayer().getCountry(countrynode.getCountryName());
+		if(country!=null){
+			return country.getNeighbourCountries();
 		}
 		return null;
 	}
@@ -318,10 +429,13 @@ public class GameDriver extends Observable {
 	
 	/**
 	 * Delegate method to call updateMap method from map class.
+	 * Nothing is sent during the turns the playback does not render, the next rendered turn sends every change.
 	 * @see #updateMap()
 	 */
 	public void updateMap() {
-		map.updateMap();
+		if(playback==null || playback.isRendering()) {
+			map.updateMap();
+		}
 	}
 	
 	/**
@@ -416,45 +530,102 @@ public class GameDriver extends Observable {
 	 * @param defenderCountry country defending against attack
 	 */
 	public void announceAttack(String attackerCountry, String defenderCountry) {
-		nottifyObservers("Attack announced Attacker Country: "+attackerCountry+"  Defender Country: "+defenderCountry);
 		/*Announce attack on phase view.*/
+		log(Level.INFO, "Attack announced Attacker Country: {}  Defender Country: {}", attackerCountry, defenderCountry);
 		CountryNode dCountry = map.getCountry(defenderCountry);
 		Player defender = dCountry.getOwner();
 		CountryNode aCountry = currentPlayer.getCountry(attackerCountry);
+		int aArmies = attackRound(aCountry, dCountry, defender);
+		endAttack(aCountry, dCountry, defender, aArmies);
+	}
+	
+	/**
+	 * Plays one round of an attack: both players choose their dice, the dice are rolled and the losses removed.
+	 * @param aCountry country attacking
+	 * @param dCountry country defending against attack
+	 * @param defender player defending the attack
+	 * @return number of dice rolled by the attacker
+	 */
+	private int attackRound(CountryNode aCountry, CountryNode dCountry, Player defender) {
 		/*Show dialog boxes and get input from attacker and defender on how many dice to roll.*/
-		int aArmies = this.currentPlayer.selectDiceForAttack(attackerCountry);
-		int dArmies = defender.selectDiceForAttack(defenderCountry);
+		int aArmies = this.currentPlayer.selectDiceForAttack(aCountry.getCountryName());
+		int dArmies = defender.selectDiceForAttack(dCountry.getCountryName());
 		/*Rolling dice for attacker and defender.*/
-		ArrayList<Integer> aResults = diceRoll(aArmies);
-		ArrayList<Integer> dResults = diceRoll(dArmies);
-		String s = this.currentPlayer+" dice : ";
-		for(int i : aResults) {
-			s += i +", ";
-		}
-		s+= defender+" dice: ";
-		for(int j : dResults) {
-			s += j +" ";
-		}
-		nottifyObservers(s);
-		battle(dCountry, defender, aCountry, aArmies, dArmies, aResults, dResults);
-		nottifyObservers("Armies left in attacker Country "+ aCountry.getCountryName()+" "+aCountry.getArmiesCount());
-		nottifyObservers("Armies left in defender Country "+ dCountry.getCountryName()+" "+dCountry.getArmiesCount());
+		int aResults = Dice.roll(random, aArmies);
+		int dResults = Dice.roll(random, dArmies);
+		if(isLogging(Level.DEBUG)) {
+			StringBuilder s = new StringBuilder();
+			s.append(this.currentPlayer).append(" dice : ");
+			for(int i=0; i<aArmies; i++) {
+				s.append(Dice.die(aResults, i)).append(", ");
+			}
+			s.append(defender).append(" dice: ");
+			for(int j=0; j<dArmies; j++) {
+				s.append(Dice.die(dResults, j)).append(' ');
+			}
+			log(Level.DEBUG, s.toString());
+		}
+		battle(dCountry, aCountry, aResults, dResults);
+		log(Level.DEBUG, "Armies left in attacker Country {} {}", aCountry.getCountryName(), aCountry.getArmiesCount());
+		log(Level.DEBUG, "Armies left in defender Country {} {}", dCountry.getCountryName(), dCountry.getArmiesCount());
+		return aArmies;
+	}
+	
+	/**
+	 * This method resolves a whole campaign at once: the attacker attacks again and again until the defender country is conquered
+	 * or the attacker country is down to <code>minArmies</code> armies. When the defender is a computer player, both players
+	 * are taken to roll as many dice as they can and the result is sampled from the exact odds in BattleOdds instead of
+	 * rolling every round. A human defender chooses its dice, so the rounds are then played one by one.
+	 * @param attackerCountry country attacking
+	 * @param defenderCountry country defending against attack
+	 * @param minArmies armies at which the attacker stops attacking, at least 1
+	 */
+	public void attackUntil(String attackerCountry, String defenderCountry, int minArmies) {
+		CountryNode dCountry = map.getCountry(defenderCountry);
+		Player defender = dCountry.getOwner();
+		CountryNode aCountry = currentPlayer.getCountry(attackerCountry);
+		if("human".equals(defender.getPlayerStrategy())) {
+			int aArmies = 1;
+			while(dCountry.getArmiesCount()>0 && aCountry.getArmiesCount()>Math.max(1, minArmies)) {
+				aArmies = attackRound(aCountry, dCountry, defender);
+			}
+			endAttack(aCountry, dCountry, defender, aArmies);
+			return;
+		}
+		int outcome = BattleOdds.sample(random, aCountry.getArmiesCount(), dCountry.getArmiesCount(), minArmies);
+		aCountry.setArmies(BattleOdds.attackerLeft(outcome));
+		dCountry.setArmies(BattleOdds.defenderLeft(outcome));
+		if(isLogging(Level.INFO)) {
+			log(Level.INFO, "Attack from {} on {} until {} armies left, armies left {} and {}",
+					attackerCountry, defenderCountry, minArmies, aCountry.getArmiesCount(), dCountry.getArmiesCount());
+		}
+		endAttack(aCountry, dCountry, defender, Math.min(Dice.MAX_DICE, aCountry.getArmiesCount()-1));
+	}
+	
+	/**
+	 * This method occupies the defender country if it has no armies left, then checks if the game is over or the phase continues.
+	 * @param aCountry attacking country
+	 * @param dCountry country defending the attack
+	 * @param defender player defending the attack
+	 * @param aArmies minimum armies the attacker has to move to a conquered country
+	 */
+	private void endAttack(CountryNode aCountry, CountryNode dCountry, Player defender, int aArmies) {
 		/*check if defender country has armies left.*/
 		if(dCountry.getArmiesCount()==0) {
 			dCountry.setOwner(currentPlayer);
 			turnManager.setWonCard(true);
 			/*Notify change in ownership of a country.*/
-			nottifyObservers("Country "+ dCountry.getCountryName() +" won by " + dCountry.getOwner().getName() + ", new armies "+dCountry.getArmiesCount());
+			log(Level.INFO, "Country {} won by {}, new armies {}", dCountry.getCountryName(), dCountry.getOwner().getName(), dCountry.getArmiesCount());
 			/*move countries from attacker country to new acquired country.*/
 			int moveArmies = currentPlayer.moveArmies(aArmies, aCountry.getArmiesCount()-1, "Select armies to move:");
 			dCountry.addArmy(moveArmies);
 			aCountry.removeArmies(moveArmies);
 			if(map.continentWonByPlayer(currentPlayer, dCountry)) {
-				nottifyObservers("Player "+ currentPlayer.getName() +" conquered " + dCountry.getContinent());
+				log(Level.INFO, "Player {} conquered {}", currentPlayer.getName(), dCountry.getContinent());
 				currentPlayer.addContinent(dCountry.getContinent());
 			}
 		}
-		map.updateMap();
+		updateMap();
 		setPlayerOut(defender);
 		if(!checkGameState()) {
 			continuePhase();
@@ -475,27 +646,39 @@ public class GameDriver extends Observable {
 	 * @param dResults results of dice rolled by defender
 	 */
 	public void battle(CountryNode dCountry, Player defender, CountryNode aCountry, int aArmies, int dArmies,ArrayList<Integer> aResults,ArrayList<Integer> dResults) {
-		/*Compare the results to decide battle result.*/
-		int i=1;
-		while(!aResults.isEmpty() && !dResults.isEmpty()) {
-			int aMax = max(aResults);
-			int dMax = max(dResults);
-			if(aResults.get(aMax)>dResults.get(dMax)) {
-				dCountry.removeArmy();
-				/*Show army removed from defender country.*/
-				nottifyObservers("Battle "+i+" result : Winner Country: "+aCountry.getCountryName()+" Army removed from "+ dCountry.getCountryName());
-			}
-			else {
-				aCountry.removeArmy();
-				nottifyObservers("Battle result : Winner Country: "+dCountry.getCountryName()+" Army removed from "+ aCountry.getCountryName());
-				
-			}
-			aResults.remove(aMax);
-			dResults.remove(dMax);
-			i++;
+		battle(dCountry, aCountry, pack(aResults), pack(dResults));
+	}
+	
+	/**
+	 * This method removes the armies lost in a battle from the attacking and defending countries.
+	 * @param dCountry country defending the attack
+	 * @param aCountry attacking country
+	 * @param aResults packed dice rolled by attacker, see Dice
+	 * @param dResults packed dice rolled by defender, see Dice
+	 */
+	private void battle(CountryNode dCountry, CountryNode aCountry, int aResults, int dResults) {
+		int losses = Dice.battle(aResults, dResults);
+		int aLost = Dice.attackerLosses(losses);
+		int dLost = Dice.defenderLosses(losses);
+		aCountry.removeArmies(aLost);
+		dCountry.removeArmies(dLost);
+		if(isLogging(Level.DEBUG)) {
+			log(Level.DEBUG, "Battle result : {} armies removed from {}, {} armies removed from {}", dLost, dCountry.getCountryName(), aLost, aCountry.getCountryName());
 		}
 	}
 	
+	/**
+	 * Packs up to three dice from a list into the sorted form used by Dice.
+	 * @param results dice values.
+	 * @return packed dice.
+	 */
+	private int pack(ArrayList<Integer> results) {
+		int a = results.size()>0 ? results.get(0) : 0;
+		int b = results.size()>1 ? results.get(1) : 0;
+		int c = results.size()>2 ? results.get(2) : 0;
+		return Dice.sort(a, b, c);
+	}
+	
 	/**
 	 * This method declares the game end if all the countries are owned by one player only.
 	 * @return true if game if over, false if there is at least two players own at least one country on map
@@ -535,7 +718,7 @@ public class GameDriver extends Observable {
 	 * @return integer number that represents the value on the dice.
 	 */
 	public ArrayList<Integer> diceRoll(int n) {
-		Random rand = new Random();
+		Random rand = this.random;
 		ArrayList<Integer> diceResults = new ArrayList<Integer>();
 		for(int i=0;i<n;i++) {
 			diceResults.add(rand.nextInt(6) + 1);
@@ -575,23 +758,61 @@ public class GameDriver extends Observable {
 		return this.players;
 	}
 
+	/**
+	 * Gives the share of the map held by each player still in the game.
+	 * The players keep their counts up to date, so this takes O(players) however big the map is.
+	 * @return immutable stats, in the order of the players.
+	 */
+	public DominationStats getDominationStats() {
+		int size = players==null ? 0 : players.size();
+		String[] names = new String[size];
+		int[] countries = new int[size];
+		int[] continents = new int[size];
+		int[] armies = new int[size];
+		for(int i=0; i<size; i++) {
+			Player player = players.get(i);
+			names[i] = player.getName();
+			countries[i] = player.getPlayerCountryCount();
+			continents[i] = player.getContinentCount();
+			armies[i] = player.getArmiesOnMap();
+		}
+		return new DominationStats(map.getGraph().getDeclaredCount(), names, countries, continents, armies);
+	}
+
 	/**
 	 * Call Phase View to show game over.
 	 * @param winner Name of the winner or Draw if no winner.
 	 */
 	public void announceGameOver(String winner) {
+		this.winner = winner;
+		if(playback!=null) {
+			playback.stop();
+			updateMap();
+		}
 		nottifyObservers("GameOver");
-		controller.removeAllControls();
-		System.out.print("Winner "+winner);
-		MainController.getInstance().notifyGameResult(winner);
+		/*Headless games have no controller, the result is read through getWinner().*/
+		if(controller!=null) {
+			System.out.print("Winner "+winner);
+			controller.gameOver(winner);
+		}
+	}
+	
+	/**
+	 * Gives the result of the game.
+	 * @return name of the winner, draw, or null if the game is not over yet.
+	 */
+	public String getWinner() {
+		return this.winner;
 	}
 	
 	/**
 	 * If a player wins a territory during a attack, at the end of the attack phase one card 
-	 * is removed from pile and given to player.
+	 * is removed from pile and given to player. Nothing is given once the pile is empty.
 	 */
 	public void issueCard() {
-		this.currentPlayer.addCard(cards.remove(0));
+		if(!cards.isEmpty()) {
+			this.currentPlayer.addCard(cards.remove(0));
+		}
 	}
 
 	/**
@@ -636,6 +857,38 @@ public class GameDriver extends Observable {
 		controller.setFortificationControls(array);
 	}
 	
+	/**
+	 * Gives the number of rounds played, counted only when there is a move limit.
+	 * @return rounds played.
+	 */
+	public int getMoveCounter() {
+		return this.moveCounter;
+	}
+	
+	/**
+	 * Sets the number of rounds played, used when a saved game is loaded.
+	 * @param count rounds played.
+	 */
+	public void setMoveCounter(int count) {
+		this.moveCounter = count;
+	}
+	
+	/**
+	 * Gives the maximum number of rounds of the game.
+	 * @return move limit, 0 for no limit.
+	 */
+	public int getMoveLimit() {
+		return this.moveLimit;
+	}
+	
+	/**
+	 * Gives the cards left in the pile.
+	 * @return card pile.
+	 */
+	public ArrayList<Card> getCardPile() {
+		return this.cards;
+	}
+	
 	/**
 	 * Checks if more turns are allowed or not.
 	 * @return boolean value 
@@ -663,15 +916,106 @@ public class GameDriver extends Observable {
 	
 	/**
 	 * observer pattern.
+	 * Messages the views act on, like the phase names and GameOver, are sent with this method and are never filtered.
 	 * @param msg Message to be displayed on game logger.
 	 */
 	public void nottifyObservers(String msg) {
+		if(countObservers()==0) {
+			return;
+		}
 		setChanged();
 		notifyObservers(msg);
 	}
 	
+	/**
+	 * Checks if log messages of a level reach any observer.
+	 * Callers can check this before working out the arguments of an expensive message.
+	 * @param level level of the message.
+	 * @return true if there are observers and the level is not filtered out.
+	 */
+	public boolean isLogging(Level level) {
+		return level.compareTo(this.logLevel)>=0 && countObservers()>0;
+	}
+	
+	/**
+	 * Sets the lowest level of log messages sent to the observers.
+	 * @param level lowest level to be sent.
+	 */
+	public void setLogLevel(Level level) {
+		this.logLevel = level;
+	}
+	
+	/**
+	 * Sends a log message without arguments to the observers.
+	 * @param level level of the message.
+	 * @param msg message.
+	 */
+	public void log(Level level, String msg) {
+		if(isLogging(level)) {
+			setChanged();
+			notifyObservers(new GameEvent(level, msg));
+		}
+	}
+	
+	/**
+	 * Sends a log message to the observers, the message is only formatted if an observer reads it.
+	 * @param level level of the message.
+	 * @param pattern message with <code>{}</code> for the argument.
+	 * @param arg argument of the message.
+	 */
+	public void log(Level level, String pattern, Object arg) {
+		if(isLogging(level)) {
+			setChanged();
+			notifyObservers(new GameEvent(level, pattern, arg));
+		}
+	}
+	
+	/**
+	 * Sends a log message to the observers, the message is only formatted if an observer reads it.
+	 * @param level level of the message.
+	 * @param pattern message with <code>{}</code> for each argument.
+	 * @param arg1 first argument of the message.
+	 * @param arg2 second argument of the message.
+	 */
+	public void log(Level level, String pattern, Object arg1, Object arg2) {
+		if(isLogging(level)) {
+			setChanged();
+			notifyObservers(new GameEvent(level, pattern, arg1, arg2));
+		}
+	}
+	
+	/**
+	 * Sends a log message to the observers, the message is only formatted if an observer reads it.
+	 * @param level level of the message.
+	 * @param pattern message with <code>{}</code> for each argument.
+	 * @param arg1 first argument of the message.
+	 * @param arg2 second argument of the message.
+	 * @param arg3 third argument of the message.
+	 */
+	public void log(Level level, String pattern, Object arg1, Object arg2, Object arg3) {
+		if(isLogging(level)) {
+			setChanged();
+			notifyObservers(new GameEvent(level, pattern, arg1, arg2, arg3));
+		}
+	}
+	
+	/**
+	 * Sends a log message to the observers, the message is only formatted if an observer reads it.
+	 * Check <code>isLogging</code> first to also save the argument array when nobody listens.
+	 * @param level level of the message.
+	 * @param pattern message with <code>{}</code> for each argument.
+	 * @param args arguments of the message.
+	 */
+	public void log(Level level, String pattern, Object... args) {
+		if(isLogging(level)) {
+			setChanged();
+			notifyObservers(new GameEvent(level, pattern, args));
+		}
+	}
+	
 	/**
 	 * Save Game data to a file.
+	 * The game is written as a GameSnapshot.
 	 */
 	public void saveGameDataToFile() {   
 		
@@ -679,33 +1023,11 @@ public class GameDriver extends Observable {
 	    	String timeStamp = new SimpleDateFormat("yyyy.MM.dd.HH.mm.ss").format(new Date());
 	    	File file = new File("SaveGame"+ timeStamp+".sav");
 	        FileOutputStream fileStream = new FileOutputStream(file);   
-	        ObjectOutputStream objectStream = new ObjectOutputStream(fileStream);   
-	        
-	        /*Map file path.*/
-	        objectStream.writeObject(SingleMode.getMapName());
-	        
-	        /*Number of players.*/
-	        objectStream.writeObject(players.size());
-	        
-	        /*Player data.*/
-	        for(Player player: this.players){
-		        objectStream.writeObject(player.getName());
-		        objectStream.writeObject(player.getPlayerStrategy());
-		        objectStream.writeObject(player.getCountries().size());
-		        for(CountryNode country: player.getCountries()){
-		        	objectStream.writeObject(country.getCountryName());
-		        	objectStream.writeObject(country.getArmiesCount());
-		        }
+	        try {
+	        	GameSnapshot.write(this, fileStream);
+	        }finally {
+	        	fileStream.close();
 	        }
-	        
-	        /*Current player.*/
-	        objectStream.writeObject(getCurrentPlayer().getName());
-	        
-	        /*Current phase.*/
-	        objectStream.writeObject(turnManager.getPhase()+"\n");
-	        
-	        objectStream.close();   
-	        fileStream.close(); 
 	        System.out.println("Game saved successfully");
 	    
 	    }catch(Exception e) {   
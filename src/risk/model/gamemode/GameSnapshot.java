@@ -0,0 +1,326 @@
+package risk.model.gamemode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+
+import risk.model.Card;
+import risk.model.map.CountryNode;
+import risk.model.map.Map;
+import risk.model.map.MapGraph;
+import risk.model.player.Player;
+
+/**
+ * Binary save game format.
+ * A snapshot holds everything needed to go on with a game: the map file and the fingerprint of its graph,
+ * the players with their strategy, armies, cards and countries (as graph ids, in the order the player owns them),
+ * the armies of every country, the current player and phase, the card pile, the round counter and the state of the random generator.
+ * It is written in one pass with a DataOutputStream and read back without Java serialization.
+ * <pre>
+ * int magic, short version, UTF map file, long fingerprint, int country count, int[] armies,
+ * int player count, for each player: UTF name, UTF strategy, int armies, int cards used, cards, int country count, int[] ids,
+ * int current player, UTF phase, boolean won card, int move limit, int move counter, long random state, cards of the pile
+ * cards: int count, for each card: UTF name, UTF type
+ * </pre>
+ */
+public class GameSnapshot {
+
+	/**
+	 * First bytes of a snapshot, "RSKS".
+	 */
+	public static final int MAGIC = 0x52534B53;
+
+	/**
+	 * Version of the format written by this class.
+	 */
+	public static final short VERSION = 1;
+
+	/**
+	 * Address of the map file.
+	 */
+	private String mapFile;
+
+	/**
+	 * Fingerprint of the map graph the ids belong to.
+	 */
+	private long fingerprint;
+
+	/**
+	 * Armies of every country, indexed by country id.
+	 */
+	private int[] armies;
+
+	/**
+	 * Name and strategy of every player.
+	 */
+	private String[][] players;
+
+	/**
+	 * Armies each player still has to place.
+	 */
+	private int[] playerArmies;
+
+	/**
+	 * Card exchange number of each player.
+	 */
+	private int[] cardsUsed;
+
+	/**
+	 * Cards of each player.
+	 */
+	private ArrayList<ArrayList<Card>> playerCards;
+
+	/**
+	 * Country ids of each player, in the order the player owns them.
+	 */
+	private int[][] countries;
+
+	/**
+	 * Index of the current player.
+	 */
+	private int currentPlayer;
+
+	/**
+	 * Name of the current phase.
+	 */
+	private String phase;
+
+	/**
+	 * True if the current player won a country in this turn.
+	 */
+	private boolean wonCard;
+
+	/**
+	 * Maximum number of rounds of the game.
+	 */
+	private int moveLimit;
+
+	/**
+	 * Rounds played.
+	 */
+	private int moveCounter;
+
+	/**
+	 * State of the random generator.
+	 */
+	private long randomState;
+
+	/**
+	 * Cards left in the pile.
+	 */
+	private ArrayList<Card> pile;
+
+	/**
+	 * Private constructor, snapshots are created by <code>read</code>.
+	 */
+	private GameSnapshot() {}
+
+	/**
+	 * Writes the state of a game.
+	 * @param driver game to be saved.
+	 * @param out stream the snapshot is written to, it is flushed but not closed.
+	 * @throws IOException if the stream can not be written.
+	 */
+	public static void write(GameDriver driver, OutputStream out) throws IOException {
+		Map map = driver.getMap();
+		MapGraph graph = map.getGraph();
+		ArrayList<Player> players = driver.getPlayers();
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		data.writeUTF(map.getFileName()==null ? "" : map.getFileName());
+		data.writeLong(graph.getFingerprint());
+		int[] armies = map.getArmyArray();
+		data.writeInt(armies.length);
+		for(int a : armies) {
+			data.writeInt(a);
+		}
+		data.writeInt(players.size());
+		for(Player player : players) {
+			data.writeUTF(player.getName());
+			data.writeUTF(player.getPlayerStrategy());
+			data.writeInt(player.getArmiesCount());
+			data.writeInt(player.getCardsUsedCount());
+			writeCards(data, player.getCards());
+			data.writeInt(player.getCountries().size());
+			for(CountryNode c : player.getCountries()) {
+				data.writeInt(graph.getId(c.getCountryName()));
+			}
+		}
+		data.writeInt(players.indexOf(driver.getCurrentPlayer()));
+		data.writeUTF(driver.getTurnManager().getPhase().trim());
+		data.writeBoolean(driver.getTurnManager().isWonCard());
+		data.writeInt(driver.getMoveLimit());
+		data.writeInt(driver.getMoveCounter());
+		data.writeLong(driver.getRandom().getState());
+		writeCards(data, driver.getCardPile());
+		data.flush();
+	}
+
+	/**
+	 * Writes a list of cards.
+	 * @param data stream the cards are written to.
+	 * @param cards cards to be written.
+	 * @throws IOException if the stream can not be written.
+	 */
+	private static void writeCards(DataOutputStream data, ArrayList<Card> cards) throws IOException {
+		data.writeInt(cards.size());
+		for(Card card : cards) {
+			data.writeUTF(card.getName());
+			data.writeUTF(card.getType());
+		}
+	}
+
+	/**
+	 * Checks if a stream starts with a snapshot. The stream must support mark, and is reset to where it was.
+	 * @param in stream to be checked.
+	 * @return true if the first bytes are the snapshot magic number.
+	 * @throws IOException if the stream can not be read.
+	 */
+	public static boolean isSnapshot(InputStream in) throws IOException {
+		in.mark(4);
+		int magic = 0;
+		for(int i=0; i<4; i++) {
+			int b = in.read();
+			if(b<0) {
+				in.reset();
+				return false;
+			}
+			magic = magic<<8 | b;
+		}
+		in.reset();
+		return magic==MAGIC;
+	}
+
+	/**
+	 * Reads a snapshot.
+	 * @param in stream the snapshot is read from.
+	 * @return snapshot read.
+	 * @throws IOException if the stream is not a snapshot of a known version or can not be read.
+	 */
+	public static GameSnapshot read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in));
+		if(data.readInt()!=MAGIC) {
+			throw new IOException("Not a saved game");
+		}
+		short version = data.readShort();
+		if(version!=VERSION) {
+			throw new IOException("Unknown saved game version "+version);
+		}
+		GameSnapshot snapshot = new GameSnapshot();
+		snapshot.mapFile = data.readUTF();
+		snapshot.fingerprint = data.readLong();
+		snapshot.armies = new int[data.readInt()];
+		for(int i=0; i<snapshot.armies.length; i++) {
+			snapshot.armies[i] = data.readInt();
+		}
+		int playerCount = data.readInt();
+		snapshot.players = new String[playerCount][2];
+		snapshot.playerArmies = new int[playerCount];
+		snapshot.cardsUsed = new int[playerCount];
+		snapshot.playerCards = new ArrayList<ArrayList<Card>>();
+		snapshot.countries = new int[playerCount][];
+		for(int p=0; p<playerCount; p++) {
+			snapshot.players[p][0] = data.readUTF();
+			snapshot.players[p][1] = data.readUTF();
+			snapshot.playerArmies[p] = data.readInt();
+			snapshot.cardsUsed[p] = data.readInt();
+			snapshot.playerCards.add(readCards(data));
+			snapshot.countries[p] = new int[data.readInt()];
+			for(int i=0; i<snapshot.countries[p].length; i++) {
+				snapshot.countries[p][i] = data.readInt();
+			}
+		}
+		snapshot.currentPlayer = data.readInt();
+		snapshot.phase = data.readUTF();
+		snapshot.wonCard = data.readBoolean();
+		snapshot.moveLimit = data.readInt();
+		snapshot.moveCounter = data.readInt();
+		snapshot.randomState = data.readLong();
+		snapshot.pile = readCards(data);
+		return snapshot;
+	}
+
+	/**
+	 * Reads a list of cards.
+	 * @param data stream the cards are read from.
+	 * @return cards read.
+	 * @throws IOException if the stream can not be read.
+	 */
+	private static ArrayList<Card> readCards(DataInputStream data) throws IOException {
+		int count = data.readInt();
+		ArrayList<Card> cards = new ArrayList<Card>(count);
+		for(int i=0; i<count; i++) {
+			cards.add(new Card(data.readUTF(), data.readUTF()));
+		}
+		return cards;
+	}
+
+	/**
+	 * Gives the address of the map file of the saved game.
+	 * @return address of the map file.
+	 */
+	public String getMapFile() {
+		return this.mapFile;
+	}
+
+	/**
+	 * Gives the maximum number of rounds of the saved game.
+	 * @return move limit, 0 for no limit.
+	 */
+	public int getMoveLimit() {
+		return this.moveLimit;
+	}
+
+	/**
+	 * Gives the names and strategies of the players.
+	 * @return name and strategy of every player.
+	 */
+	public String[][] getPlayers() {
+		return this.players;
+	}
+
+	/**
+	 * Puts the saved state into a game created on the same map, before the game is started.
+	 * Players are created with their strategies and the phase is set, the caller continues the phase.
+	 * @param driver new game on the map of the snapshot.
+	 * @throws IOException if the map of the game is not the map the snapshot was saved on.
+	 */
+	public void restore(GameDriver driver) throws IOException {
+		Map map = driver.getMap();
+		if(map.getGraph().getFingerprint()!=this.fingerprint || map.getGraph().getCountryCount()!=this.armies.length) {
+			throw new IOException("Map "+this.mapFile+" has changed since the game was saved");
+		}
+		for(int i=0; i<this.armies.length; i++) {
+			map.getCountry(i).setArmies(this.armies[i]);
+		}
+		for(int p=0; p<this.players.length; p++) {
+			Player player = new Player(this.players[p][0], this.playerArmies[p], driver);
+			player.setMapData(map.getMapData());
+			player.setStrategy(driver.createBehavior(this.players[p][1]));
+			player.setCardsUsedCount(this.cardsUsed[p]);
+			for(Card card : this.playerCards.get(p)) {
+				player.addCard(card);
+			}
+			for(int id : this.countries[p]) {
+				player.addCountry(map.getCountry(id));
+			}
+			driver.setPlayerList(player);
+			if(p==this.currentPlayer) {
+				player.setTurnTrue();
+				driver.setCurrentPlayer(player);
+			}
+		}
+		driver.getTurnManager().setPhase(this.phase);
+		driver.getTurnManager().setWonCard(this.wonCard);
+		driver.setMoveCounter(this.moveCounter);
+		driver.getRandom().setState(this.randomState);
+		driver.getCardPile().clear();
+		driver.getCardPile().addAll(this.pile);
+	}
+}
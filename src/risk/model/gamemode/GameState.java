@@ -0,0 +1,617 @@
+package risk.model.gamemode;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import risk.model.Card;
+import risk.model.map.MapGraph;
+import risk.model.player.Player;
+
+/**
+ * Compact copy of the state of a game for computer players that look ahead.
+ * Owners, armies, cards and the phase are kept in <code>int</code> arrays indexed by country id and player index,
+ * the topology is the shared MapGraph of the game. A state is taken from a GameDriver and never changes the game it was taken from.
+ * <p>
+ * <code>fork</code> gives a new state that shares the arrays with this one, an array is only copied when one of the states
+ * first writes to it. Every change is also recorded in a journal, so moves can be tried and taken back
+ * with <code>mark</code> and <code>undo</code> without copying anything.
+ * A state is not thread safe, but forks of it can be used by other threads.
+ */
+public class GameState {
+
+	/**
+	 * Names of the phases, the phase of a state is an index in this array.
+	 */
+	public static final String[] PHASES = {"Reinforcement", "Attack", "Fortification"};
+
+	/**
+	 * Phase index of reinforcement.
+	 */
+	public static final int REINFORCEMENT = 0;
+
+	/**
+	 * Phase index of attack.
+	 */
+	public static final int ATTACK = 1;
+
+	/**
+	 * Phase index of fortification.
+	 */
+	public static final int FORTIFICATION = 2;
+
+	/**
+	 * Names of the card types, the cards of a player are counted per type.
+	 */
+	public static final String[] CARD_TYPES = {"Infantry", "Cavalry", "Artillery"};
+
+	/**
+	 * Array of the owner of each country, as player index, -1 for none.
+	 */
+	private static final int OWNERS = 0;
+
+	/**
+	 * Array of the armies of each country.
+	 */
+	private static final int ARMIES = 1;
+
+	/**
+	 * Array of the armies each player still has to place.
+	 */
+	private static final int RESERVES = 2;
+
+	/**
+	 * Array of the number of countries of each player.
+	 */
+	private static final int OWNED = 3;
+
+	/**
+	 * Array of the cards of each player, one count per card type.
+	 */
+	private static final int CARDS = 4;
+
+	/**
+	 * Array of the card exchange number of each player.
+	 */
+	private static final int CARDS_USED = 5;
+
+	/**
+	 * Array of the single values of the state.
+	 */
+	private static final int VALUES = 6;
+
+	/**
+	 * Position of the current player in the values array.
+	 */
+	private static final int CURRENT = 0;
+
+	/**
+	 * Position of the phase in the values array.
+	 */
+	private static final int PHASE = 1;
+
+	/**
+	 * Position of the won card flag in the values array.
+	 */
+	private static final int WON_CARD = 2;
+
+	/**
+	 * Position of the next card of the pile in the values array.
+	 */
+	private static final int PILE_TOP = 3;
+
+	/**
+	 * Position of the round counter in the values array.
+	 */
+	private static final int MOVES = 4;
+
+	/**
+	 * Compiled map of the game, shared.
+	 */
+	private MapGraph graph;
+
+	/**
+	 * Names of the players, shared.
+	 */
+	private String[] players;
+
+	/**
+	 * Card types of the pile in the order they are given, shared.
+	 */
+	private int[] pile;
+
+	/**
+	 * Maximum number of rounds, 0 for no limit.
+	 */
+	private int moveLimit;
+
+	/**
+	 * All arrays of the state.
+	 */
+	private int[][] data;
+
+	/**
+	 * True for each array that is shared with another state and must be copied before it is written.
+	 */
+	private boolean[] shared;
+
+	/**
+	 * Changes made to the state, three values per change: array, index and old value.
+	 */
+	private int[] journal = new int[48];
+
+	/**
+	 * Number of values used in the journal.
+	 */
+	private int journalSize;
+
+	/**
+	 * Private constructor, states are created by <code>of</code> and <code>fork</code>.
+	 */
+	private GameState() {}
+
+	/**
+	 * Takes the state of a game.
+	 * @param driver game to be copied.
+	 * @return state of the game, with the current player and phase of the game.
+	 */
+	public static GameState of(GameDriver driver) {
+		ArrayList<Player> list = driver.getPlayers();
+		GameState state = new GameState();
+		state.graph = driver.getMap().getGraph();
+		state.moveLimit = driver.getMoveLimit();
+		int n = list.size();
+		state.players = new String[n];
+		int[] reserves = new int[n];
+		int[] owned = new int[n];
+		int[] cards = new int[n*CARD_TYPES.length];
+		int[] cardsUsed = new int[n];
+		for(int p=0; p<n; p++) {
+			Player player = list.get(p);
+			state.players[p] = player.getName();
+			reserves[p] = player.getArmiesCount();
+			cardsUsed[p] = player.getCardsUsedCount();
+			for(Card card : player.getCards()) {
+				cards[p*CARD_TYPES.length + cardType(card)]++;
+			}
+		}
+		int[] owners = driver.getMap().getOwnerArray(list);
+		for(int owner : owners) {
+			if(owner>=0) {
+				owned[owner]++;
+			}
+		}
+		ArrayList<Card> cardPile = driver.getCardPile();
+		state.pile = new int[cardPile.size()];
+		for(int i=0; i<state.pile.length; i++) {
+			state.pile[i] = cardType(cardPile.get(i));
+		}
+		int[] values = new int[5];
+		values[CURRENT] = list.indexOf(driver.getCurrentPlayer());
+		values[PHASE] = phaseIndex(driver.getTurnManager().getPhase());
+		values[WON_CARD] = driver.getTurnManager().isWonCard() ? 1 : 0;
+		values[MOVES] = driver.getMoveCounter();
+		state.data = new int[][] {owners, driver.getMap().getArmyArray(), reserves, owned, cards, cardsUsed, values};
+		state.shared = new boolean[state.data.length];
+		return state;
+	}
+
+	/**
+	 * Gives the type index of a card.
+	 * @param card card of the game.
+	 * @return index in <code>CARD_TYPES</code>.
+	 */
+	private static int cardType(Card card) {
+		for(int t=0; t<CARD_TYPES.length; t++) {
+			if(CARD_TYPES[t].equals(card.getName())) {
+				return t;
+			}
+		}
+		throw new IllegalArgumentException("Unknown card "+card.getName());
+	}
+
+	/**
+	 * Gives the index of a phase.
+	 * @param phase name of the phase.
+	 * @return index in <code>PHASES</code>.
+	 */
+	private static int phaseIndex(String phase) {
+		for(int i=0; i<PHASES.length; i++) {
+			if(PHASES[i].equals(phase.trim())) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown phase "+phase);
+	}
+
+	/**
+	 * Creates a copy of this state in constant time. The copy shares the arrays of this state until one of them writes,
+	 * and starts with an empty journal.
+	 * @return new state equal to this one.
+	 */
+	public GameState fork() {
+		GameState copy = new GameState();
+		copy.graph = this.graph;
+		copy.players = this.players;
+		copy.pile = this.pile;
+		copy.moveLimit = this.moveLimit;
+		copy.data = this.data.clone();
+		copy.shared = new boolean[this.data.length];
+		for(int i=0; i<this.data.length; i++) {
+			this.shared[i] = true;
+			copy.shared[i] = true;
+		}
+		return copy;
+	}
+
+	/**
+	 * Changes a value of the state, copying the array first if it is shared and recording the old value.
+	 * @param array array to be changed.
+	 * @param index position in the array.
+	 * @param value new value.
+	 */
+	private void set(int array, int index, int value) {
+		if(this.shared[array]) {
+			this.data[array] = this.data[array].clone();
+			this.shared[array] = false;
+		}
+		if(this.journalSize+3>this.journal.length) {
+			int[] bigger = new int[this.journal.length*2];
+			System.arraycopy(this.journal, 0, bigger, 0, this.journalSize);
+			this.journal = bigger;
+		}
+		this.journal[this.journalSize++] = array;
+		this.journal[this.journalSize++] = index;
+		this.journal[this.journalSize++] = this.data[array][index];
+		this.data[array][index] = value;
+	}
+
+	/**
+	 * Adds to a value of the state.
+	 * @param array array to be changed.
+	 * @param index position in the array.
+	 * @param delta value to be added.
+	 */
+	private void add(int array, int index, int delta) {
+		set(array, index, this.data[array][index] + delta);
+	}
+
+	/**
+	 * Gives a point in the journal that the state can be taken back to.
+	 * @return current journal position.
+	 */
+	public int mark() {
+		return this.journalSize;
+	}
+
+	/**
+	 * Takes back every change made since a mark.
+	 * @param mark value returned by <code>mark</code>.
+	 */
+	public void undo(int mark) {
+		while(this.journalSize>mark) {
+			int old = this.journal[--this.journalSize];
+			int index = this.journal[--this.journalSize];
+			int array = this.journal[--this.journalSize];
+			if(this.shared[array]) {
+				this.data[array] = this.data[array].clone();
+				this.shared[array] = false;
+			}
+			this.data[array][index] = old;
+		}
+	}
+
+	/**
+	 * Places armies of the current player in one of its countries during reinforcement.
+	 * @param country id of the country.
+	 * @param armies armies to be placed, at most the armies the player has left.
+	 */
+	public void reinforce(int country, int armies) {
+		int p = getCurrentPlayer();
+		if(getPhase()!=REINFORCEMENT || getOwner(country)!=p || armies<1 || armies>getReserve(p)) {
+			throw new IllegalArgumentException("Can not place "+armies+" armies in "+graph.getName(country));
+		}
+		add(ARMIES, country, armies);
+		add(RESERVES, p, -armies);
+	}
+
+	/**
+	 * Exchanges three cards of the current player for armies, three of a kind or one of each kind.
+	 * @return true if the player had cards to exchange.
+	 */
+	public boolean exchangeCards() {
+		int p = getCurrentPlayer();
+		int base = p*CARD_TYPES.length;
+		int[] cards = this.data[CARDS];
+		int same = -1;
+		boolean distinct = true;
+		for(int t=0; t<CARD_TYPES.length; t++) {
+			if(cards[base+t]>=3 && same<0) {
+				same = t;
+			}
+			distinct &= cards[base+t]>0;
+		}
+		if(same>=0) {
+			add(CARDS, base+same, -3);
+		}
+		else if(distinct) {
+			for(int t=0; t<CARD_TYPES.length; t++) {
+				add(CARDS, base+t, -1);
+			}
+		}
+		else {
+			return false;
+		}
+		add(RESERVES, p, 5*this.data[CARDS_USED][p]);
+		add(CARDS_USED, p, 1);
+		return true;
+	}
+
+	/**
+	 * Checks if the current player can attack from a country to another.
+	 * @param from id of the attacking country.
+	 * @param to id of the defending country.
+	 * @return true in the attack phase if from is a country of the player with more than one army and to is an enemy neighbour.
+	 */
+	public boolean canAttack(int from, int to) {
+		int p = getCurrentPlayer();
+		return getPhase()==ATTACK && getOwner(from)==p && getArmies(from)>1
+				&& getOwner(to)!=p && getOwner(to)>=0 && graph.isNeighbour(from, to);
+	}
+
+	/**
+	 * Applies the losses of an attack. A country left without armies must be occupied with <code>occupy</code>.
+	 * @param from id of the attacking country.
+	 * @param to id of the defending country.
+	 * @param attackerLosses armies lost by the attacker.
+	 * @param defenderLosses armies lost by the defender.
+	 */
+	public void attack(int from, int to, int attackerLosses, int defenderLosses) {
+		if(!canAttack(from, to) || attackerLosses>=getArmies(from) || defenderLosses>getArmies(to)) {
+			throw new IllegalArgumentException("Can not attack "+graph.getName(to)+" from "+graph.getName(from));
+		}
+		add(ARMIES, from, -attackerLosses);
+		add(ARMIES, to, -defenderLosses);
+	}
+
+	/**
+	 * Plays one round of dice of an attack, with as many dice as the armies allow.
+	 * @param from id of the attacking country.
+	 * @param to id of the defending country.
+	 * @param rand random generator for the dice.
+	 * @return true if the defending country has no armies left.
+	 */
+	public boolean attack(int from, int to, Random rand) {
+		int attackerDice = Math.min(Dice.MAX_DICE, getArmies(from)-1);
+		int defenderDice = Math.min(2, getArmies(to));
+		int losses = Dice.battle(Dice.roll(rand, attackerDice), Dice.roll(rand, defenderDice));
+		attack(from, to, Dice.attackerLosses(losses), Dice.defenderLosses(losses));
+		return getArmies(to)==0;
+	}
+
+	/**
+	 * Attacks until the defending country is conquered or the attacker is down to a number of armies,
+	 * with a single random number, see <code>BattleOdds.sample</code>.
+	 * @param from id of the attacking country.
+	 * @param to id of the defending country.
+	 * @param stop armies at which the attacker stops, at least 1.
+	 * @param rand random generator.
+	 * @return true if the defending country has no armies left.
+	 */
+	public boolean attackUntil(int from, int to, int stop, Random rand) {
+		int outcome = BattleOdds.sample(rand, getArmies(from), getArmies(to), stop);
+		attack(from, to, getArmies(from)-BattleOdds.attackerLeft(outcome), getArmies(to)-BattleOdds.defenderLeft(outcome));
+		return getArmies(to)==0;
+	}
+
+	/**
+	 * Takes a conquered country and moves armies into it. The current player gets a card at the end of the attack phase.
+	 * @param from id of the attacking country.
+	 * @param to id of the conquered country, it must have no armies left.
+	 * @param armies armies to be moved, at least one and at most all but one of the attacking country.
+	 */
+	public void occupy(int from, int to, int armies) {
+		int p = getCurrentPlayer();
+		if(getPhase()!=ATTACK || getOwner(from)!=p || getArmies(to)!=0 || armies<1 || armies>=getArmies(from) || !graph.isNeighbour(from, to)) {
+			throw new IllegalArgumentException("Can not occupy "+graph.getName(to)+" from "+graph.getName(from));
+		}
+		int defender = getOwner(to);
+		if(defender>=0) {
+			add(OWNED, defender, -1);
+		}
+		set(OWNERS, to, p);
+		add(OWNED, p, 1);
+		add(ARMIES, from, -armies);
+		add(ARMIES, to, armies);
+		if(this.data[VALUES][WON_CARD]==0) {
+			set(VALUES, WON_CARD, 1);
+		}
+	}
+
+	/**
+	 * Moves armies of the current player between two neighbouring countries during fortification.
+	 * @param from id of the country armies are taken from.
+	 * @param to id of the country armies are moved to.
+	 * @param armies armies to be moved, at most all but one.
+	 */
+	public void fortify(int from, int to, int armies) {
+		int p = getCurrentPlayer();
+		if(getPhase()!=FORTIFICATION || getOwner(from)!=p || getOwner(to)!=p || armies<1 || armies>=getArmies(from)
+				|| !graph.isNeighbour(from, to)) {
+			throw new IllegalArgumentException("Can not move "+armies+" armies from "+graph.getName(from)+" to "+graph.getName(to));
+		}
+		add(ARMIES, from, -armies);
+		add(ARMIES, to, armies);
+	}
+
+	/**
+	 * Ends the current phase. After attack the player gets a card if a country was won,
+	 * after fortification the next player still in the game starts reinforcement with its new armies.
+	 */
+	public void endPhase() {
+		int phase = getPhase();
+		if(phase==REINFORCEMENT) {
+			set(VALUES, PHASE, ATTACK);
+		}
+		else if(phase==ATTACK) {
+			if(this.data[VALUES][WON_CARD]==1) {
+				int top = this.data[VALUES][PILE_TOP];
+				if(top<this.pile.length) {
+					add(CARDS, getCurrentPlayer()*CARD_TYPES.length + this.pile[top], 1);
+					set(VALUES, PILE_TOP, top+1);
+				}
+				set(VALUES, WON_CARD, 0);
+			}
+			set(VALUES, PHASE, FORTIFICATION);
+		}
+		else {
+			int current = getCurrentPlayer();
+			int next = current;
+			do {
+				next = (next+1) % this.players.length;
+			} while(next!=current && this.data[OWNED][next]==0);
+			if(next<=current) {
+				add(VALUES, MOVES, 1);
+			}
+			set(VALUES, CURRENT, next);
+			set(VALUES, PHASE, REINFORCEMENT);
+			add(RESERVES, next, getReinforcement(next));
+		}
+	}
+
+	/**
+	 * Gives the armies a player gets at the start of its turn, as Player.getArmies:
+	 * a third of its countries but at least three, and the control value of every continent it owns.
+	 * @param player player index.
+	 * @return armies for the turn.
+	 */
+	public int getReinforcement(int player) {
+		int armies = Math.max(3, this.data[OWNED][player]/3);
+		int[] owners = this.data[OWNERS];
+		for(int c=0; c<graph.getContinentCount(); c++) {
+			int size = graph.getContinentSize(c);
+			boolean owned = size>0;
+			for(int k=0; k<size && owned; k++) {
+				owned = owners[graph.getContinentCountry(c, k)]==player;
+			}
+			if(owned) {
+				armies += graph.getContinentValue(c);
+			}
+		}
+		return armies;
+	}
+
+	/**
+	 * Gives the compiled map of the game.
+	 * @return map graph.
+	 */
+	public MapGraph getGraph() {
+		return this.graph;
+	}
+
+	/**
+	 * Gives the number of players the state was taken with, players out of the game included.
+	 * @return number of players.
+	 */
+	public int getPlayerCount() {
+		return this.players.length;
+	}
+
+	/**
+	 * Gives the name of a player.
+	 * @param player player index.
+	 * @return name of the player.
+	 */
+	public String getPlayerName(int player) {
+		return this.players[player];
+	}
+
+	/**
+	 * Gives the player whose turn it is.
+	 * @return player index.
+	 */
+	public int getCurrentPlayer() {
+		return this.data[VALUES][CURRENT];
+	}
+
+	/**
+	 * Gives the current phase.
+	 * @return index in <code>PHASES</code>.
+	 */
+	public int getPhase() {
+		return this.data[VALUES][PHASE];
+	}
+
+	/**
+	 * Gives the number of rounds played.
+	 * @return round counter.
+	 */
+	public int getMoveCounter() {
+		return this.data[VALUES][MOVES];
+	}
+
+	/**
+	 * Gives the owner of a country.
+	 * @param country id of the country.
+	 * @return player index, -1 if the country has no owner.
+	 */
+	public int getOwner(int country) {
+		return this.data[OWNERS][country];
+	}
+
+	/**
+	 * Gives the armies in a country.
+	 * @param country id of the country.
+	 * @return number of armies.
+	 */
+	public int getArmies(int country) {
+		return this.data[ARMIES][country];
+	}
+
+	/**
+	 * Gives the armies a player still has to place.
+	 * @param player player index.
+	 * @return number of armies.
+	 */
+	public int getReserve(int player) {
+		return this.data[RESERVES][player];
+	}
+
+	/**
+	 * Gives the number of countries of a player.
+	 * @param player player index.
+	 * @return number of countries, 0 once the player is out of the game.
+	 */
+	public int getCountryCount(int player) {
+		return this.data[OWNED][player];
+	}
+
+	/**
+	 * Gives the number of cards of a player.
+	 * @param player player index.
+	 * @return number of cards of all types.
+	 */
+	public int getCardCount(int player) {
+		int count = 0;
+		for(int t=0; t<CARD_TYPES.length; t++) {
+			count += this.data[CARDS][player*CARD_TYPES.length + t];
+		}
+		return count;
+	}
+
+	/**
+	 * Gives the winner of the game, the player who owns every country of the map.
+	 * @return player index, -1 if the game is not won.
+	 */
+	public int getWinner() {
+		int p = getCurrentPlayer();
+		return this.data[OWNED][p]==graph.getDeclaredCount() ? p : -1;
+	}
+
+	/**
+	 * Checks if the game is over, won by a player or out of rounds.
+	 * @return true if no more moves should be played.
+	 */
+	public boolean isGameOver() {
+		return getWinner()>=0 || (this.moveLimit>0 && getMoveCounter()>=this.moveLimit);
+	}
+}
@@ -1,5 +1,6 @@
 package risk.model.gamemode;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.ObjectInputStream;
@@ -7,6 +8,7 @@ import java.util.ArrayList;
 
 import risk.controller.GameController;
 import risk.controller.MainController;
+import risk.view.SetUpDialog;
 
 public class SingleMode implements Mode{
 
@@ -62,13 +64,18 @@ public class SingleMode implements Mode{
 	
 	/**
 	 * initializing the instance variables depending upon condition 
+	 * A map file that can not be read in full is not played, its errors are shown instead.
 	 */
 	public void start() {
-		if(myBmp!=null) {
-			controller = new GameController(myMap, myBmp, myPlayers, myMoveLimit);
-		}
-		else {
-			controller = new GameController(myMap, myPlayers, myMoveLimit);
+		try {
+			if(myBmp!=null) {
+				controller = new GameController(myMap, myBmp, myPlayers, myMoveLimit);
+			}
+			else {
+				controller = new GameController(myMap, myPlayers, myMoveLimit);
+			}
+		}catch(IllegalArgumentException e) {
+			new SetUpDialog().showMapErrors(e.getMessage());
 		}
 	}
 	
@@ -91,12 +98,23 @@ public class SingleMode implements Mode{
 	
 	/**
 	 * Loads game from saved file.
+	 * Files written by GameSnapshot are read directly, older files written with Java serialization are still read the old way.
 	 * @param file file to be loaded.
 	 */
 	public void loadGameDataFromFile(File file){ 
 
 		try{
-			FileInputStream saveFile = new FileInputStream(file);
+			BufferedInputStream saveFile = new BufferedInputStream(new FileInputStream(file));
+			if(GameSnapshot.isSnapshot(saveFile)) {
+				try {
+					GameSnapshot snapshot = GameSnapshot.read(saveFile);
+					myMap = snapshot.getMapFile();
+					controller = new GameController(snapshot);
+				}finally {
+					saveFile.close();
+				}
+				return;
+			}
 			ObjectInputStream save = new ObjectInputStream(saveFile);
 			
 			/*Map file path.*/
@@ -135,6 +153,8 @@ public class SingleMode implements Mode{
 
 			save.close();
 			
+		}catch(IllegalArgumentException exc){
+			new SetUpDialog().showMapErrors(exc.getMessage());
 		}catch(Exception exc){
 			System.out.println("Failed to load file\n"+exc);
 		}
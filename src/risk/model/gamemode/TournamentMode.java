@@ -1,7 +1,20 @@
 package risk.model.gamemode;
 
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
 import risk.controller.GameController;
 import risk.controller.MainController;
+import risk.model.player.StrategyStats;
+import risk.model.util.GameRandom;
+import risk.model.util.LatencyHistogram;
+import risk.view.SetUpDialog;
 
 /**
  * Class to run game in Tournament Mode.
@@ -48,6 +61,38 @@ public class TournamentMode implements Mode{
 	 */
 	private int currentGame;
 	
+	/**
+	 * Runs the games without any views, true for headless simulation.
+	 */
+	private boolean headless = false;
+	
+	/**
+	 * Number of games a headless tournament plays at the same time.
+	 */
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * Seed of a headless tournament, the seed of every game is taken from it.
+	 */
+	private long seed = new GameRandom().nextLong();
+	
+	/**
+	 * Time allowed for one decision of a player in a headless tournament in milliseconds, 0 for no deadline.
+	 */
+	private long decisionBudget = 0;
+	
+	/**
+	 * Timing of the decisions of each player of a headless tournament, added up over all games.
+	 * Keyed by player name and strategy, in the order of the players.
+	 */
+	private LinkedHashMap<String, StrategyStats> stats = new LinkedHashMap<String, StrategyStats>();
+	
+	/**
+	 * Share of the map held by the players at the end of each game of a headless tournament, indexed like the winners.
+	 * Null until a headless tournament is played.
+	 */
+	private DominationStats[][] domination;
+	
 	/**
 	 *  Constructor for TournamentMode class.
 	 *  @param newController object of MainController class.
@@ -78,11 +123,287 @@ public class TournamentMode implements Mode{
 		currentGame = 1;
 	}
 	
+	/**
+	 * Constructor for a tournament that can run without any views.
+	 * @param gamesCount number of games to be played
+	 * @param mapDetails number of maps
+	 * @param playerBehaviorDetails behaviours of players
+	 * @param movesCount number of turns
+	 * @param newController MainController instance, may be null for a headless tournament.
+	 * @param runHeadless true to play the games on GameDriver directly without creating any view.
+	 */
+	public TournamentMode(int gamesCount, String[] mapDetails, String[][] playerBehaviorDetails, int movesCount, MainController newController, boolean runHeadless) {
+		this(gamesCount, mapDetails, playerBehaviorDetails, movesCount, newController);
+		if(runHeadless) {
+			for(String[] player : playerBehaviorDetails) {
+				if(player[1].equals("human")) {
+					throw new IllegalArgumentException("Headless tournament can not have human player "+player[0]);
+				}
+			}
+		}
+		headless = runHeadless;
+	}
+	
 	/**
 	* initializing the instance variable of the class 
+	* A map that can not be read in full is reported and its games are counted as errors.
 	*/
 	public void start() {
-		GameController gController = new GameController(maps[currentMap],behaviors,moveLimit);
+		if(headless) {
+			runHeadless();
+		}
+		else {
+			try {
+				GameController gController = new GameController(maps[currentMap],behaviors,moveLimit);
+			}catch(IllegalArgumentException e) {
+				/*the map can not be played, every game left on it is an error and the tournament goes on.*/
+				new SetUpDialog().showMapErrors(e.getMessage());
+				while(currentGame<games) {
+					winners[currentMap][currentGame++] = "error";
+				}
+				updateResults("error");
+			}
+		}
+	}
+	
+	/**
+	 * Plays every game of the tournament without views and writes the results.
+	 * Each (map, game) cell is an independent task with its own GameDriver, Map and players,
+	 * so the games are spread over a fork-join pool.
+	 * The generators of the games are split from the tournament seed in table order before any game starts,
+	 * so the results do not depend on the number of threads.
+	 */
+	private void runHeadless() {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		stats.clear();
+		for(String[] player : behaviors) {
+			stats.put(player[0]+"\t"+player[1], new StrategyStats(player[0], player[1]));
+		}
+		domination = new DominationStats[maps.length][games+1];
+		ArrayList<Future<String>> results = new ArrayList<Future<String>>();
+		GameRandom tournamentRandom = new GameRandom(seed);
+		for(int i=0; i<maps.length; i++) {
+			final String map = maps[i];
+			final int row = i;
+			for(int j=1; j<=games; j++) {
+				final GameRandom gameRandom = tournamentRandom.split();
+				final int column = j;
+				results.add(pool.submit(new Callable<String>() {
+					@Override
+					public String call() {
+						return playGame(map, gameRandom, row, column);
+					}
+				}));
+			}
+		}
+		int k = 0;
+		for(int i=0; i<maps.length; i++) {
+			for(int j=1; j<=games; j++) {
+				winners[i][j] = getResult(results.get(k++), maps[i]);
+			}
+		}
+		pool.shutdown();
+		if(mController!=null) {
+			mController.setResults(winners);
+		}
+		else {
+			printResults(System.out);
+		}
+	}
+	
+	/**
+	 * Waits for a game to finish.
+	 * @param result pending result of the game.
+	 * @param map url of the map the game is played on.
+	 * @return name of the winner, draw or error.
+	 */
+	private String getResult(Future<String> result, String map) {
+		try {
+			return result.get();
+		}catch(ExecutionException e) {
+			System.err.println("Game failed on map "+map+": "+e.getCause());
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return "error";
+	}
+	
+	/**
+	 * Sets the number of games a headless tournament plays at the same time.
+	 * @param threads number of worker threads, at least 1.
+	 */
+	public void setParallelism(int threads) {
+		this.parallelism = Math.max(1, threads);
+	}
+	
+	/**
+	 * Sets the seed of a headless tournament, a tournament played again with the same seed has the same results.
+	 * @param newSeed seed of the tournament.
+	 */
+	public void setSeed(long newSeed) {
+		this.seed = newSeed;
+	}
+	
+	/**
+	 * Sets the time allowed for one decision of a player in a headless tournament.
+	 * A player that goes over it is counted as overrun and ends its attacks for the turn.
+	 * @param millis time in milliseconds, 0 to only measure the decisions.
+	 */
+	public void setDecisionBudget(long millis) {
+		this.decisionBudget = Math.max(0, millis);
+	}
+	
+	/**
+	 * Gives the timing of the decisions of each player of a headless tournament, added up over all games.
+	 * @return statistics of the players, in the order of the players.
+	 */
+	public ArrayList<StrategyStats> getStats() {
+		synchronized(stats) {
+			return new ArrayList<StrategyStats>(stats.values());
+		}
+	}
+	
+	/**
+	 * Gives the share of the map held by the players at the end of each game of a headless tournament.
+	 * @return stats indexed like the winners, column 0 is empty; null if no headless tournament was played.
+	 */
+	public DominationStats[][] getDomination() {
+		return this.domination;
+	}
+	
+	/**
+	 * Gives the seed of a headless tournament.
+	 * @return seed of the tournament.
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+	
+	/**
+	 * Plays one game on a map with computer players only.
+	 * A game that fails, or a map that can not be read in full, is reported as error so that the rest of the tournament still runs.
+	 * @param map url of the map file.
+	 * @param random random generator of the game.
+	 * @param row row of the map in the results.
+	 * @param column column of the game in the results.
+	 * @return name of the winner, draw or error.
+	 */
+	private String playGame(String map, GameRandom random, int row, int column) {
+		GameDriver driver;
+		try {
+			driver = new GameDriver(map, moveLimit);
+		}catch(IllegalArgumentException e) {
+			System.err.println("Can not play on map "+map+": "+e.getMessage());
+			return "error";
+		}
+		driver.setRandom(random);
+		driver.setDecisionTiming(true);
+		driver.setDecisionBudget(decisionBudget);
+		if(parallelism>1) {
+			/*the other games already use the processors, a search spread over threads would only queue behind them.*/
+			driver.setSearchThreads(1);
+		}
+		try {
+			driver.runGame(behaviors);
+		}catch(RuntimeException e) {
+			System.err.println("Game failed on map "+map+": "+e);
+			return "error";
+		}finally {
+			addStats(driver.getStrategyStats());
+			/*each game has its own cell, the results are read after the futures are done.*/
+			domination[row][column] = driver.getDominationStats();
+		}
+		if(driver.getWinner()==null) {
+			return "draw";
+		}
+		return driver.getWinner();
+	}
+	
+	/**
+	 * Adds the timing of the players of one game to the tournament.
+	 * @param gameStats statistics of the players of the game.
+	 */
+	private void addStats(ArrayList<StrategyStats> gameStats) {
+		synchronized(stats) {
+			for(StrategyStats player : gameStats) {
+				String key = player.getName()+"\t"+player.getStrategy();
+				if(!stats.containsKey(key)) {
+					stats.put(key, new StrategyStats(player.getName(), player.getStrategy()));
+				}
+				stats.get(key).add(player);
+			}
+		}
+	}
+	
+	/**
+	 * Writes the results table of tournament, followed by the share of the map held at the end of each game
+	 * and the timing of the decisions of the players when the tournament was played headless.
+	 * @param out stream the results are written to.
+	 */
+	public void printResults(PrintStream out) {
+		StringBuilder line = new StringBuilder("Maps");
+		for(int i=1; i<=games; i++) {
+			line.append("\tGame ").append(i);
+		}
+		out.println(line);
+		for(String[] row : winners) {
+			line.setLength(0);
+			for(int i=0; i<row.length; i++) {
+				if(i>0) {
+					line.append('\t');
+				}
+				line.append(row[i]);
+			}
+			out.println(line);
+		}
+		out.println("Seed\t"+seed);
+		if(domination!=null) {
+			out.println();
+			out.println("Map\tGame\tPlayer\tCountries\tMap %\tContinents\tArmies");
+			for(int i=0; i<domination.length; i++) {
+				for(int j=1; j<domination[i].length; j++) {
+					DominationStats game = domination[i][j];
+					for(int k=0; game!=null && k<game.size(); k++) {
+						out.println(maps[i]+"\t"+j+"\t"+game.getName(k)+"\t"+game.getCountries(k)
+								+"\t"+String.format(Locale.ROOT, "%.1f", game.getPercentage(k))
+								+"\t"+game.getContinents(k)+"\t"+game.getArmies(k));
+					}
+				}
+			}
+		}
+		ArrayList<StrategyStats> players = getStats();
+		if(players.isEmpty()) {
+			return;
+		}
+		out.println();
+		out.println("Player\tStrategy\tPhase\tDecisions\tp50 ms\tp99 ms\tMax ms\tAllocated KB\tOverruns\tFallbacks");
+		for(StrategyStats player : players) {
+			for(int phase=0; phase<GameState.PHASES.length; phase++) {
+				LatencyHistogram latency = player.getLatency(phase);
+				long allocated = player.getAllocated(phase);
+				out.println(player.getName()+"\t"+player.getStrategy()+"\t"+GameState.PHASES[phase]
+						+"\t"+latency.getCount()+"\t"+millis(latency.getPercentile(50))+"\t"+millis(latency.getPercentile(99))
+						+"\t"+millis(latency.getMax())+"\t"+(allocated<0 ? "n/a" : String.valueOf(allocated/1024))
+						+"\t"+player.getOverruns(phase)+"\t"+player.getFallbacks(phase));
+			}
+		}
+	}
+	
+	/**
+	 * Formats a duration in milliseconds for the results.
+	 * @param nanos duration in nanoseconds.
+	 * @return milliseconds with three decimals.
+	 */
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos/1e6);
+	}
+	
+	/**
+	 * Gives the results of the tournament.
+	 * @return map url in first column followed by the winner of each game.
+	 */
+	public String[][] getWinners() {
+		return this.winners;
 	}
 	
 	/**
@@ -109,9 +430,31 @@ public class TournamentMode implements Mode{
 
 	/**
 	 * Main method to run tournament mode.
+	 * Runs a headless tournament when called with arguments:
+	 * games moves map1;map2 name1:behavior1,name2:behavior2 [threads] [seed] [decision budget in ms]
 	 * @param arg command line arguments.
 	 */
 	public static void main(String[] arg) {
+		if(arg.length>=4 && arg.length<=7) {
+			String[] maps = arg[2].split(";");
+			String[] players = arg[3].split(",");
+			String[][] myPs = new String[players.length][];
+			for(int i=0; i<players.length; i++) {
+				myPs[i] = players[i].split(":");
+			}
+			TournamentMode s = new TournamentMode(Integer.parseInt(arg[0]), maps, myPs, Integer.parseInt(arg[1]), null, true);
+			if(arg.length>=5) {
+				s.setParallelism(Integer.parseInt(arg[4]));
+			}
+			if(arg.length>=6) {
+				s.setSeed(Long.parseLong(arg[5]));
+			}
+			if(arg.length==7) {
+				s.setDecisionBudget(Long.parseLong(arg[6]));
+			}
+			s.start();
+			return;
+		}
 		String[][] myPs = {{"Gur","aggressive"},{"Raj","aggressive"}};
 		String[] maps = {"D:\\Gurpreet\\Study\\Meng\\SEM6\\SOEN6441\\project\\World2005.map","D:\\Gurpreet\\Study\\Meng\\SEM6\\SOEN6441\\project\\World2005.bmp"};
 		TournamentMode s = new TournamentMode(2,maps, myPs, 10, MainController.getInstance());
@@ -41,6 +41,11 @@ public class CountryNode {
 	 */
 	private MapNode continent;
 	
+	/**
+	 * Id of this country in the compiled MapGraph, -1 until the map is compiled.
+	 */
+	private int id = -1;
+	
 	/**
 	 * This constructor initialize the attributes of this country.
 	 * @param newName name of country.
@@ -131,7 +136,7 @@ public class CountryNode {
 			}
 		}
 		this.owner = player;
-		if(!player.getCountries().contains(this)) {
+		if(!player.ownsCountry(this)) {
 			player.addCountry(this);
 		}
 	}
@@ -141,7 +146,7 @@ public class CountryNode {
 	 * @param newArmies number of armies
 	 */
 	public void setArmies(int newArmies) {
-		this.armies = newArmies;
+		changeArmies(newArmies-this.armies);
 	}
 	
 	/**
@@ -149,7 +154,18 @@ public class CountryNode {
 	 * @param newCount number of armies
 	 */
 	public void addArmy(int newCount){
-		this.armies += newCount;
+		changeArmies(newCount);
+	}
+	
+	/**
+	 * Changes the armies of this country and tells the owner, which keeps the total of its armies on the map.
+	 * @param change armies added, negative to remove armies.
+	 */
+	private void changeArmies(int change) {
+		this.armies += change;
+		if(this.owner!=null && change!=0) {
+			this.owner.countryArmiesChanged(change);
+		}
 	}
 	
 	/**
@@ -237,7 +253,7 @@ public class CountryNode {
 	 * Decreases the count of armies by 1.
 	 */
 	public void removeArmy() {
-		armies = armies-1;	
+		changeArmies(-1);
 	}
 	
 	/**
@@ -256,12 +272,29 @@ public class CountryNode {
 		this.continent = newContinent;
 	}
 	
+	/**
+	 * Gives the id of this country in the compiled map graph.
+	 * @return id of country, -1 if the map is not compiled.
+	 * @see MapGraph
+	 */
+	public int getId() {
+		return this.id;
+	}
+	
+	/**
+	 * Set the id of this country in the compiled map graph.
+	 * @param newId id of country.
+	 */
+	public void setId(int newId) {
+		this.id = newId;
+	}
+	
 	/**
 	 * Subtract multiple armies from the country
 	 * @param moveArmies number of armies to subtract
 	 */
 	public void removeArmies(int moveArmies) {
-		armies -= moveArmies;
+		changeArmies(-moveArmies);
 	}
 	
 }
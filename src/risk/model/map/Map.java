@@ -2,6 +2,7 @@ package risk.model.map;
 
 import java.util.ArrayList;
 import java.util.Observable;
+import java.util.Observer;
 
 import risk.model.player.Player;
 
@@ -22,14 +23,63 @@ public class Map extends Observable {
 	 * Number of total countries in the Map
 	 */
 	private int countryCount;
+	
+	/**
+	 * Compiled form of the map, created when first needed.
+	 */
+	private MapGraph graph;
+	
+	/**
+	 * Country nodes indexed by their id in <code>graph</code>.
+	 */
+	private CountryNode[] countriesById;
+	
+	/**
+	 * Address of the map file, null if the map was not read from a file.
+	 */
+	private String fileName;
+	
+	/**
+	 * Armies of every country when the observers were last notified, null if they have not been notified yet.
+	 */
+	private int[] shownArmies;
+	
+	/**
+	 * Owner of every country when the observers were last notified.
+	 */
+	private Player[] shownOwners;
 		
 	/**
-	 * This constructor create object of MapReader class and read data from map.
+	 * This constructor loads a map file through the shared MapCache, so the file is only parsed again if it changed.
+	 * The map gets its own country nodes, so games on the same file do not share owners or armies.
 	 * @param filename address of the mapfile to be loaded.
 	 */
 	public Map(String filename) {
-		MapReader reader = new MapReader();
-		mapData = reader.readMap(filename);
+		this(MapCache.getShared().getGraph(filename), filename);
+	}
+
+	/**
+	 * Creates a map with new country nodes for a compiled graph.
+	 * @param newGraph compiled map, it is not changed.
+	 * @param filename address of the map file, null if the map was not read from a file.
+	 */
+	public Map(MapGraph newGraph, String filename) {
+		ArrayList<CountryNode> nodes = new ArrayList<CountryNode>();
+		mapData = newGraph.instantiate(nodes);
+		fileName = filename;
+		graph = newGraph;
+		countriesById = nodes.toArray(new CountryNode[nodes.size()]);
+		for(int i=0; i<countriesById.length; i++) {
+			countriesById[i].setId(i);
+		}
+	}
+	
+	/**
+	 * Gives the address of the map file.
+	 * @return address of the map file, null if the map was not read from a file.
+	 */
+	public String getFileName() {
+		return this.fileName;
 	}
 	
 	/** 
@@ -40,6 +90,65 @@ public class Map extends Observable {
 		return this.mapData;
 	}
 	
+	/**
+	 * Returns the compiled graph of the map, compiling it on first use.
+	 * Every country node gets the id it has in the graph.
+	 * @return compiled map graph.
+	 */
+	public MapGraph getGraph() {
+		if(this.graph==null) {
+			ArrayList<CountryNode> nodes = new ArrayList<CountryNode>();
+			this.graph = MapGraph.compile(this.mapData, nodes);
+			this.countriesById = nodes.toArray(new CountryNode[nodes.size()]);
+			for(int i=0; i<countriesById.length; i++) {
+				countriesById[i].setId(i);
+			}
+		}
+		return this.graph;
+	}
+	
+	/**
+	 * Get object of country from its id in the compiled graph.
+	 * @param id id of country
+	 * @return object of CountryNode required
+	 */
+	public CountryNode getCountry(int id) {
+		getGraph();
+		return this.countriesById[id];
+	}
+	
+	/**
+	 * Gives the owner of every country as index in the list of players.
+	 * @param players list of players of the game.
+	 * @return array indexed by country id, -1 for countries without owner.
+	 */
+	public int[] getOwnerArray(ArrayList<Player> players) {
+		int[] owners = new int[getGraph().getCountryCount()];
+		for(int i=0; i<owners.length; i++) {
+			Player owner = countriesById[i].getOwner();
+			owners[i] = -1;
+			for(int p=0; owner!=null && p<players.size(); p++) {
+				if(players.get(p)==owner) {
+					owners[i] = p;
+					break;
+				}
+			}
+		}
+		return owners;
+	}
+	
+	/**
+	 * Gives the armies in every country.
+	 * @return array indexed by country id.
+	 */
+	public int[] getArmyArray() {
+		int[] armies = new int[getGraph().getCountryCount()];
+		for(int i=0; i<armies.length; i++) {
+			armies[i] = countriesById[i].getArmiesCount();
+		}
+		return armies;
+	}
+	
 	/**
 	 * Return map data.
 	 * @return multidimensional array containing map data.
@@ -106,22 +215,79 @@ public class Map extends Observable {
 	}
 	
 	/**
-	 * Notify Observer(MapView) of the change in Observable
+	 * Notify Observer(MapView) of the change in Observable.
+	 * Observers get a MapDelta with the countries whose owner or armies changed since the last notification,
+	 * nothing is sent if no country changed.
 	 */
 	public void updateMap(){
+		if(countObservers()==0) {
+			return;
+		}
+		MapDelta delta = takeDelta();
+		if(delta.size()==0 && !delta.isFull()) {
+			return;
+		}
 		setChanged();
-		notifyObservers(this);
+		notifyObservers(delta);
 	}
 	
+	/**
+	 * Finds the countries that changed since the observers were last notified and remembers their state.
+	 * @return countries that changed, every country the first time.
+	 */
+	private MapDelta takeDelta() {
+		int count = getGraph().getCountryCount();
+		boolean full = this.shownArmies==null;
+		if(full) {
+			this.shownArmies = new int[count];
+			this.shownOwners = new Player[count];
+		}
+		int changed = 0;
+		int[] ids = new int[count];
+		for(int i=0; i<count; i++) {
+			CountryNode c = this.countriesById[i];
+			if(full || c.getArmiesCount()!=this.shownArmies[i] || c.getOwner()!=this.shownOwners[i]) {
+				this.shownArmies[i] = c.getArmiesCount();
+				this.shownOwners[i] = c.getOwner();
+				ids[changed++] = i;
+			}
+		}
+		int[] countries = new int[changed];
+		String[] owners = new String[changed];
+		int[] armies = new int[changed];
+		for(int k=0; k<changed; k++) {
+			countries[k] = ids[k];
+			owners[k] = this.shownOwners[ids[k]]==null ? "" : this.shownOwners[ids[k]].getName();
+			armies[k] = this.shownArmies[ids[k]];
+		}
+		return new MapDelta(this, countries, owners, armies, full);
+	}
+	
+	/**
+	 * Adds an observer, the next notification has every country of the map so the new observer gets the whole map.
+	 * @param o observer to be added.
+	 */
+	@Override
+	public synchronized void addObserver(Observer o) {
+		super.addObserver(o);
+		this.shownArmies = null;
+	}
+	
+	/**
+	 * Validates the map in one pass over its graph.
+	 * @return validator with every violation of the map.
+	 */
+	public MapValidator getValidator() {
+		return new MapValidator(getGraph());
+	}
+
 	/**
 	 * This method check if loaded map is valid.
 	 * @return true if map is valid false if map is not valid
 	 * */
 	public boolean mapValidation() {
-		if(isMapConnectedGraph() && isMapNodesContainUniqueCountries()) {
-			return true;
-		}
-		return false;
+		MapValidator validator = getValidator();
+		return isConnectedGraph(validator) && validator.passed(MapValidator.Check.DUPLICATE_COUNTRY);
 	}
 	
 	/**
@@ -130,19 +296,16 @@ public class Map extends Observable {
 	 */
 	public boolean isMapConnectedGraph()
 	{
-		for(MapNode m: this.mapData){
-			for(CountryNode c: m.getCountries()){
-				if(c.getNeighbourCountries()==null || c.getNeighbourCountries().length==0){
-					return false;
-				}
-				for(CountryNode n: c.getNeighbourCountries()){
-					if(!n.getNeighbours().contains(c)) {
-						return false;
-					}
-				}
-			}
-		}
-		return true;
+		return isConnectedGraph(getValidator());
+	}
+
+	/**
+	 * Check if map is connected graph and every neighbour list is symmetric.
+	 * @param validator validator of the map.
+	 * @return true if map is connected graph false if map is not connected graph
+	 */
+	private boolean isConnectedGraph(MapValidator validator) {
+		return validator.passed(MapValidator.Check.CONNECTED_MAP) && validator.passed(MapValidator.Check.ASYMMETRIC_NEIGHBOUR);
 	}
 	
 	/**
@@ -150,18 +313,7 @@ public class Map extends Observable {
 	 * @return true if all continents have unique countries; false if one country belongs to more than one continent
 	 */
 	public boolean isMapNodesContainUniqueCountries() {
-		ArrayList<CountryNode> stack = new ArrayList<CountryNode>();
-		for(MapNode m: this.mapData) {
-			for(CountryNode c: m.getCountries()) {
-				if(stack.contains(c)) {
-					return false;
-				}
-				else {
-					stack.add(c);
-				}
-			}
-		}
-		return true;
+		return getValidator().passed(MapValidator.Check.DUPLICATE_COUNTRY);
 	}
 	
 	/**
@@ -173,7 +325,7 @@ public class Map extends Observable {
 	 */
 	public ArrayList<String> getPlayerNeighbourCountries(CountryNode newCountry, Player newPlayer,boolean flag) {
 		ArrayList<String> playerNeighbourCountries = new ArrayList<String>();
-		for (CountryNode country : newCountry.getNeighbourCountries()){
+		for (CountryNode country : newCountry.getNeighbours()){
 			if(flag) {
 				if (country.getOwner().equals(newPlayer)){
 					playerNeighbourCountries.add(country.getCountryName());
@@ -194,14 +346,12 @@ public class Map extends Observable {
 	 * @return object of CountryNode required
 	 */
 	public CountryNode getCountry(String countryName) {
-		CountryNode c = null;
-		for(MapNode m: this.mapData) {
-			c = CountryNode.getCountry(m.getCountryList(), countryName);
-			if(c!=null) {
-				break;
-			}
+		int id = getGraph().getId(countryName);
+		/*neighbours that are not declared in any continent are not countries of the map.*/
+		if(id<0 || id>=graph.getDeclaredCount()) {
+			return null;
 		}
-		return c;
+		return this.countriesById[id];
 	}
 
 	/**
@@ -223,15 +373,7 @@ public class Map extends Observable {
 	 * @return true if continent belongs to player, false if continent not belongs to player
 	 */
 	public boolean continentWonByPlayer(Player player,CountryNode country) {
-		MapNode m = country.getContinent();	
-		for(CountryNode c : m.getCountries()) {
-			if(c.getOwner()!=player) {
-					return false;
-			}
-			return true;
-		}
-		return false;
-
+		return player.ownsContinent(country.getContinent());
 	}
 	
 	/**
@@ -240,6 +382,8 @@ public class Map extends Observable {
 	 */
 	public void setMapData(ArrayList<MapNode> mapData2) {
 		this.mapData = mapData2;
-		
+		this.graph = null;
+		this.countriesById = null;
+		this.shownArmies = null;
 	}
 }
@@ -0,0 +1,217 @@
+package risk.model.map;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of compiled map graphs, so a map file is read and parsed once however many games are played on it.
+ * Graphs are kept by file path together with the modification time and size of the file,
+ * a file that changed on disk is read again. The cache holds a bounded number of maps and
+ * drops the least recently used one when it is full.
+ * Looking up a cached map takes no lock. A map that is not cached is parsed by the first thread asking for it,
+ * the other threads asking for the same file wait for that parse while maps of other files are still served.
+ * A file MapReader could only read in part is not loaded: its errors are raised, so a game never starts on part of a map.
+ * The cached graphs are never changed, every game creates its own country nodes from them.
+ */
+public class MapCache {
+
+	/**
+	 * Number of maps kept by the shared cache.
+	 */
+	public static final int DEFAULT_SIZE = 16;
+
+	/**
+	 * Cache used by every Map read from a file.
+	 */
+	private static final MapCache SHARED = new MapCache(DEFAULT_SIZE);
+
+	/**
+	 * Compiled map with the state of the file it was read from.
+	 */
+	private static class Entry {
+
+		/**
+		 * Modification time of the file when it was read.
+		 */
+		private final long lastModified;
+
+		/**
+		 * Size of the file when it was read.
+		 */
+		private final long length;
+
+		/**
+		 * Parse of the file, run once by the thread that added the entry.
+		 */
+		private final FutureTask<MapGraph> graph;
+
+		/**
+		 * Tick of the last use of the entry.
+		 */
+		private volatile long lastUsed;
+
+		/**
+		 * Creates an entry.
+		 * @param newLastModified modification time of the file.
+		 * @param newLength size of the file.
+		 * @param newGraph parse of the file.
+		 */
+		private Entry(long newLastModified, long newLength, FutureTask<MapGraph> newGraph) {
+			this.lastModified = newLastModified;
+			this.length = newLength;
+			this.graph = newGraph;
+		}
+	}
+
+	/**
+	 * Cached maps by path.
+	 */
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+	/**
+	 * Maximum number of maps kept.
+	 */
+	private final int maxSize;
+
+	/**
+	 * Counts the uses of the cache, gives the order in which the entries were last used.
+	 */
+	private final AtomicLong clock = new AtomicLong();
+
+	/**
+	 * Number of maps read from disk.
+	 */
+	private final AtomicInteger reads = new AtomicInteger();
+
+	/**
+	 * Creates a cache.
+	 * @param newMaxSize maximum number of maps kept.
+	 */
+	public MapCache(int newMaxSize) {
+		this.maxSize = Math.max(1, newMaxSize);
+	}
+
+	/**
+	 * Gives the cache shared by all games.
+	 * @return shared cache.
+	 */
+	public static MapCache getShared() {
+		return SHARED;
+	}
+
+	/**
+	 * Gives the compiled graph of a map file, reading the file only if it is not cached or has changed.
+	 * A file that can not be read or has lines that can not be read is not cached.
+	 * @param filename address of the map file.
+	 * @return compiled graph of the map.
+	 * @throws IllegalArgumentException if the file can not be read in full, the message lists the errors.
+	 */
+	public MapGraph getGraph(final String filename) {
+		File file = new File(filename);
+		String key;
+		try {
+			key = file.getCanonicalPath();
+		}catch(IOException e) {
+			key = file.getAbsolutePath();
+		}
+		long lastModified = file.lastModified();
+		long length = file.length();
+		while(true) {
+			Entry entry = this.entries.get(key);
+			if(entry!=null && entry.lastModified==lastModified && entry.length==length) {
+				entry.lastUsed = clock.incrementAndGet();
+				return await(key, entry);
+			}
+			Entry fresh = new Entry(lastModified, length, new FutureTask<MapGraph>(new Callable<MapGraph>() {
+				@Override
+				public MapGraph call() {
+					MapReader reader = new MapReader();
+					ArrayList<MapNode> read = reader.readMap(filename);
+					if(reader.isIncomplete()) {
+						throw new IllegalArgumentException("Map file "+filename+" has errors:\n"+String.join("\n", reader.getErrors()));
+					}
+					return MapGraph.compile(read);
+				}
+			}));
+			fresh.lastUsed = clock.incrementAndGet();
+			boolean added = entry==null ? this.entries.putIfAbsent(key, fresh)==null : this.entries.replace(key, entry, fresh);
+			if(added) {
+				this.reads.incrementAndGet();
+				evict();
+				fresh.graph.run();
+				return await(key, fresh);
+			}
+		}
+	}
+
+	/**
+	 * Waits for the parse of an entry, an entry whose parse failed is dropped so that the next call reads the file again.
+	 * @param key path of the file.
+	 * @param entry entry of the file.
+	 * @return compiled graph of the map.
+	 */
+	private MapGraph await(String key, Entry entry) {
+		try {
+			return entry.graph.get();
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while the map "+key+" was read", e);
+		}catch(ExecutionException e) {
+			this.entries.remove(key, entry);
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Drops the least recently used maps until the cache is within its size.
+	 */
+	private void evict() {
+		while(this.entries.size()>this.maxSize) {
+			String eldest = null;
+			Entry eldestEntry = null;
+			for(java.util.Map.Entry<String, Entry> e : this.entries.entrySet()) {
+				if(eldestEntry==null || e.getValue().lastUsed<eldestEntry.lastUsed) {
+					eldest = e.getKey();
+					eldestEntry = e.getValue();
+				}
+			}
+			if(eldest==null) {
+				return;
+			}
+			this.entries.remove(eldest, eldestEntry);
+		}
+	}
+
+	/**
+	 * Gives the number of maps in the cache.
+	 * @return number of cached maps.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Gives the number of times a map file was read because it was not cached or had changed.
+	 * @return number of files read.
+	 */
+	public int getReads() {
+		return this.reads.get();
+	}
+
+	/**
+	 * Removes all maps from the cache.
+	 */
+	public void clear() {
+		this.entries.clear();
+	}
+}
@@ -0,0 +1,101 @@
+package risk.model.map;
+
+/**
+ * Countries whose owner or armies changed since the map last notified its observers, sent by <code>Map.updateMap</code>.
+ * The new owner and armies are copied when the delta is made, so a view can apply it later on another thread.
+ * The first delta an observer gets is full, it has every country of the map.
+ */
+public class MapDelta {
+
+	/**
+	 * Map the countries belong to, for the names, continents and coordinates that do not change during a game.
+	 */
+	private Map map;
+
+	/**
+	 * Ids of the countries that changed.
+	 */
+	private int[] countries;
+
+	/**
+	 * Name of the new owner of each country, empty if it has none.
+	 */
+	private String[] owners;
+
+	/**
+	 * New armies of each country.
+	 */
+	private int[] armies;
+
+	/**
+	 * True if the delta has every country of the map.
+	 */
+	private boolean full;
+
+	/**
+	 * Creates a delta.
+	 * @param newMap map the countries belong to.
+	 * @param newCountries ids of the countries that changed.
+	 * @param newOwners name of the new owner of each country.
+	 * @param newArmies new armies of each country.
+	 * @param newFull true if the delta has every country of the map.
+	 */
+	MapDelta(Map newMap, int[] newCountries, String[] newOwners, int[] newArmies, boolean newFull) {
+		this.map = newMap;
+		this.countries = newCountries;
+		this.owners = newOwners;
+		this.armies = newArmies;
+		this.full = newFull;
+	}
+
+	/**
+	 * Gives the map the countries belong to.
+	 * @return map of the game.
+	 */
+	public Map getMap() {
+		return this.map;
+	}
+
+	/**
+	 * Tells if the delta has every country of the map, so a view has to lay out the map again.
+	 * @return true for the first delta of an observer.
+	 */
+	public boolean isFull() {
+		return this.full;
+	}
+
+	/**
+	 * Gives the number of countries that changed.
+	 * @return number of countries.
+	 */
+	public int size() {
+		return this.countries.length;
+	}
+
+	/**
+	 * Gives the id of a country that changed.
+	 * @param i index in the delta.
+	 * @return id of the country in the graph of the map.
+	 */
+	public int getCountry(int i) {
+		return this.countries[i];
+	}
+
+	/**
+	 * Gives the new owner of a country that changed.
+	 * @param i index in the delta.
+	 * @return name of the owner, empty if the country has no owner.
+	 */
+	public String getOwner(int i) {
+		return this.owners[i];
+	}
+
+	/**
+	 * Gives the new armies of a country that changed.
+	 * @param i index in the delta.
+	 * @return armies in the country.
+	 */
+	public int getArmies(int i) {
+		return this.armies[i];
+	}
+}
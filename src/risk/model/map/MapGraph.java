@@ -0,0 +1,429 @@
+package risk.model.map;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Compiled form of the map topology with dense integer ids for the countries.
+ * Neighbours and continent members are stored as CSR style <code>int</code> arrays
+ * and country names are resolved through a hash index.
+ * Countries declared in a continent get the first ids, neighbours that are never declared
+ * (for example misspelled names in a map file) get the ids after them.
+ * The graph only holds the topology, owners and armies stay on the CountryNode objects.
+ * A graph is never changed after it is compiled, so one graph can be shared by many games,
+ * each game creating its own country nodes with <code>instantiate</code>.
+ */
+public class MapGraph {
+
+	/**
+	 * Name of every country, indexed by country id.
+	 */
+	private String[] names;
+
+	/**
+	 * Start of the neighbours of each country in <code>neighbours</code>, one extra entry at the end.
+	 */
+	private int[] neighbourStart;
+
+	/**
+	 * Neighbour ids of all countries one after another.
+	 */
+	private int[] neighbours;
+
+	/**
+	 * Coordinates of each country, null for countries without coordinates.
+	 */
+	private int[][] coordinates;
+
+	/**
+	 * Continent index of each country, -1 for countries not declared in any continent.
+	 */
+	private int[] continentOf;
+
+	/**
+	 * Names of the continents in map order.
+	 */
+	private String[] continentNames;
+
+	/**
+	 * Control value of each continent.
+	 */
+	private int[] continentValues;
+
+	/**
+	 * Start of the countries of each continent in <code>continentCountries</code>, one extra entry at the end.
+	 */
+	private int[] continentStart;
+
+	/**
+	 * Country ids of all continents one after another.
+	 */
+	private int[] continentCountries;
+
+	/**
+	 * Number of countries declared in at least one continent.
+	 */
+	private int declaredCount;
+
+	/**
+	 * Index from country name to country id.
+	 */
+	private HashMap<String, Integer> index;
+
+	/**
+	 * Hash of the names, continents and adjacency of the graph.
+	 */
+	private long fingerprint;
+
+	/**
+	 * Private constructor, graphs are created by <code>compile</code>.
+	 */
+	private MapGraph() {}
+
+	/**
+	 * Compiles the map data read by MapReader into a graph.
+	 * Countries are matched by name, so different CountryNode objects with the same name get the same id.
+	 * @param mapData ArrayList of continents.
+	 * @return compiled graph.
+	 */
+	public static MapGraph compile(ArrayList<MapNode> mapData) {
+		return compile(mapData, new ArrayList<CountryNode>());
+	}
+
+	/**
+	 * Compiles the map data into a graph and collects the country nodes in id order.
+	 * @param mapData ArrayList of continents.
+	 * @param nodes empty list that receives one country node per id.
+	 * @return compiled graph.
+	 */
+	static MapGraph compile(ArrayList<MapNode> mapData, ArrayList<CountryNode> nodes) {
+		MapGraph graph = new MapGraph();
+		graph.index = new HashMap<String, Integer>();
+		int continents = mapData.size();
+		graph.continentNames = new String[continents];
+		graph.continentValues = new int[continents];
+		graph.continentStart = new int[continents+1];
+		ArrayList<Integer> members = new ArrayList<Integer>();
+		ArrayList<Integer> memberOf = new ArrayList<Integer>();
+		/*declared countries first, in continent order.*/
+		for(int m=0; m<continents; m++) {
+			MapNode continent = mapData.get(m);
+			graph.continentNames[m] = continent.getContinentName();
+			graph.continentValues[m] = continent.getControlValue();
+			graph.continentStart[m] = members.size();
+			if(continent.getCountryList()!=null) {
+				for(CountryNode c : continent.getCountryList()) {
+					int id = graph.addName(c, nodes);
+					members.add(id);
+					memberOf.add(m);
+				}
+			}
+		}
+		graph.continentStart[continents] = members.size();
+		graph.declaredCount = nodes.size();
+		/*neighbours that were never declared get the ids after the declared countries.*/
+		for(int i=0; i<nodes.size(); i++) {
+			if(nodes.get(i).getNeighbours()!=null) {
+				for(CountryNode n : nodes.get(i).getNeighbours()) {
+					graph.addName(n, nodes);
+				}
+			}
+		}
+		int count = nodes.size();
+		graph.names = new String[count];
+		graph.continentOf = new int[count];
+		graph.coordinates = new int[count][];
+		for(int i=0; i<count; i++) {
+			graph.names[i] = nodes.get(i).getCountryName();
+			graph.continentOf[i] = -1;
+			if(nodes.get(i).getCoordinates()!=null) {
+				graph.coordinates[i] = nodes.get(i).getCoordinates().clone();
+			}
+		}
+		graph.continentCountries = new int[members.size()];
+		for(int i=0; i<members.size(); i++) {
+			graph.continentCountries[i] = members.get(i);
+			/*a country declared twice keeps the last continent, as MapNode.addCountry does.*/
+			graph.continentOf[members.get(i)] = memberOf.get(i);
+		}
+		/*adjacency in CSR form.*/
+		graph.neighbourStart = new int[count+1];
+		int edges = 0;
+		for(int i=0; i<count; i++) {
+			graph.neighbourStart[i] = edges;
+			if(nodes.get(i).getNeighbours()!=null) {
+				edges += nodes.get(i).getNeighbours().size();
+			}
+		}
+		graph.neighbourStart[count] = edges;
+		graph.neighbours = new int[edges];
+		for(int i=0; i<count; i++) {
+			int k = graph.neighbourStart[i];
+			if(nodes.get(i).getNeighbours()!=null) {
+				for(CountryNode n : nodes.get(i).getNeighbours()) {
+					graph.neighbours[k++] = graph.index.get(n.getCountryName());
+				}
+			}
+		}
+		graph.fingerprint = graph.computeFingerprint();
+		return graph;
+	}
+
+	/**
+	 * Creates new continent and country nodes for this graph, without owners or armies.
+	 * The nodes are the same as the ones MapReader gives for the map file: one node per country id,
+	 * with its neighbours in the same order and the continent it was declared in last.
+	 * @return ArrayList of continents.
+	 */
+	public ArrayList<MapNode> instantiate() {
+		return instantiate(new ArrayList<CountryNode>());
+	}
+
+	/**
+	 * Creates new continent and country nodes for this graph and collects the country nodes in id order.
+	 * @param nodes empty list that receives one country node per id.
+	 * @return ArrayList of continents.
+	 */
+	ArrayList<MapNode> instantiate(ArrayList<CountryNode> nodes) {
+		int count = this.names.length;
+		for(int i=0; i<count; i++) {
+			int[] xy = this.coordinates[i]==null ? null : this.coordinates[i].clone();
+			nodes.add(new CountryNode(this.names[i], new ArrayList<CountryNode>(getNeighbourCount(i)), xy, null));
+		}
+		for(int i=0; i<count; i++) {
+			ArrayList<CountryNode> list = nodes.get(i).getNeighbours();
+			for(int k=this.neighbourStart[i]; k<this.neighbourStart[i+1]; k++) {
+				list.add(nodes.get(this.neighbours[k]));
+			}
+		}
+		ArrayList<MapNode> mapData = new ArrayList<MapNode>(this.continentNames.length);
+		for(int m=0; m<this.continentNames.length; m++) {
+			MapNode continent = new MapNode(this.continentNames[m], new ArrayList<CountryNode>(getContinentSize(m)), this.continentValues[m]);
+			for(int k=this.continentStart[m]; k<this.continentStart[m+1]; k++) {
+				continent.addCountry(nodes.get(this.continentCountries[k]));
+			}
+			mapData.add(continent);
+		}
+		return mapData;
+	}
+
+	/**
+	 * Gives an id to the country if its name has no id yet.
+	 * @param country country to be added.
+	 * @param nodes countries in id order.
+	 * @return id of the country.
+	 */
+	private int addName(CountryNode country, ArrayList<CountryNode> nodes) {
+		Integer id = index.get(country.getCountryName());
+		if(id==null) {
+			id = nodes.size();
+			index.put(country.getCountryName(), id);
+			nodes.add(country);
+		}
+		return id;
+	}
+
+	/**
+	 * Computes a 64 bit FNV-1a hash of the whole topology.
+	 * @return fingerprint of the graph.
+	 */
+	private long computeFingerprint() {
+		long h = 0xCBF29CE484222325L;
+		for(String name : this.names) {
+			h = hash(h, name.hashCode());
+		}
+		for(int i=0; i<this.continentNames.length; i++) {
+			h = hash(h, this.continentNames[i].hashCode());
+			h = hash(h, this.continentValues[i]);
+			h = hash(h, this.continentStart[i+1]);
+		}
+		for(int id : this.continentCountries) {
+			h = hash(h, id);
+		}
+		for(int start : this.neighbourStart) {
+			h = hash(h, start);
+		}
+		for(int id : this.neighbours) {
+			h = hash(h, id);
+		}
+		return h;
+	}
+
+	/**
+	 * Adds the four bytes of a value to an FNV-1a hash.
+	 * @param h hash so far.
+	 * @param value value to be added.
+	 * @return new hash.
+	 */
+	private static long hash(long h, int value) {
+		for(int i=0; i<4; i++) {
+			h ^= (value >>> (8*i)) & 0xFF;
+			h *= 0x100000001B3L;
+		}
+		return h;
+	}
+
+	/**
+	 * Gives a hash of the country names, continents and adjacency.
+	 * Two graphs with the same fingerprint are taken to be the same map, so ids stored for one can be used with the other.
+	 * @return fingerprint of the graph.
+	 */
+	public long getFingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Gives the number of countries in the graph, declared or not.
+	 * @return number of countries.
+	 */
+	public int getCountryCount() {
+		return this.names.length;
+	}
+
+	/**
+	 * Gives the number of countries declared in at least one continent.
+	 * Those countries have the ids from 0 to this count - 1.
+	 * @return number of declared countries.
+	 */
+	public int getDeclaredCount() {
+		return this.declaredCount;
+	}
+
+	/**
+	 * Gives the id of a country.
+	 * @param countryName name of the country.
+	 * @return id of the country, -1 if map has no country with that name.
+	 */
+	public int getId(String countryName) {
+		Integer id = index.get(countryName);
+		if(id==null) {
+			return -1;
+		}
+		return id;
+	}
+
+	/**
+	 * Gives the name of a country.
+	 * @param id id of the country.
+	 * @return name of the country.
+	 */
+	public String getName(int id) {
+		return this.names[id];
+	}
+
+	/**
+	 * Gives the coordinates of a country.
+	 * @param id id of the country.
+	 * @return x and y coordinates, null if the country has none.
+	 */
+	public int[] getCoordinates(int id) {
+		return this.coordinates[id]==null ? null : this.coordinates[id].clone();
+	}
+
+	/**
+	 * Gives the number of neighbours of a country.
+	 * @param id id of the country.
+	 * @return number of neighbours.
+	 */
+	public int getNeighbourCount(int id) {
+		return this.neighbourStart[id+1] - this.neighbourStart[id];
+	}
+
+	/**
+	 * Gives a neighbour of a country.
+	 * @param id id of the country.
+	 * @param k position of the neighbour, from 0 to neighbour count - 1.
+	 * @return id of the neighbour.
+	 */
+	public int getNeighbour(int id, int k) {
+		return this.neighbours[this.neighbourStart[id]+k];
+	}
+
+	/**
+	 * Gives the CSR offsets of the adjacency, neighbours of country i are
+	 * <code>getNeighbours()[getNeighbourStart()[i]]</code> to <code>getNeighbours()[getNeighbourStart()[i+1]-1]</code>.
+	 * The array is shared and must not be changed.
+	 * @return offsets array of length country count + 1.
+	 */
+	public int[] getNeighbourStart() {
+		return this.neighbourStart;
+	}
+
+	/**
+	 * Gives the neighbour ids of all countries, see <code>getNeighbourStart</code>.
+	 * The array is shared and must not be changed.
+	 * @return neighbour ids.
+	 */
+	public int[] getNeighbours() {
+		return this.neighbours;
+	}
+
+	/**
+	 * Checks if two countries are neighbours.
+	 * @param id id of the country.
+	 * @param other id of the other country.
+	 * @return true if other is in the neighbour list of the country.
+	 */
+	public boolean isNeighbour(int id, int other) {
+		for(int k=this.neighbourStart[id]; k<this.neighbourStart[id+1]; k++) {
+			if(this.neighbours[k]==other) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gives the continent a country belongs to.
+	 * @param id id of the country.
+	 * @return continent index, -1 if the country is not declared in any continent.
+	 */
+	public int getContinent(int id) {
+		return this.continentOf[id];
+	}
+
+	/**
+	 * Gives the number of continents.
+	 * @return number of continents.
+	 */
+	public int getContinentCount() {
+		return this.continentNames.length;
+	}
+
+	/**
+	 * Gives the name of a continent.
+	 * @param continent continent index.
+	 * @return name of the continent.
+	 */
+	public String getContinentName(int continent) {
+		return this.continentNames[continent];
+	}
+
+	/**
+	 * Gives the control value of a continent.
+	 * @param continent continent index.
+	 * @return control value.
+	 */
+	public int getContinentValue(int continent) {
+		return this.continentValues[continent];
+	}
+
+	/**
+	 * Gives the number of countries of a continent.
+	 * @param continent continent index.
+	 * @return number of countries.
+	 */
+	public int getContinentSize(int continent) {
+		return this.continentStart[continent+1] - this.continentStart[continent];
+	}
+
+	/**
+	 * Gives a country of a continent.
+	 * @param continent continent index.
+	 * @param k position of the country in the continent.
+	 * @return id of the country.
+	 */
+	public int getContinentCountry(int continent, int k) {
+		return this.continentCountries[this.continentStart[continent]+k];
+	}
+}
@@ -1,8 +1,6 @@
 package risk.model.map;
 
 import java.util.ArrayList;
-import java.util.Hashtable;
-import java.util.Iterator;
 
 import risk.controller.GameController;
 import risk.view.mapeditor.MapFrame;
@@ -15,17 +13,6 @@ import risk.view.mapeditor.MapFrame;
  */
 public class MapModel {
 	
-	/**
-	 * Creates hashtable for storing all countries as keys and their corresponding boolean visited values.
-	 */
-	Hashtable<String, Boolean> countryTable = new Hashtable<String, Boolean>();
-	
-	/**
-	 * creates hashtable for a continent to store all its countries.
-	 * the country names are stored as keys and their corresponding boolean visited values.
-	 */
-	Hashtable<String, Boolean> continentTable = new Hashtable<String, Boolean>();
-	
 	/**
 	 * mapNode variable stores reference of the class MapNode
 	 */
@@ -93,23 +80,25 @@ public class MapModel {
 		return continents;
 	}
 	
+	/**
+	 * Validates the map being edited.
+	 * @return validator with every violation of the map.
+	 */
+	public MapValidator validate() {
+		return new MapValidator(continents);
+	}
+	
 	/**
 	 * function to implement validations before saving the map file.
 	 * @return true if map is valid.
 	 */
 	public boolean checkOnSaveMap() {
-		Boolean saveMap = true;
-		for (MapNode i :continents) {
-			//a map file with zero countries cannot be saved.
-			if(i.getCountries().length == 0) {
-				saveMap = false;
-			}
-			/*connected map check*/
-			if(!connectedMap()) {
-				saveMap = false;
-			}
+		if(continents.isEmpty()) {
+			return true;
 		}
-		return saveMap;
+		MapValidator validator = validate();
+		//a map file with zero countries cannot be saved.
+		return validator.passed(MapValidator.Check.EMPTY_CONTINENT) && validator.passed(MapValidator.Check.CONNECTED_MAP);
 	}
 	
 	/**
@@ -117,20 +106,7 @@ public class MapModel {
 	 * @return true if the map is a connected graph.
 	 */
 	public boolean connectedMap() {
-		for (MapNode mapNode : continents) {
-			for (CountryNode cNode : mapNode.getCountries()) {
-				countryTable.put(cNode.getCountryName(), false);
-			}
-		}
-		/* Get the first country from the hashtable*/
-		String first = countryTable.keySet().iterator().next();
-		/*call to search function which recurs over the neighbor countries*/
-		search(first);
-		if(countryTable.containsValue(false)) {
-			return false;
-		}else {
-			return true;
-		}
+		return validate().passed(MapValidator.Check.CONNECTED_MAP);
 	}
 	
 	/**
@@ -138,78 +114,9 @@ public class MapModel {
 	 * @return true if all continents are connected continents.
 	 */
 	public boolean checkConnectedContinent() {
-		for (MapNode mapNode : continents) {
-			continentTable.clear();
-			for (CountryNode cNode : mapNode.getCountries()) {
-				continentTable.put(cNode.getCountryName(), false);
-			}
-			/*Get the first country from the hashtable for the current continent*/
-			String firstCountry = continentTable.keySet().iterator().next();
-			searchForUnconnectedContinent(firstCountry);
-			if(continentTable.containsValue(false)) {
-				return false;
-			}
-		}
-		return true;	
+		return validate().passed(MapValidator.Check.CONNECTED_CONTINENT);
 	}
 	
-	/**
-	 * This function recurs over the countries of each continent to check their connectivity within the continent.
-	 * @param f receives the country to traverse over its neighbors.
-	 */
-	public void searchForUnconnectedContinent(String f) {
-		/* Mark the current node as visited by setting it true*/ 
-		continentTable.put(f, true);
-		
-		for (MapNode mapNode : continents) {
-			for (CountryNode cNode : mapNode.getCountries()) {
-				if(cNode.getCountryName().compareTo(f)==0) {
-					/* get the list of all possible neighbors.*/
-			        Iterator<CountryNode> i = cNode.getNeighbours().listIterator();
-			        while (i.hasNext())
-			        {
-			        	/*pick a neighbor for this country*/
-			        	CountryNode n = i.next();
-			        	/*if this neighbor belongs to the same continent, then recur*/
-			        	if(continentTable.containsKey(n.getCountryName())) {
-				            if (continentTable.get(n.getCountryName())==false)
-				            	searchForUnconnectedContinent(n.getCountryName());
-			        	}
-			            
-			        }
-				}
-			}
-		}
-	}
-	
-	/**
-	 * this function implements search algorithm on mapNode to check connectedness of graph.
-	 * @param s receives a country to traverse over its neighbors and set its boolean visited value as true.
-	 */
-	public void search(String s)
-        {
-        /* Mark the current node as visited by setting it true */
-        countryTable.put(s, true);
-        for (MapNode mapNode : continents) {
-			for (CountryNode cNode : mapNode.getCountries()) {
-				if(cNode.getCountryName().compareTo(s)==0) {
-					/* Recur for all the connected neighbor countries*/
-			        Iterator<CountryNode> i = cNode.getNeighbours().listIterator();
-			        while (i.hasNext())
-			        {
-			            CountryNode n = i.next();
-			            try {
-			            	if (countryTable.get(n.getCountryName())==false)
-			            		search(n.getCountryName());
-			            }catch(NullPointerException e) {
-			            }
-			        }
-				}
-			}
-		}
-        
-    }
-	
 	/**
 	 * Saving the new Map file.
 	 */
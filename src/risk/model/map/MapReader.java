@@ -1,91 +1,227 @@
 package risk.model.map;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 /**
  * This class read map file.
+ * The file is read at once and closed, then its bytes are split into lines in a single pass, only one line at a time is decoded.
+ * The file is not memory mapped: a mapped file can not be overwritten on Windows, so the map editor could not save a map back.
+ * Continents and countries are found by name through hash tables, so reading is linear in the size of the file.
+ * Lines that can not be read are skipped and reported with their line number by <code>getErrors</code>,
+ * <code>isIncomplete</code> then tells that the map read is only part of the file.
  * @author Gurpreet
- * @version 1.0
+ * @version 1.1
  */
 public class MapReader {
-	
+
+	/**
+	 * Errors found while reading the last map file.
+	 */
+	private ArrayList<String> errors = new ArrayList<String>();
+
+	/**
+	 * True if lines of the last map file were skipped or the file could not be read.
+	 */
+	private boolean incomplete = false;
+
 	/**
 	 * This method reads the map file.
+	 * Names of continents and countries are trimmed, so a neighbour written with extra spaces is the same country.
 	 * @see MapNode
 	 * @param filename URL of map file.
+	 * @return map data in form of <code>ArrayList</code>, empty if the file can not be read.
+	 */
+	public ArrayList<MapNode> readMap(String filename) {
+		this.errors = new ArrayList<String>();
+		this.incomplete = false;
+		ByteBuffer text;
+		try {
+			text = ByteBuffer.wrap(Files.readAllBytes(Paths.get(filename)));
+		}catch(IOException e) {
+			this.incomplete = true;
+			this.errors.add("Can not read map file "+filename+": "+e);
+			return new ArrayList<MapNode>();
+		}
+		return parse(text);
+	}
+
+	/**
+	 * Reads the continents and territories of a map.
+	 * Each line is decoded as UTF-8 on its own, bytes that are not valid UTF-8 are replaced.
+	 * @param text bytes of the map file.
 	 * @return map data in form of <code>ArrayList</code>
 	 */
-	public ArrayList<MapNode> readMap(String filename) {	
-		BufferedReader br = null;
-		FileReader fr = null;
+	private ArrayList<MapNode> parse(ByteBuffer text) {
 		ArrayList<MapNode> map = new ArrayList<MapNode>();
-		ArrayList<CountryNode> stack = new ArrayList<CountryNode>();
-		
-		try {
-			String sCurrentLine;
-			fr = new FileReader(filename);
-			br = new BufferedReader(fr);
-			boolean t = false;
-			boolean c = false;
-			while ((sCurrentLine = br.readLine()) != null){
-				if(!sCurrentLine.equals("")){
-					if(sCurrentLine.contains("[Territories]")){
-						t = true;
-						c = false;
-						continue;
-					}
-					if(sCurrentLine.contains("[Continents]")){
-						c = true;
-						t = false;
-						continue;
-					}
-					//check if current line is for continent
-					if(c){
-						int indexEqualTo = sCurrentLine.indexOf("=");
-						map.add(new MapNode(sCurrentLine.substring(0, indexEqualTo), null, Integer.parseInt(sCurrentLine.substring(indexEqualTo+1).trim())));
-					}
-					else if(t){  //check if current line is for territory
-						String[] temp = sCurrentLine.split(",");
-						for(MapNode n : map){
-							if(n.getContinentName().equals(temp[3])){
-								if(!CountryNode.contains(stack, temp[0])){  /* check if the neighbor country object not already created */
-									stack.add(new CountryNode(temp[0], null, null,null));
-								}
-								/* getting the countries from stack and its neighbouring co ordinates with their information */
-								CountryNode newCountry = CountryNode.getCountry(stack, temp[0]);
-								int[] newCoordinates = {Integer.parseInt(temp[1]),Integer.parseInt(temp[2])};
-								newCountry.setCoordinates(newCoordinates);
-								if(temp.length>4) {
-									for(int i=4;i<temp.length;i++){
-										if(!CountryNode.contains(stack, temp[i])){
-											stack.add(new CountryNode(temp[i], null, null,null));
-										}
-										newCountry.addNeighbour(CountryNode.getCountry(stack, temp[i]));
-									}
-								}
-								n.addCountry(newCountry);
-								break;
-							}
-						}
-					}
+		HashMap<String, MapNode> continents = new HashMap<String, MapNode>();
+		HashMap<String, CountryNode> countries = new HashMap<String, CountryNode>();
+		HashMap<String, Integer> undeclared = new LinkedHashMap<String, Integer>();
+		boolean t = false;
+		boolean c = false;
+		byte[] bytes = new byte[256];
+		int lineNumber = 0;
+		while(text.hasRemaining()) {
+			int length = 0;
+			while(text.hasRemaining()) {
+				byte b = text.get();
+				if(b=='\n') {
+					break;
 				}
+				if(length==bytes.length) {
+					bytes = Arrays.copyOf(bytes, 2*length);
+				}
+				bytes[length++] = b;
+			}
+			if(length>0 && bytes[length-1]=='\r') {
+				length--;
+			}
+			lineNumber++;
+			String line = new String(bytes, 0, length, StandardCharsets.UTF_8).trim();
+			if(line.isEmpty()) {
+				continue;
+			}
+			if(line.startsWith("[")) {
+				t = line.equals("[Territories]");
+				c = line.equals("[Continents]");
+				continue;
 			}
-		} catch (IOException e) {
-			e.printStackTrace();
-		} 
-		finally {
-			try {
-				if (br != null)
-					br.close();
-				if (fr != null)
-					fr.close();
-			}catch (IOException ex) {
-				ex.printStackTrace();
+			//check if current line is for continent
+			if(c) {
+				readContinent(line, lineNumber, map, continents);
+			}
+			else if(t) {  //check if current line is for territory
+				readTerritory(line, lineNumber, continents, countries, undeclared);
+			}
+		}
+		/*undeclared neighbours are kept in the map, MapValidator rejects them when the map is validated.*/
+		for(java.util.Map.Entry<String, Integer> e : undeclared.entrySet()) {
+			this.errors.add("Line "+e.getValue()+": neighbour "+e.getKey()+" is not declared as a territory");
+		}
+		return map;
+	}
+
+	/**
+	 * Reads a continent line, name=control value.
+	 * @param line line of the file.
+	 * @param lineNumber number of the line.
+	 * @param map continents read so far.
+	 * @param continents continents read so far by name.
+	 */
+	private void readContinent(String line, int lineNumber, ArrayList<MapNode> map, HashMap<String, MapNode> continents) {
+		int indexEqualTo = line.indexOf('=');
+		if(indexEqualTo<0) {
+			error(lineNumber, "continent has no control value: "+line);
+			return;
+		}
+		String name = line.substring(0, indexEqualTo).trim();
+		int value;
+		try {
+			value = Integer.parseInt(line.substring(indexEqualTo+1).trim());
+		}catch(NumberFormatException e) {
+			error(lineNumber, "control value of continent "+name+" is not a number");
+			return;
+		}
+		MapNode continent = new MapNode(name, null, value);
+		map.add(continent);
+		if(!continents.containsKey(name)) {
+			continents.put(name, continent);
+		}
+	}
+
+	/**
+	 * Reads a territory line, name,x,y,continent,neighbour,...
+	 * Countries that are only seen as neighbours so far are created and completed when their own line is read.
+	 * @param line line of the file.
+	 * @param lineNumber number of the line.
+	 * @param continents continents by name.
+	 * @param countries countries created so far by name.
+	 * @param undeclared names only seen as neighbours so far, with the first line they were seen on.
+	 */
+	private void readTerritory(String line, int lineNumber, HashMap<String, MapNode> continents, HashMap<String, CountryNode> countries, HashMap<String, Integer> undeclared) {
+		String[] temp = line.split(",");
+		if(temp.length<4) {
+			error(lineNumber, "territory needs a name, coordinates and a continent: "+line);
+			return;
+		}
+		String name = temp[0].trim();
+		MapNode continent = continents.get(temp[3].trim());
+		if(continent==null) {
+			error(lineNumber, "territory "+name+" is in unknown continent "+temp[3].trim());
+			return;
+		}
+		int[] newCoordinates = new int[2];
+		try {
+			newCoordinates[0] = Integer.parseInt(temp[1].trim());
+			newCoordinates[1] = Integer.parseInt(temp[2].trim());
+		}catch(NumberFormatException e) {
+			error(lineNumber, "coordinates of territory "+name+" are not numbers");
+			return;
+		}
+		/* getting the countries from the table and its neighbouring co ordinates with their information */
+		CountryNode newCountry = getOrCreate(countries, name);
+		newCountry.setCoordinates(newCoordinates);
+		undeclared.remove(name);
+		for(int i=4; i<temp.length; i++) {
+			String neighbour = temp[i].trim();
+			if(!neighbour.isEmpty()) {
+				CountryNode n = countries.get(neighbour);
+				if(n==null) {
+					n = getOrCreate(countries, neighbour);
+					undeclared.put(neighbour, lineNumber);
+				}
+				newCountry.addNeighbour(n);
 			}
 		}
-		return map;		
+		continent.addCountry(newCountry);
+	}
+
+	/**
+	 * Gives the country with a name, creating it the first time the name is seen.
+	 * @param countries countries created so far by name.
+	 * @param name name of the country.
+	 * @return country node.
+	 */
+	private CountryNode getOrCreate(HashMap<String, CountryNode> countries, String name) {
+		CountryNode country = countries.get(name);
+		if(country==null) {
+			country = new CountryNode(name, null, null, null);
+			countries.put(name, country);
+		}
+		return country;
+	}
+
+	/**
+	 * Records an error of a line that is skipped.
+	 * @param lineNumber line of the error.
+	 * @param message description of the error.
+	 */
+	private void error(int lineNumber, String message) {
+		this.incomplete = true;
+		this.errors.add("Line "+lineNumber+": "+message);
+	}
+
+	/**
+	 * Gives the errors found while reading the last map file, each starting with its line number.
+	 * @return list of errors, empty if the file was read without errors.
+	 */
+	public ArrayList<String> getErrors() {
+		return this.errors;
+	}
+
+	/**
+	 * Tells if the last map file could not be read or had lines that were skipped,
+	 * the map read is then only part of the file and should not be played or edited.
+	 * @return true if the map read is incomplete.
+	 */
+	public boolean isIncomplete() {
+		return this.incomplete;
 	}
 }
@@ -0,0 +1,274 @@
+package risk.model.map;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+
+/**
+ * Validates the topology of a map in one pass over its compiled graph.
+ * Countries are matched by name through MapGraph, connectivity is checked with union-find,
+ * so validation is linear in the number of countries and neighbours and never recurses.
+ * Every violation found is kept, with a message naming the countries and continents involved.
+ */
+public class MapValidator {
+
+	/**
+	 * Checks done by the validator.
+	 */
+	public enum Check {
+		/**
+		 * Every continent has at least one country.
+		 */
+		EMPTY_CONTINENT,
+		/**
+		 * No country is declared more than once.
+		 */
+		DUPLICATE_COUNTRY,
+		/**
+		 * Every neighbour is declared as a country of some continent.
+		 */
+		ORPHAN_NEIGHBOUR,
+		/**
+		 * If A is a neighbour of B then B is a neighbour of A.
+		 */
+		ASYMMETRIC_NEIGHBOUR,
+		/**
+		 * Every country can be reached from every other country.
+		 */
+		CONNECTED_MAP,
+		/**
+		 * Every country of a continent can be reached from the other countries of the continent without leaving it.
+		 */
+		CONNECTED_CONTINENT
+	}
+
+	/**
+	 * Graph being validated.
+	 */
+	private MapGraph graph;
+
+	/**
+	 * Checks that failed.
+	 */
+	private EnumSet<Check> failed = EnumSet.noneOf(Check.class);
+
+	/**
+	 * Messages of all violations found.
+	 */
+	private ArrayList<String> errors = new ArrayList<String>();
+
+	/**
+	 * Validates map data.
+	 * @param mapData ArrayList of continents.
+	 */
+	public MapValidator(ArrayList<MapNode> mapData) {
+		this(MapGraph.compile(mapData));
+	}
+
+	/**
+	 * Validates a compiled map graph.
+	 * @param newGraph graph to be validated.
+	 */
+	public MapValidator(MapGraph newGraph) {
+		this.graph = newGraph;
+		checkContinents();
+		checkNeighbours();
+		checkConnected();
+	}
+
+	/**
+	 * Finds empty continents and countries declared more than once.
+	 */
+	private void checkContinents() {
+		int[] declaredIn = new int[graph.getDeclaredCount()];
+		for(int c=0; c<graph.getContinentCount(); c++) {
+			int size = graph.getContinentSize(c);
+			if(size==0) {
+				fail(Check.EMPTY_CONTINENT, "Continent "+graph.getContinentName(c)+" has no countries");
+			}
+			for(int k=0; k<size; k++) {
+				int id = graph.getContinentCountry(c, k);
+				if(declaredIn[id]>0) {
+					fail(Check.DUPLICATE_COUNTRY, "Country "+graph.getName(id)+" is declared in "
+							+graph.getContinentName(declaredIn[id]-1)+" and again in "+graph.getContinentName(c));
+				}
+				else {
+					declaredIn[id] = c+1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds neighbours that are not declared and neighbour lists that are not symmetric.
+	 * The neighbours of each country are marked, then every country that lists it as a neighbour is looked up,
+	 * using the reversed adjacency, so each pair is only looked at once.
+	 */
+	private void checkNeighbours() {
+		int declared = graph.getDeclaredCount();
+		int[] start = graph.getNeighbourStart();
+		int[] neighbours = graph.getNeighbours();
+		boolean[] reported = new boolean[graph.getCountryCount()];
+		/*reversed adjacency of the declared countries.*/
+		int[] reverseStart = new int[declared+1];
+		for(int i=0; i<declared; i++) {
+			for(int k=start[i]; k<start[i+1]; k++) {
+				int n = neighbours[k];
+				if(n>=declared) {
+					if(!reported[n]) {
+						reported[n] = true;
+						fail(Check.ORPHAN_NEIGHBOUR, "Neighbour "+graph.getName(n)+" of "+graph.getName(i)
+								+" is not a country of any continent");
+					}
+				}
+				else {
+					reverseStart[n+1]++;
+				}
+			}
+		}
+		for(int i=0; i<declared; i++) {
+			reverseStart[i+1] += reverseStart[i];
+		}
+		int[] reverse = new int[reverseStart[declared]];
+		int[] fill = new int[declared];
+		for(int i=0; i<declared; i++) {
+			for(int k=start[i]; k<start[i+1]; k++) {
+				int n = neighbours[k];
+				if(n<declared) {
+					reverse[reverseStart[n] + fill[n]++] = i;
+				}
+			}
+		}
+		/*mark[j]==i+1 while country i is looked at and j is one of its neighbours.*/
+		int[] mark = new int[declared];
+		for(int i=0; i<declared; i++) {
+			for(int k=start[i]; k<start[i+1]; k++) {
+				if(neighbours[k]<declared) {
+					mark[neighbours[k]] = i+1;
+				}
+			}
+			for(int k=reverseStart[i]; k<reverseStart[i+1]; k++) {
+				int from = reverse[k];
+				if(mark[from]!=i+1) {
+					fail(Check.ASYMMETRIC_NEIGHBOUR, "Country "+graph.getName(from)+" has neighbour "+graph.getName(i)
+							+" but "+graph.getName(i)+" does not have neighbour "+graph.getName(from));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks that the map and every continent are connected.
+	 * Neighbours are treated as links in both directions, missing links back are reported by <code>checkNeighbours</code>.
+	 * Two union-find forests are built in the same pass over the neighbours, one with all links and one with the links inside a continent.
+	 */
+	private void checkConnected() {
+		int declared = graph.getDeclaredCount();
+		int[] start = graph.getNeighbourStart();
+		int[] neighbours = graph.getNeighbours();
+		int[] map = new int[declared];
+		int[] continent = new int[declared];
+		for(int i=0; i<declared; i++) {
+			map[i] = i;
+			continent[i] = i;
+		}
+		for(int i=0; i<declared; i++) {
+			for(int k=start[i]; k<start[i+1]; k++) {
+				int n = neighbours[k];
+				if(n<declared) {
+					union(map, i, n);
+					if(graph.getContinent(i)==graph.getContinent(n)) {
+						union(continent, i, n);
+					}
+				}
+			}
+		}
+		for(int i=1; i<declared; i++) {
+			if(find(map, i)!=find(map, 0) && find(map, i)==i) {
+				fail(Check.CONNECTED_MAP, "Country "+graph.getName(i)+" can not be reached from "+graph.getName(0));
+			}
+		}
+		for(int c=0; c<graph.getContinentCount(); c++) {
+			int first = -1;
+			for(int k=0; k<graph.getContinentSize(c); k++) {
+				int id = graph.getContinentCountry(c, k);
+				/*a country declared twice belongs to the continent it was declared in last.*/
+				if(graph.getContinent(id)!=c) {
+					continue;
+				}
+				if(first<0) {
+					first = id;
+				}
+				else if(find(continent, id)!=find(continent, first) && find(continent, id)==id) {
+					fail(Check.CONNECTED_CONTINENT, "Country "+graph.getName(id)+" can not be reached from "
+							+graph.getName(first)+" inside continent "+graph.getContinentName(c));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gives the root of a country in a union-find forest, halving the path on the way.
+	 * @param parent parent of each country.
+	 * @param id id of the country.
+	 * @return id of the root.
+	 */
+	private static int find(int[] parent, int id) {
+		while(parent[id]!=id) {
+			parent[id] = parent[parent[id]];
+			id = parent[id];
+		}
+		return id;
+	}
+
+	/**
+	 * Joins the trees of two countries. The smaller root becomes the root, so the first country of each part stays its root.
+	 * @param parent parent of each country.
+	 * @param a id of a country.
+	 * @param b id of the other country.
+	 */
+	private static void union(int[] parent, int a, int b) {
+		int ra = find(parent, a);
+		int rb = find(parent, b);
+		if(ra<rb) {
+			parent[rb] = ra;
+		}
+		else if(rb<ra) {
+			parent[ra] = rb;
+		}
+	}
+
+	/**
+	 * Records a violation.
+	 * @param check check that failed.
+	 * @param message description of the violation.
+	 */
+	private void fail(Check check, String message) {
+		this.failed.add(check);
+		this.errors.add(message);
+	}
+
+	/**
+	 * Checks if a check passed.
+	 * @param check check to look at.
+	 * @return true if the map has no violation of the check.
+	 */
+	public boolean passed(Check check) {
+		return !this.failed.contains(check);
+	}
+
+	/**
+	 * Checks if the map passed every check.
+	 * @return true if no violation was found.
+	 */
+	public boolean isValid() {
+		return this.failed.isEmpty();
+	}
+
+	/**
+	 * Gives the messages of all violations found, in the order of the checks.
+	 * @return list of violations, empty if the map is valid.
+	 */
+	public ArrayList<String> getErrors() {
+		return this.errors;
+	}
+}
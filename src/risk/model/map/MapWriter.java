@@ -1,8 +1,13 @@
 package risk.model.map;
 
 import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -10,135 +15,120 @@ import java.util.ArrayList;
 
 /**
  * This class writes the map file.
+ * Every territory line is written piece by piece to a buffered writer, so writing is linear in the size of the map.
  * @author Harinder
  * @author jyotsna
  */
 public class MapWriter {
-	
+
+	/**
+	 * Coordinate written for a country that has no coordinates.
+	 */
+	private static final int DEFAULT_COORDINATE = 250;
+
+	/**
+	 * Line separator of map files.
+	 */
+	private static final String NEW_LINE = "\r\n";
+
 	/**
 	 * stores the path of map file
 	 */
 	private String FILENAME;
 
 	/**
-	 * This function implements the file write operation
+	 * This function implements the file write operation.
+	 * The map is written to a new file named after the current date in the data/map folder.
 	 * @param map receives the MapNode with all the map details.
 	 */
 	public void writeMap(ArrayList<MapNode> map) {
-		
+
 		/*Date object for writing the date and time of creation map file*/
 		DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd-HH-mm");
-		
-		/*Stores the Date Object.*/ 
-		Date date = new Date();
-		
+
 		/*FILENAME Stores the file name of the newly created map file.*/
-		FILENAME = System.getProperty("user.dir") + "\\data\\map\\map-"+ dateFormat.format(date) + ".map";
-		
-		/*Stores BufferedWriter object.*/
-		BufferedWriter bw = null;
-		
-		/*Stores FileWriter object.*/
-		FileWriter fw = null;
+		String path = System.getProperty("user.dir") + File.separator + "data" + File.separator + "map"
+				+ File.separator + "map-" + dateFormat.format(new Date()) + ".map";
+		writeMapExisting(map, path);
+	}
 
+	/**
+	 * Function to write to existing map file
+	 * @param map Continent MapNode containing map information
+	 * @param path contains path of existing map file
+	 */
+	public void writeMapExisting(ArrayList<MapNode> map, String path) {
+		FILENAME = path;
+		OutputStream out = null;
 		try {
-			/*mapInfo stores basic map information to be written in map file.*/
-			String mapInfo = "[Map]\r\n" + 
-					"author=Iceworm72\r\n" + 
-					"image=001_I72_Ghtroc 720.bmp\r\n" + 
-					"wrap=no\r\n" + 
-					"scroll=vertical\r\n" + 
-					"warn=no\r\n\r\n";
-			
-			/*FileWriter object for writing character files.*/
-			fw = new FileWriter(FILENAME);
-			
-			/*BufferedReader object to write text to character output stream.*/
-			bw = new BufferedWriter(fw);
-
-			bw.write(mapInfo);
-			bw.write("[Continents]\r\n");
-			for (MapNode node : map){
-				bw.write(node.getContinentName() + "=" + Integer.toString(node.getControlValue()) + "\r\n");
-			}
-			bw.write("\r\n[Territories]\r\n");
-			for (MapNode node : map) {
-				for (CountryNode country : node.getCountries()) {
-					String nCountryNames = "";
-					for (CountryNode nCountry : country.getNeighbourCountries()) {
-						nCountryNames = nCountryNames + "," + nCountry.getCountryName();
-					}
-					bw.write(country.getCountryName()+","+ Integer.toString(250) + "," + Integer.toString(250) + "," +
-							node.getContinentName() + nCountryNames + "\r\n");
-				}
-			}
+			out = new FileOutputStream(FILENAME);
+			writeMap(map, out);
 		} catch (IOException e) {
 			e.printStackTrace();
 		} finally {
 			try {
-				if (bw != null)
-					bw.close();
-
-				if (fw != null)
-					fw.close();
-
+				if (out != null)
+					out.close();
 			} catch (IOException ex) {
 				ex.printStackTrace();
 			}
 		}
-	};
+	}
 
 	/**
-	 * Function to write to existing map file
-	 * @param map Continent MapNode containing map information 
-	 * @param path contains path of existing map file
+	 * Writes a map to a stream as UTF-8. The stream is flushed but not closed.
+	 * @param map Continent MapNode containing map information
+	 * @param out stream the map is written to.
+	 * @throws IOException if the stream can not be written.
 	 */
-	public void writeMapExisting(ArrayList<MapNode> map, String path) {
-		FILENAME = path;
-		BufferedWriter bw = null;
-		FileWriter fw = null;
-
-		try {
-			String mapInfo = "[Map]\r\n" + 
-					"author=Iceworm72\r\n" + 
-					"image=001_I72_Ghtroc 720.bmp\r\n" + 
-					"wrap=no\r\n" + 
-					"scroll=vertical\r\n" + 
-					"warn=no\r\n\r\n";
-
-			fw = new FileWriter(FILENAME);
-			bw = new BufferedWriter(fw);
-			bw.write("");
-			bw.write(mapInfo);
-			bw.write("[Continents]\r\n");
+	public void writeMap(ArrayList<MapNode> map, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writeMap(map, writer);
+		writer.flush();
+	}
 
-			for (MapNode node : map) {
-				bw.write(node.getContinentName() + "=" + Integer.toString(node.getControlValue()) + "\r\n");
+	/**
+	 * Writes a map to a writer. The writer is neither flushed nor closed.
+	 * @param map Continent MapNode containing map information
+	 * @param writer writer the map is written to, should be buffered.
+	 * @throws IOException if the writer can not be written.
+	 */
+	public void writeMap(ArrayList<MapNode> map, Writer writer) throws IOException {
+		/*basic map information.*/
+		writer.write("[Map]" + NEW_LINE +
+				"author=Iceworm72" + NEW_LINE +
+				"image=001_I72_Ghtroc 720.bmp" + NEW_LINE +
+				"wrap=no" + NEW_LINE +
+				"scroll=vertical" + NEW_LINE +
+				"warn=no" + NEW_LINE + NEW_LINE);
+		writer.write("[Continents]" + NEW_LINE);
+		for (MapNode node : map) {
+			writer.write(node.getContinentName());
+			writer.write('=');
+			writer.write(Integer.toString(node.getControlValue()));
+			writer.write(NEW_LINE);
+		}
+		writer.write(NEW_LINE + "[Territories]" + NEW_LINE);
+		for (MapNode node : map) {
+			if (node.getCountryList() == null) {
+				continue;
 			}
-			
-			bw.write("\r\n[Territories]\r\n");
-			for (MapNode node : map) {
-				for (CountryNode country : node.getCountries()) {
-					String nCountryNames = "";
-					for (CountryNode nCountry : country.getNeighbourCountries()) {
-						nCountryNames = nCountryNames + "," + nCountry.getCountryName();
+			for (CountryNode country : node.getCountryList()) {
+				int[] coordinates = country.getCoordinates();
+				writer.write(country.getCountryName());
+				writer.write(',');
+				writer.write(Integer.toString(coordinates != null ? coordinates[0] : DEFAULT_COORDINATE));
+				writer.write(',');
+				writer.write(Integer.toString(coordinates != null ? coordinates[1] : DEFAULT_COORDINATE));
+				writer.write(',');
+				writer.write(node.getContinentName());
+				if (country.getNeighbours() != null) {
+					for (CountryNode nCountry : country.getNeighbours()) {
+						writer.write(',');
+						writer.write(nCountry.getCountryName());
 					}
-					bw.write(country.getCountryName()+","+ Integer.toString(250) + "," + Integer.toString(250) + "," +
-							node.getContinentName() + nCountryNames + "\r\n");
 				}
-			}
-		} catch (IOException e) {
-			e.printStackTrace();
-		} finally {
-			try {
-				if (bw != null)
-					bw.close();
-
-				if (fw != null)
-					fw.close();
-
-			} catch (IOException ex) {
-				ex.printStackTrace();
+				writer.write(NEW_LINE);
 			}
 		}
 	}
@@ -150,4 +140,4 @@ public class MapWriter {
 	public String getMapFilePath() {
 		return FILENAME;
 	}
-}
\ No newline at end of file
+}
@@ -4,11 +4,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Observable;
-import java.util.Random;
 
 import risk.model.gamemode.GameDriver;
 import risk.model.map.CountryNode;
 import risk.model.turnmanager.TurnManager;
+import risk.model.util.GameEvent.Level;
 
 /**
  * Class for Aggressive player that implements the PlayerStrategy interface.
@@ -43,7 +43,7 @@ public class AggressiveStrategy implements PlayerStrategy {
 	@Override
 	public void reinforcementPhase(int armies, String[] countryList) {
 		reinforcement(armies,countryList);
-		driver.nottifyObservers("Armies moved according to Aggresive Strategy reinforcement");
+		driver.log(Level.INFO, "Armies moved according to Aggresive Strategy reinforcement");
 		driver.changePhase();
 		
 	}
@@ -65,15 +65,8 @@ public class AggressiveStrategy implements PlayerStrategy {
 		CountryNode aCountry = countries.get(0);
 		
 		/*randomly select a country to be attacked.*/
-		CountryNode dCountry = null;
-		Collections.shuffle(aCountry.getNeighbours());
-		for (CountryNode neighbour : aCountry.getNeighbours()) {
-			if (!neighbour.getOwner().getName().equals(driver.getCurrentPlayer().getName())) {
-				dCountry = neighbour;
-				break;
-			}
-		}
-		driver.nottifyObservers("Attack: Attacker: "+ aCountry.getCountryName()+ "Defender: "+dCountry.getCountryName());
+		CountryNode dCountry = EnemyNeighbour.pick(aCountry, driver.getCurrentPlayer(), driver.getRandom());
+		driver.log(Level.INFO, "Attack: Attacker: {}Defender: {}", aCountry.getCountryName(), dCountry.getCountryName());
 		driver.announceAttack(aCountry.getCountryName(), dCountry.getCountryName());
 	}
 
@@ -84,7 +77,7 @@ public class AggressiveStrategy implements PlayerStrategy {
 	@Override
 	public void fortificationPhase(ArrayList<String> countryList) {
 		fortify(countryList);
-		driver.nottifyObservers("Armies moved according to Aggresive Strategy fortification");
+		driver.log(Level.INFO, "Armies moved according to Aggresive Strategy fortification");
 		driver.changePhase();
 	}
 
@@ -93,7 +86,15 @@ public class AggressiveStrategy implements PlayerStrategy {
 	 */
 	@Override
 	public String placeArmy(String[] strings, String string) {
-		return strings[new Random().nextInt(strings.length)];
+		return strings[driver.getRandom().nextInt(strings.length)];
+	}
+
+	/**
+	 * Distribute all armies in startup phase, countries with no army first.
+	 */
+	@Override
+	public int[] placeArmies(String[] countries, int[] countryArmies, int armies, String name) {
+		return ArmyPlacement.random(driver.getRandom(), countryArmies, armies);
 	}
 
 	/**
@@ -122,7 +123,7 @@ public class AggressiveStrategy implements PlayerStrategy {
 	 * {@inheritDoc}
 	 */
 	public int moveArmies(int aArmies, int maxArmies, String message) {
-		return new Random().nextInt(maxArmies+1-aArmies) + aArmies;
+		return driver.getRandom().nextInt(maxArmies+1-aArmies) + aArmies;
 	}
 	
 	/**
@@ -175,5 +176,4 @@ public class AggressiveStrategy implements PlayerStrategy {
 		return "aggressive";
 	}
 
-
 }
@@ -0,0 +1,55 @@
+package risk.model.player;
+
+import java.util.Random;
+
+/**
+ * Startup army placement shared by the computer strategies.
+ * It gives the same result as placing the armies one at a time on a random country,
+ * choosing among the countries with no army while there are any, but works out the whole allocation in one pass.
+ */
+final class ArmyPlacement {
+
+	/**
+	 * Private constructor, all methods are static.
+	 */
+	private ArmyPlacement() {}
+
+	/**
+	 * Places armies on random countries, countries with no army get one army first.
+	 * @param rand random generator of the game.
+	 * @param countryArmies armies already on each country.
+	 * @param armies armies to be placed.
+	 * @return armies to be added to each country, in the same order as <code>countryArmies</code>.
+	 */
+	static int[] random(Random rand, int[] countryArmies, int armies) {
+		int n = countryArmies.length;
+		int[] placed = new int[n];
+		if(n==0) {
+			return placed;
+		}
+		/*indices of the countries with no army, picked in random order by a partial shuffle.*/
+		int[] empty = new int[n];
+		int emptyCount = 0;
+		for(int i=0; i<n; i++) {
+			if(countryArmies[i]==0) {
+				empty[emptyCount++] = i;
+			}
+		}
+		int k = 0;
+		while(armies>0 && k<emptyCount) {
+			int j = k + rand.nextInt(emptyCount-k);
+			int t = empty[j];
+			empty[j] = empty[k];
+			empty[k] = t;
+			placed[t]++;
+			k++;
+			armies--;
+		}
+		/*the rest goes to any country.*/
+		while(armies>0) {
+			placed[rand.nextInt(n)]++;
+			armies--;
+		}
+		return placed;
+	}
+}
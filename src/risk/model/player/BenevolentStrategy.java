@@ -3,7 +3,6 @@ package risk.model.player;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Random;
 
 import risk.model.gamemode.GameDriver;
 import risk.model.map.CountryNode;
@@ -66,7 +65,15 @@ public class BenevolentStrategy implements PlayerStrategy {
 	 */
 	@Override
 	public String placeArmy(String[] strings, String string) {
-		return strings[new Random().nextInt(strings.length)];
+		return strings[driver.getRandom().nextInt(strings.length)];
+	}
+
+	/**
+	 * Distribute all armies in startup phase, countries with no army first.
+	 */
+	@Override
+	public int[] placeArmies(String[] countries, int[] countryArmies, int armies, String name) {
+		return ArmyPlacement.random(driver.getRandom(), countryArmies, armies);
 	}
 	
 	/**
@@ -97,7 +104,7 @@ public class BenevolentStrategy implements PlayerStrategy {
 	 * {@inheritDoc}
 	 */
 	public int moveArmies(int aArmies, int maxArmies, String message) {
-		return new Random().nextInt(maxArmies+1-aArmies) + aArmies;
+		return driver.getRandom().nextInt(maxArmies+1-aArmies) + aArmies;
 	}
 	
 	/**
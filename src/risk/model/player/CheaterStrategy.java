@@ -1,10 +1,10 @@
 package risk.model.player;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import risk.model.gamemode.GameDriver;
 import risk.model.map.CountryNode;
+import risk.model.util.GameEvent.Level;
 
 /**
  * Class for Cheater player that implements the PlayerStrategy interface.
@@ -33,7 +33,7 @@ public class CheaterStrategy implements PlayerStrategy {
 	@Override
 	public void reinforcementPhase(int armies, String[] countryList) {
 		reinforcement(countryList);
-		driver.nottifyObservers("Cheater player has doubled the armies of all its countries in Reinforcement phase");
+		driver.log(Level.INFO, "Cheater player has doubled the armies of all its countries in Reinforcement phase");
 		driver.changePhase();
 
 	}
@@ -54,7 +54,7 @@ public class CheaterStrategy implements PlayerStrategy {
 					else {
 						Player defender = neighbour.getOwner();
 						neighbour.setOwner(aCountry.getOwner());
-						driver.nottifyObservers("Country "+neighbour.getCountryName()+" won by player "+driver.getCurrentPlayer());
+						driver.log(Level.INFO, "Country {} won by player {}", neighbour.getCountryName(), driver.getCurrentPlayer());
 						driver.setPlayerOut(defender);
 					}
 				}
@@ -71,7 +71,7 @@ public class CheaterStrategy implements PlayerStrategy {
 	@Override
 	public void fortificationPhase(ArrayList<String> countryList) {
 		fortify(countryList);
-		driver.nottifyObservers("Cheater player has doubled the armies of its countries with diffrent owner of neighbouring countries");
+		driver.log(Level.INFO, "Cheater player has doubled the armies of its countries with diffrent owner of neighbouring countries");
 		driver.changePhase();
 	}
 
@@ -80,7 +80,15 @@ public class CheaterStrategy implements PlayerStrategy {
 	 */
 	@Override
 	public String placeArmy(String[] strings, String string) {
-		return strings[new Random().nextInt(strings.length)];
+		return strings[driver.getRandom().nextInt(strings.length)];
+	}
+
+	/**
+	 * Distribute all armies in startup phase, countries with no army first.
+	 */
+	@Override
+	public int[] placeArmies(String[] countries, int[] countryArmies, int armies, String name) {
+		return ArmyPlacement.random(driver.getRandom(), countryArmies, armies);
 	}
 
 	/**
@@ -96,7 +104,7 @@ public class CheaterStrategy implements PlayerStrategy {
 	 * {@inheritDoc}
 	 */
 	public int moveArmies(int aArmies, int maxArmies, String message) {
-		return new Random().nextInt(maxArmies+1-aArmies) + aArmies;
+		return driver.getRandom().nextInt(maxArmies+1-aArmies) + aArmies;
 	}
 	
 	/**
@@ -0,0 +1,14 @@
+package risk.model.player;
+
+/**
+ * Strategy that can cut its own search short to finish a decision before a deadline.
+ * TimedStrategy gives the deadline before every decision.
+ */
+public interface DeadlineAware {
+
+	/**
+	 * Sets the time by which the next decision has to be made.
+	 * @param deadline <code>System.nanoTime</code> at which the decision is due, 0 for no deadline.
+	 */
+	public void setDeadline(long deadline);
+}
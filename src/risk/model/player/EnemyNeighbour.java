@@ -0,0 +1,53 @@
+package risk.model.player;
+
+import java.util.Random;
+
+import risk.model.map.CountryNode;
+
+/**
+ * Choice of the country to attack shared by the computer strategies that attack a random neighbour.
+ */
+final class EnemyNeighbour {
+
+	/**
+	 * Private constructor, all methods are static.
+	 */
+	private EnemyNeighbour() {}
+
+	/**
+	 * Picks a random neighbour of a country owned by another player, every such neighbour has the same chance.
+	 * The neighbour list of the country is not changed. A neighbour with no owner, only named by the map file, is never picked.
+	 * @param country attacking country.
+	 * @param player attacking player.
+	 * @param rand random generator of the game.
+	 * @return neighbour to be attacked, null if all neighbours are owned by the player.
+	 */
+	static CountryNode pick(CountryNode country, Player player, Random rand) {
+		int enemies = 0;
+		for (CountryNode neighbour : country.getNeighbours()) {
+			if (isEnemy(neighbour, player)) {
+				enemies++;
+			}
+		}
+		if (enemies==0) {
+			return null;
+		}
+		int pick = rand.nextInt(enemies);
+		for (CountryNode neighbour : country.getNeighbours()) {
+			if (isEnemy(neighbour, player) && pick--==0) {
+				return neighbour;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Tells if a country is owned by another player.
+	 * @param country country to be checked.
+	 * @param player attacking player.
+	 * @return true if the country can be attacked by the player.
+	 */
+	private static boolean isEnemy(CountryNode country, Player player) {
+		return country.getOwner()!=null && !country.getOwner().getName().equals(player.getName());
+	}
+}
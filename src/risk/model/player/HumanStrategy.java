@@ -58,6 +58,37 @@ public class HumanStrategy implements PlayerStrategy{
 	public String placeArmy(String[] countries, String name) {
 		return (String) driver.placeArmyDialog(countries, name+" Place your army");
 	}
+	
+	/**
+	 * Asks the player for every army, offering the countries with no army while there are any.
+	 * {@inheritDoc}
+	 */
+	public int[] placeArmies(String[] countries, int[] countryArmies, int armies, String name) {
+		int[] placed = new int[countries.length];
+		ArrayList<String> empty = new ArrayList<String>();
+		for(int i=0; i<countries.length; i++) {
+			if(countryArmies[i]==0) {
+				empty.add(countries[i]);
+			}
+		}
+		for(int a=0; a<armies; a++) {
+			String country;
+			if(!empty.isEmpty()) {
+				country = placeArmy(empty.toArray(new String[empty.size()]), name);
+				empty.remove(country);
+			}
+			else {
+				country = placeArmy(countries, name);
+			}
+			for(int i=0; i<countries.length; i++) {
+				if(countries[i].equals(country)) {
+					placed[i]++;
+					break;
+				}
+			}
+		}
+		return placed;
+	}
 
 	/**
 	 * {@inheritDoc}
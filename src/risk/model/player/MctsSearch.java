@@ -0,0 +1,459 @@
+package risk.model.player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import risk.model.gamemode.GameState;
+import risk.model.map.MapGraph;
+import risk.model.util.GameRandom;
+
+/**
+ * Monte Carlo tree search used by MctsStrategy.
+ * The tree holds the decisions of the current player for the rest of its turn: the choices of the current phase are
+ * the children of the root, and every follow-up decision of the same turn (the next attack, the end of the attacks,
+ * the fortification) is expanded below the move that leads to it, one new node per iteration. Each node chooses among
+ * its moves with UCB1. Once the turn is over, or a new node has been added, the iteration goes on with a fast random
+ * rollout of one turn for each player and the score of the position reached is backed up along the path.
+ * Dice make the state below a move differ from one iteration to the next, so the tree is open loop: a node keeps the
+ * moves listed the first time it was reached, and a move that is no longer legal ends the descent.
+ * Rollouts run on copy on write forks and are taken back with the journal, and the iterations are split among worker
+ * threads that each grow their own tree, the statistics of the root moves are added up (root parallelization).
+ * The bytes the workers allocate are added to the thread that asked for the search, see ThreadAllocation.
+ * An action is a pair of country ids: the country to reinforce, attack from or fortify from, and the target country,
+ * a first id of <code>NONE</code> ends the phase.
+ */
+final class MctsSearch {
+
+	/**
+	 * First id of the action that ends the phase.
+	 */
+	static final int NONE = -1;
+
+	/**
+	 * Most actions looked at in one phase, the most promising are kept.
+	 */
+	static final int MAX_ACTIONS = 16;
+
+	/**
+	 * Exploration constant of UCB1 for rewards between 0 and 1.
+	 */
+	private static final double EXPLORATION = Math.sqrt(2);
+
+	/**
+	 * Most attacks played by a rollout in one attack phase.
+	 */
+	private static final int ROLLOUT_ATTACKS = 3;
+
+	/**
+	 * Most decisions of one turn kept in the tree, the root included.
+	 */
+	private static final int MAX_DEPTH = 8;
+
+	/**
+	 * Threads shared by every search, created when first needed.
+	 */
+	private static ExecutorService pool;
+
+	/**
+	 * Private constructor, all methods are static.
+	 */
+	private MctsSearch() {}
+
+	/**
+	 * Decision of the searching player in the tree.
+	 */
+	private static final class Node {
+
+		/**
+		 * Actions listed when the node was added, as pairs of country ids.
+		 */
+		final int[] actions;
+
+		/**
+		 * Number of plays of each action followed by the total reward of each action.
+		 */
+		final double[] stats;
+
+		/**
+		 * Node reached by each action, null until it is added.
+		 */
+		final Node[] children;
+
+		/**
+		 * Number of iterations that went through this node.
+		 */
+		int visits;
+
+		/**
+		 * Creates a node that has not been visited.
+		 * @param newActions actions of the node.
+		 */
+		Node(int[] newActions) {
+			this.actions = newActions;
+			this.stats = new double[newActions.length];
+			this.children = new Node[newActions.length/2];
+		}
+	}
+
+	/**
+	 * Gives the threads shared by all searches, one per processor. The threads do not keep the program running.
+	 * @return thread pool.
+	 */
+	private static synchronized ExecutorService getPool() {
+		if(pool==null) {
+			pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "mcts-worker");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return pool;
+	}
+
+	/**
+	 * Lists the actions of the current player in the current phase.
+	 * Reinforcement puts all armies on one country next to an enemy, attack goes on until the target is taken or
+	 * the attacker is down to one army, fortification moves all but one army to a neighbouring country.
+	 * Attacks and fortifications are sorted by the armies involved and at most <code>MAX_ACTIONS</code> are kept.
+	 * @param state state of the game.
+	 * @return pairs of country ids, the action ending the phase included except in reinforcement.
+	 */
+	static int[] actions(final GameState state) {
+		MapGraph graph = state.getGraph();
+		int p = state.getCurrentPlayer();
+		int phase = state.getPhase();
+		final ArrayList<int[]> moves = new ArrayList<int[]>();
+		for(int i=0; i<graph.getDeclaredCount(); i++) {
+			if(state.getOwner(i)!=p) {
+				continue;
+			}
+			boolean border = false;
+			for(int k=0; k<graph.getNeighbourCount(i); k++) {
+				int n = graph.getNeighbour(i, k);
+				border |= state.getOwner(n)!=p && state.getOwner(n)>=0;
+				if(phase==GameState.ATTACK && state.canAttack(i, n)) {
+					moves.add(new int[] {i, n, state.getArmies(i)-state.getArmies(n)});
+				}
+				else if(phase==GameState.FORTIFICATION && state.getOwner(n)==p && state.getArmies(i)>1) {
+					moves.add(new int[] {i, n, state.getArmies(i)});
+				}
+			}
+			if(phase==GameState.REINFORCEMENT && border) {
+				moves.add(new int[] {i, NONE, -state.getArmies(i)});
+			}
+		}
+		Collections.sort(moves, new Comparator<int[]>() {
+			@Override
+			public int compare(int[] a, int[] b) {
+				return Integer.compare(b[2], a[2]);
+			}
+		});
+		int count = Math.min(MAX_ACTIONS, moves.size());
+		boolean end = phase!=GameState.REINFORCEMENT || count==0;
+		int[] actions = new int[2*(count + (end ? 1 : 0))];
+		int k = 0;
+		if(end) {
+			actions[k++] = NONE;
+			actions[k++] = NONE;
+		}
+		for(int i=0; i<count; i++) {
+			actions[k++] = moves.get(i)[0];
+			actions[k++] = moves.get(i)[1];
+		}
+		return actions;
+	}
+
+	/**
+	 * Finds the best action of the current player.
+	 * @param root state of the game, it is not changed.
+	 * @param actions actions given by <code>actions</code>.
+	 * @param deadline <code>System.nanoTime</code> at which the search stops, 0 for no time limit.
+	 * @param iterations number of iterations, 0 for no limit.
+	 * @param threads number of threads the iterations are split among.
+	 * @param rand random generator, each thread gets a generator split from it.
+	 * @return index of the chosen action, the one played most often.
+	 */
+	static int search(GameState root, final int[] actions, final long deadline, int iterations, int threads, GameRandom rand) {
+		final int count = actions.length/2;
+		if(count==1) {
+			return 0;
+		}
+		double[] stats = new double[2*count];
+		if(threads<=1) {
+			stats = run(root.fork(), actions, deadline, iterations, rand.split());
+		}
+		else {
+			List<Callable<double[]>> tasks = new ArrayList<Callable<double[]>>();
+			final long[] workerBytes = new long[threads];
+			for(int t=0; t<threads; t++) {
+				final int worker = t;
+				final GameState fork = root.fork();
+				final GameRandom workerRandom = rand.split();
+				final int workerIterations = iterations<=0 ? 0 : (iterations + threads - 1 - t)/threads;
+				tasks.add(new Callable<double[]>() {
+					@Override
+					public double[] call() {
+						long before = ThreadAllocation.own();
+						double[] own = run(fork, actions, deadline, workerIterations, workerRandom);
+						workerBytes[worker] = before<0 ? 0 : ThreadAllocation.own()-before;
+						return own;
+					}
+				});
+			}
+			try {
+				for(Future<double[]> f : getPool().invokeAll(tasks)) {
+					double[] own = f.get();
+					for(int i=0; i<stats.length; i++) {
+						stats[i] += own[i];
+					}
+				}
+				/*the workers are done, their bytes are charged to the thread that asked for the search.*/
+				for(long bytes : workerBytes) {
+					ThreadAllocation.addHelped(bytes);
+				}
+			}catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}catch(ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+		int best = 0;
+		for(int a=1; a<count; a++) {
+			if(stats[a]>stats[best]) {
+				best = a;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Grows a tree on one thread.
+	 * @param state fork of the root state, taken back to its start after every iteration.
+	 * @param actions actions of the root.
+	 * @param deadline <code>System.nanoTime</code> at which to stop, 0 for no time limit.
+	 * @param iterations number of iterations, 0 for no limit.
+	 * @param rand random generator of this thread.
+	 * @return number of plays of each root action followed by the total reward of each root action.
+	 */
+	private static double[] run(GameState state, int[] actions, long deadline, int iterations, Random rand) {
+		Node root = new Node(actions);
+		Node[] path = new Node[MAX_DEPTH];
+		int[] chosen = new int[MAX_DEPTH];
+		int me = state.getCurrentPlayer();
+		int turns = 0;
+		for(int p=0; p<state.getPlayerCount(); p++) {
+			if(state.getCountryCount(p)>0) {
+				turns++;
+			}
+		}
+		int mark = state.mark();
+		for(int n=0; (iterations<=0 || n<iterations) && (deadline==0 || System.nanoTime()<deadline); n++) {
+			int depth = 0;
+			Node node = root;
+			while(node!=null && depth<MAX_DEPTH) {
+				int a = select(node);
+				int from = node.actions[2*a];
+				int to = node.actions[2*a+1];
+				if(depth>0 && !isLegal(state, from, to)) {
+					break;
+				}
+				apply(state, from, to, rand);
+				path[depth] = node;
+				chosen[depth++] = a;
+				if(state.isGameOver() || state.getCurrentPlayer()!=me) {
+					break;
+				}
+				if(node.children[a]==null) {
+					node.children[a] = new Node(actions(state));
+					break;
+				}
+				node = node.children[a];
+			}
+			for(int t=0; t<turns && !state.isGameOver(); t++) {
+				playTurn(state, rand);
+			}
+			double reward = evaluate(state, me);
+			for(int d=0; d<depth; d++) {
+				Node visited = path[d];
+				int count = visited.children.length;
+				visited.visits++;
+				visited.stats[chosen[d]]++;
+				visited.stats[count+chosen[d]] += reward;
+			}
+			state.undo(mark);
+		}
+		return root.stats;
+	}
+
+	/**
+	 * Selects the action of a node to play next with UCB1, every action is played once first.
+	 * @param node node of the tree.
+	 * @return index of the action.
+	 */
+	private static int select(Node node) {
+		double[] stats = node.stats;
+		int count = node.children.length;
+		int best = 0;
+		double bestValue = -1;
+		double log = Math.log(node.visits+1);
+		for(int a=0; a<count; a++) {
+			if(stats[a]==0) {
+				return a;
+			}
+			double value = stats[count+a]/stats[a] + EXPLORATION*Math.sqrt(log/stats[a]);
+			if(value>bestValue) {
+				bestValue = value;
+				best = a;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Tells if an action listed for an earlier visit of a node can still be played, the dice may have changed the map.
+	 * @param state state of the game.
+	 * @param from country to reinforce, attack from or fortify from, <code>NONE</code> to end the phase.
+	 * @param to target country of attack or fortification.
+	 * @return true if the action can be played.
+	 */
+	private static boolean isLegal(GameState state, int from, int to) {
+		if(from==NONE) {
+			return true;
+		}
+		int p = state.getCurrentPlayer();
+		int phase = state.getPhase();
+		if(phase==GameState.REINFORCEMENT) {
+			return state.getOwner(from)==p;
+		}
+		if(phase==GameState.ATTACK) {
+			return state.canAttack(from, to);
+		}
+		return phase==GameState.FORTIFICATION && state.getOwner(from)==p && state.getOwner(to)==p && state.getArmies(from)>1;
+	}
+
+	/**
+	 * Plays an action of the current phase.
+	 * @param state state of the game.
+	 * @param from country to reinforce, attack from or fortify from, <code>NONE</code> to end the phase.
+	 * @param to target country of attack or fortification.
+	 * @param rand random generator for the dice.
+	 */
+	static void apply(GameState state, int from, int to, Random rand) {
+		int phase = state.getPhase();
+		if(phase==GameState.REINFORCEMENT) {
+			int reserve = state.getReserve(state.getCurrentPlayer());
+			if(from!=NONE && reserve>0) {
+				state.reinforce(from, reserve);
+			}
+			state.endPhase();
+		}
+		else if(phase==GameState.ATTACK && from!=NONE) {
+			if(state.attackUntil(from, to, 1, rand)) {
+				state.occupy(from, to, state.getArmies(from)-1);
+			}
+		}
+		else if(phase==GameState.FORTIFICATION && from!=NONE) {
+			state.fortify(from, to, state.getArmies(from)-1);
+			state.endPhase();
+		}
+		else {
+			state.endPhase();
+		}
+	}
+
+	/**
+	 * Plays the rest of the turn of the current player with a fast random policy:
+	 * all armies on a random country, a few attacks on weaker neighbours, no fortification.
+	 * @param state state of the game.
+	 * @param rand random generator.
+	 */
+	private static void playTurn(GameState state, Random rand) {
+		MapGraph graph = state.getGraph();
+		int p = state.getCurrentPlayer();
+		if(state.getPhase()==GameState.REINFORCEMENT) {
+			int reserve = state.getReserve(p);
+			int seen = 0;
+			int pick = NONE;
+			for(int i=0; i<graph.getDeclaredCount() && reserve>0; i++) {
+				if(state.getOwner(i)==p && rand.nextInt(++seen)==0) {
+					pick = i;
+				}
+			}
+			if(pick!=NONE) {
+				state.reinforce(pick, reserve);
+			}
+			state.endPhase();
+		}
+		if(state.getPhase()==GameState.ATTACK) {
+			for(int n=0; n<ROLLOUT_ATTACKS && state.getWinner()<0; n++) {
+				int seen = 0;
+				int from = NONE;
+				int to = NONE;
+				for(int i=0; i<graph.getDeclaredCount(); i++) {
+					if(state.getOwner(i)!=p || state.getArmies(i)<3) {
+						continue;
+					}
+					for(int k=0; k<graph.getNeighbourCount(i); k++) {
+						int d = graph.getNeighbour(i, k);
+						if(state.getOwner(d)!=p && state.getOwner(d)>=0 && state.getArmies(d)<state.getArmies(i) && rand.nextInt(++seen)==0) {
+							from = i;
+							to = d;
+						}
+					}
+				}
+				if(from==NONE) {
+					break;
+				}
+				if(state.attackUntil(from, to, 1, rand)) {
+					state.occupy(from, to, state.getArmies(from)-1);
+				}
+			}
+			if(state.getWinner()>=0) {
+				return;
+			}
+			state.endPhase();
+		}
+		if(state.getPhase()==GameState.FORTIFICATION) {
+			state.endPhase();
+		}
+	}
+
+	/**
+	 * Scores a state for a player: 1 for a win, 0 once out of the game,
+	 * otherwise the mean of its share of the countries and its share of the armies.
+	 * @param state state of the game.
+	 * @param player player index.
+	 * @return score between 0 and 1.
+	 */
+	static double evaluate(GameState state, int player) {
+		if(state.getWinner()>=0) {
+			return state.getWinner()==player ? 1 : 0;
+		}
+		int countries = state.getCountryCount(player);
+		if(countries==0) {
+			return 0;
+		}
+		int declared = state.getGraph().getDeclaredCount();
+		long armies = 0;
+		long total = 0;
+		for(int i=0; i<declared; i++) {
+			total += state.getArmies(i);
+			if(state.getOwner(i)==player) {
+				armies += state.getArmies(i);
+			}
+		}
+		return 0.5*countries/declared + (total==0 ? 0 : 0.5*armies/total);
+	}
+}
@@ -0,0 +1,196 @@
+package risk.model.player;
+
+import java.util.ArrayList;
+
+import risk.model.gamemode.GameDriver;
+import risk.model.gamemode.GameState;
+import risk.model.util.GameEvent.Level;
+
+/**
+ * Class for a computer player that chooses every move with a Monte Carlo tree search over its own turn, see MctsSearch.
+ * Each decision takes a GameState of the game and searches it until the time budget or the number of iterations
+ * is used up, so the game itself is never changed by the search.
+ * With a time budget of 0 and a fixed number of iterations the player is reproducible with a seeded game.
+ * A deadline given by TimedStrategy shortens the search when it is earlier than the own budget.
+ */
+public class MctsStrategy implements PlayerStrategy, DeadlineAware {
+
+	/**
+	 * Default time budget of one decision in milliseconds.
+	 */
+	public static final long DEFAULT_BUDGET_MILLIS = 20;
+
+	/**
+	 * Number of iterations used when neither a time budget nor a number of iterations is given.
+	 */
+	public static final int DEFAULT_ITERATIONS = 1000;
+
+	/**
+	 * GameDriver instance for mcts player.
+	 */
+	private GameDriver driver;
+
+	/**
+	 * Time budget of one decision in milliseconds, 0 for no time limit.
+	 */
+	private long budgetMillis;
+
+	/**
+	 * Number of iterations of one decision, 0 for no limit.
+	 */
+	private int iterations;
+
+	/**
+	 * Number of threads the iterations are split among.
+	 */
+	private int threads;
+
+	/**
+	 * Time at which the next decision is due, 0 for none.
+	 */
+	private long deadline;
+
+	/**
+	 * Constructor with the default time budget, using every processor.
+	 * @param nDriver GameDriver Instance.
+	 */
+	public MctsStrategy(GameDriver nDriver) {
+		this(nDriver, DEFAULT_BUDGET_MILLIS, 0, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor with a search budget.
+	 * @param nDriver GameDriver Instance.
+	 * @param newBudgetMillis time budget of one decision in milliseconds, 0 for no time limit.
+	 * @param newIterations number of iterations of one decision, 0 for no limit.
+	 * @param newThreads number of threads used by one decision.
+	 */
+	public MctsStrategy(GameDriver nDriver, long newBudgetMillis, int newIterations, int newThreads) {
+		driver = nDriver;
+		budgetMillis = Math.max(0, newBudgetMillis);
+		iterations = Math.max(0, newIterations);
+		threads = Math.max(1, newThreads);
+		if(budgetMillis==0 && iterations==0) {
+			iterations = DEFAULT_ITERATIONS;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setDeadline(long newDeadline) {
+		this.deadline = newDeadline;
+	}
+
+	/**
+	 * Searches the best action of the current phase.
+	 * @return country ids of the action, the first is MctsSearch.NONE to end the phase.
+	 */
+	private int[] decide() {
+		long start = System.nanoTime();
+		long deadline = budgetMillis==0 ? 0 : start + budgetMillis*1000000L;
+		if(this.deadline!=0 && (deadline==0 || this.deadline<deadline)) {
+			deadline = this.deadline;
+		}
+		GameState state = GameState.of(driver);
+		int[] actions = MctsSearch.actions(state);
+		int best = MctsSearch.search(state, actions, deadline, iterations, threads, driver.getRandom());
+		driver.log(Level.DEBUG, "MCTS chose action {} of {} in {} ms", best+1, actions.length/2, (System.nanoTime()-start)/1000000);
+		return new int[] {actions[2*best], actions[2*best+1]};
+	}
+
+	/**
+	 * Gives the name of a country.
+	 * @param id id of the country.
+	 * @return name of the country.
+	 */
+	private String name(int id) {
+		return driver.getMap().getGraph().getName(id);
+	}
+
+	/**
+	 * Reinforcement phase of mcts player that puts all armies on the border country chosen by the search.
+	 * @see risk.model.player.PlayerStrategy#reinforcementPhase(int, java.lang.String[])
+	 */
+	@Override
+	public void reinforcementPhase(int armies, String[] countryList) {
+		int[] action = decide();
+		String country = action[0]==MctsSearch.NONE ? countryList[0] : name(action[0]);
+		driver.getCurrentPlayer().shiftArmiesOnReinforcement(country, armies);
+		driver.log(Level.INFO, "MCTS player reinforced {} with {} armies", country, armies);
+		driver.changePhase();
+	}
+
+	/**
+	 * Attack phase: mcts player attacks until the target is taken, or ends the phase, as chosen by the search.
+	 * @see risk.model.player.PlayerStrategy#attackPhase(java.util.ArrayList)
+	 */
+	@Override
+	public void attackPhase(ArrayList<String> countryList) {
+		int[] action = decide();
+		if(action[0]==MctsSearch.NONE) {
+			driver.log(Level.INFO, "MCTS player ends attack");
+			driver.changePhase();
+		}
+		else {
+			driver.log(Level.INFO, "Attack: Attacker: {}Defender: {}", name(action[0]), name(action[1]));
+			driver.attackUntil(name(action[0]), name(action[1]), 1);
+		}
+	}
+
+	/**
+	 * Fortification phase of mcts player: moves all but one army between two countries, or none, as chosen by the search.
+	 * @see risk.model.player.PlayerStrategy#fortificationPhase(java.util.ArrayList)
+	 */
+	@Override
+	public void fortificationPhase(ArrayList<String> countryList) {
+		int[] action = decide();
+		if(action[0]!=MctsSearch.NONE) {
+			int armies = driver.getMap().getCountry(action[0]).getArmiesCount()-1;
+			driver.getCurrentPlayer().getArmiesShiftedAfterFortification(name(action[0]), name(action[1]), armies);
+			driver.log(Level.INFO, "MCTS player moved {} armies from {} to {}", armies, name(action[0]), name(action[1]));
+		}
+		driver.changePhase();
+	}
+
+	/**
+	 * Distribute armies in startup phase.
+	 */
+	@Override
+	public String placeArmy(String[] strings, String string) {
+		return strings[driver.getRandom().nextInt(strings.length)];
+	}
+
+	/**
+	 * Distribute all armies in startup phase, countries with no army first.
+	 */
+	@Override
+	public int[] placeArmies(String[] countries, int[] countryArmies, int armies, String name) {
+		return ArmyPlacement.random(driver.getRandom(), countryArmies, armies);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int selectDiceNumber(int diceToRoll, String pName) {
+		return diceToRoll;
+	}
+
+	/**
+	 * Moves every army but one into a conquered country, as the search expects.
+	 */
+	@Override
+	public int moveArmies(int aArmies, int maxArmies, String message) {
+		return maxArmies;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getStrategyName() {
+		return "mcts";
+	}
+}
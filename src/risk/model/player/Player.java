@@ -1,11 +1,14 @@
 package risk.model.player;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 
 import risk.model.Card;
 import risk.model.gamemode.GameDriver;
 import risk.model.map.CountryNode;
 import risk.model.map.MapNode;
+import risk.model.util.GameEvent.Level;
 
 /**
  * This class represent the player.
@@ -24,11 +27,26 @@ public class Player {
 	 */
 	private ArrayList<CountryNode> countries;
 	
+	/**
+	 * Index of the countries owned by player by country name, kept in sync with <code>countries</code>.
+	 */
+	private HashMap<String, CountryNode> countryIndex;
+	
 	/**
 	 * list of continents owned by player.
 	 */
 	private ArrayList<MapNode> continents;
 	
+	/**
+	 * Number of countries owned by player in each continent, updated when countries are added or removed.
+	 */
+	private IdentityHashMap<MapNode, int[]> continentCounts;
+	
+	/**
+	 * Armies in the countries owned by player, updated when countries are added or removed and when their armies change.
+	 */
+	private int armiesOnMap;
+	
 	/**
 	 * list of cards player has.
 	 */
@@ -98,7 +116,9 @@ public class Player {
 		this.name = name;
 		this.driver = nDriver;
 		this.countries = new ArrayList<CountryNode>();
+		this.countryIndex = new HashMap<String, CountryNode>();
 		this.continents = new ArrayList<MapNode>();
+		this.continentCounts = new IdentityHashMap<MapNode, int[]>();
 		this.cards = new ArrayList<Card>();
 	}
 	
@@ -144,6 +164,11 @@ public class Player {
 	 */
 	public void addCountry(CountryNode country) {
 		this.countries.add(country);
+		if(!this.countryIndex.containsKey(country.getCountryName())) {
+			this.countryIndex.put(country.getCountryName(), country);
+			countContinent(country.getContinent(), 1);
+			this.armiesOnMap += country.getArmiesCount();
+		}
 		if(country.getOwner()!=this) {
 			country.setOwner(this);
 		}
@@ -165,7 +190,6 @@ public class Player {
 		String[] names = new String[this.countries.size()];
 		for(int i=0;i<names.length;i++){
 			names[i] = this.countries.get(i).getCountryName();
-			System.out.println(names[i]);
 		}
 		return names;
 	}
@@ -188,7 +212,22 @@ public class Player {
 	 * @param country Country object to be removed from list
 	 */
 	public void removeCountry(CountryNode country) {
-		this.countries.remove(country);
+		if(this.countries.remove(country)) {
+			CountryNode removed = this.countryIndex.remove(country.getCountryName());
+			if(removed!=null) {
+				countContinent(removed.getContinent(), -1);
+				this.armiesOnMap -= removed.getArmiesCount();
+			}
+		}
+	}
+	
+	/**
+	 * Checks if player owns a country.
+	 * @param country country to be checked.
+	 * @return true if country is in the list of countries owned by player.
+	 */
+	public boolean ownsCountry(CountryNode country) {
+		return this.countryIndex.containsKey(country.getCountryName());
 	}
 	
 	/**
@@ -199,6 +238,22 @@ public class Player {
 		this.cards.add(card);
 	}
 
+	/**
+	 * Gives the number of the next card exchange, the exchange gives 5 times this number of armies.
+	 * @return card exchange number.
+	 */
+	public int getCardsUsedCount() {
+		return this.cardsUsedCount;
+	}
+	
+	/**
+	 * Sets the number of the next card exchange, used when a saved game is loaded.
+	 * @param count card exchange number.
+	 */
+	public void setCardsUsedCount(int count) {
+		this.cardsUsedCount = count;
+	}
+
 	/**
 	 * Removes the card from the list of cards.
 	 * @param card card to be removed from list. 
@@ -212,6 +267,11 @@ public class Player {
 	 * @param continent continent to be added to list of continent owned by player.
 	 */
 	public void addContinent(MapNode continent) {
+		for(MapNode m : this.continents) {
+			if(m==continent) {
+				return;
+			}
+		}
 		this.continents.add(continent);
 	}
 	
@@ -224,26 +284,86 @@ public class Player {
 	}
 	
 	/**
-	 * Checks for the continents owned by the player.
+	 * Checks if player owns every country of a continent.
+	 * @param continent continent to be checked.
+	 * @return true if all countries of the continent are owned by player.
+	 */
+	public boolean ownsContinent(MapNode continent) {
+		if(continent==null) {
+			return false;
+		}
+		int[] count = this.continentCounts.get(continent);
+		return count!=null && count[0]==continent.getCountriesCount();
+	}
+	
+	/**
+	 * Updates the number of countries owned in a continent and the list of continents owned by player.
+	 * @param continent continent of the country added or removed.
+	 * @param change 1 if a country was added, -1 if it was removed.
+	 */
+	private void countContinent(MapNode continent, int change) {
+		if(continent==null) {
+			return;
+		}
+		boolean owned = ownsContinent(continent);
+		int[] count = this.continentCounts.get(continent);
+		if(count==null) {
+			count = new int[1];
+			this.continentCounts.put(continent, count);
+		}
+		count[0] += change;
+		if(!owned && ownsContinent(continent)) {
+			addContinent(continent);
+		}
+		else if(owned && !ownsContinent(continent)) {
+			removeContinent(continent);
+		}
+	}
+	
+	/**
+	 * Recounts the continents owned by the player and the armies on the map from the list of countries.
+	 * Only needed if the continents of the countries are changed after the countries are owned,
+	 * otherwise the counts are kept up to date by <code>addCountry</code> and <code>removeCountry</code>.
 	 */
 	public void checkContinent() {
-		for (MapNode continent : this.mapData) {
-			System.out.println("Inside ForLoop");
-			System.out.println(continent.getContinentName());
-			if (this.countries.containsAll(continent.getCountryList())) {
-				System.out.println("Inside If Stametment");
-				addContinent(continent);
-				System.out.println("Added" + continent.getContinentName());
-			}
+		this.continentCounts.clear();
+		this.continents.clear();
+		this.armiesOnMap = 0;
+		for(CountryNode c : this.countryIndex.values()) {
+			countContinent(c.getContinent(), 1);
+			this.armiesOnMap += c.getArmiesCount();
 		}
 	}
 	
+	/**
+	 * Updates the armies on the map after the armies of a country changed, called by the country on its owner.
+	 * @param change armies added, negative if armies were removed.
+	 */
+	public void countryArmiesChanged(int change) {
+		this.armiesOnMap += change;
+	}
+	
+	/**
+	 * Gives the number of continents held by player.
+	 * @return number of continents owned entirely.
+	 */
+	public int getContinentCount() {
+		return this.continents.size();
+	}
+	
+	/**
+	 * Gives the armies in all the countries owned by player, kept up to date without walking the countries.
+	 * @return armies on the map.
+	 */
+	public int getArmiesOnMap() {
+		return this.armiesOnMap;
+	}
+	
 	/**
 	 * Calculates the armies to be alloted to the player at each turn.
 	 * @return army count
 	 */
 	public int getArmies() {
-		checkContinent();
 		int countriesCount = this.countries.size();
 		int continentsCount = this.continents.size();
 		int cardsCount = this.cards.size();
@@ -254,11 +374,10 @@ public class Player {
 		if (continentsCount > 0) {
 			continentsCount = 0;
 			for (MapNode continent : this.continents){
-				continentsCount =+ continent.getControlValue();
+				continentsCount += continent.getControlValue();
 			}
 		}
 		armyCount += continentsCount;
-		System.out.println(armyCount);
 		
 		return armyCount;
 	}
@@ -293,7 +412,7 @@ public class Player {
 	 * @return country node matching the string 
 	 */
 	public CountryNode getCountry(String newCountry) {
-		return CountryNode.getCountry(countries, newCountry);
+		return this.countryIndex.get(newCountry);
 	}
 	
 	/**
@@ -330,7 +449,6 @@ public class Player {
 	 * This method runs the reinforcement phase
 	 */
 	public void reinforcementPhase(){
-		System.out.print("Checkpoint 1");
 		strategy.reinforcementPhase(armiesCount, getCountriesNames());
 	}
 	
@@ -341,7 +459,7 @@ public class Player {
 		ArrayList<String> countriesList = new ArrayList<String>();
 		for(CountryNode c : this.countries) {
 			if(c.getArmiesCount()>1) {
-				for(CountryNode n: c.getNeighbourCountries()) {
+				for(CountryNode n: c.getNeighbours()) {
 					if(!n.getOwner().equals(this)) {
 						countriesList.add(c.getCountryName());
 						break;
@@ -364,7 +482,7 @@ public class Player {
 		ArrayList<String> countriesList = new ArrayList<String>();
 		for(CountryNode c : this.countries) {
 			if(c.getArmiesCount()>1) {
-				for(CountryNode n: c.getNeighbourCountries()) {
+				for(CountryNode n: c.getNeighbours()) {
 					if(n.getOwner().equals(this)) {
 						countriesList.add(c.getCountryName());
 						break;
@@ -680,15 +798,28 @@ public class Player {
 	}
 
 	/**
-	 * Startup phase army distribution.
-	 * @return country on which the army is to be placed. 
-	 */
-	public String placeArmyOnStartUp() {
-		if(getCountriesNamesNoArmy().length!=0){
-			return this.strategy.placeArmy(getCountriesNamesNoArmy(), getName());
-		}else{
-			return this.strategy.placeArmy(getCountriesNames(), getName());
+	 * Startup phase army distribution of all armies at once.
+	 * The strategy chooses the whole allocation in one call, then the armies are added to the countries.
+	 * @param armies number of armies to be placed.
+	 */
+	public void placeArmiesOnStartUp(int armies) {
+		String[] names = getCountriesNames();
+		int[] countryArmies = new int[names.length];
+		for(int i=0; i<names.length; i++) {
+			countryArmies[i] = this.countries.get(i).getArmiesCount();
+		}
+		int[] placed = this.strategy.placeArmies(names, countryArmies, armies, getName());
+		int total = 0;
+		for(int i=0; i<names.length; i++) {
+			if(placed[i]>0) {
+				this.countries.get(i).addArmy(placed[i]);
+				total += placed[i];
+				if(driver!=null) {
+					driver.log(Level.DEBUG, "{} placed {} armies on {}", getName(), placed[i], names[i]);
+				}
+			}
 		}
+		removeArmies(total);
 	}
 	
 	/**
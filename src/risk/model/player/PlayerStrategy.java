@@ -34,6 +34,16 @@ public interface PlayerStrategy {
 	 */
 	public String placeArmy(String[] strings, String string);
 	
+	/**
+	 * This method implements the player choosing where to place all its armies of the startup phase at once.
+	 * @param countries list of countries player owns
+	 * @param countryArmies armies already placed on each country
+	 * @param armies number of armies to be placed
+	 * @param name name of the player
+	 * @return number of armies to be added to each country, in the same order as countries
+	 */
+	public int[] placeArmies(String[] countries, int[] countryArmies, int armies, String name);
+	
 	/**
 	 * Player selecting number of dice to roll in attack phase as either attacker or defender
 	 * @param diceToRoll max number of dice plaer can roll
@@ -1,12 +1,11 @@
 package risk.model.player;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Random;
 
 import risk.model.gamemode.GameDriver;
 import risk.model.map.CountryNode;
 import risk.model.turnmanager.TurnManager;
+import risk.model.util.GameEvent.Level;
 
 /**
  * Class for Random player that implements the PlayerStrategy interface.
@@ -53,7 +52,7 @@ public class RandomStrategy implements PlayerStrategy {
 	public void reinforcementPhase(int armies, String[] countryList) {
 		countAttacks = 0;
 		reinforcement(armies, countryList);
-		driver.nottifyObservers("Random Player has reinforced a random country");
+		driver.log(Level.INFO, "Random Player has reinforced a random country");
 		driver.changePhase();
 	}
 
@@ -63,21 +62,14 @@ public class RandomStrategy implements PlayerStrategy {
 	 */
 	@Override
 	public void attackPhase(ArrayList<String> countryList) {
-		CountryNode randomCountry = driver.getCountry(countryList.get(new Random().nextInt(countryList.size())));
+		CountryNode randomCountry = driver.getCountry(countryList.get(driver.getRandom().nextInt(countryList.size())));
 		if(randomCountry.getArmiesCount() > 1 && randomAttacknumber > countAttacks){
 			countAttacks++;
 			CountryNode aCountry = randomCountry;
 			
 			/*randomly select a country to be attacked.*/
-			CountryNode dCountry = null;
-			Collections.shuffle(aCountry.getNeighbours());
-			for (CountryNode neighbour : aCountry.getNeighbours()) {
-				if (!neighbour.getOwner().getName().equals(driver.getCurrentPlayer().getName())) {
-					dCountry = neighbour;
-					break;
-				}
-			}
-			driver.nottifyObservers("Attack: Attacker: "+ aCountry.getCountryName()+ "Defender: "+dCountry.getCountryName());
+			CountryNode dCountry = EnemyNeighbour.pick(aCountry, driver.getCurrentPlayer(), driver.getRandom());
+			driver.log(Level.INFO, "Attack: Attacker: {}Defender: {}", aCountry.getCountryName(), dCountry.getCountryName());
 			driver.announceAttack(aCountry.getCountryName(), dCountry.getCountryName());
 		}		
 		else{
@@ -94,7 +86,7 @@ public class RandomStrategy implements PlayerStrategy {
 	@Override
 	public void fortificationPhase(ArrayList<String> countryList) {
 		fortify(countryList);
-		driver.nottifyObservers("Random player has fortified a random country");
+		driver.log(Level.INFO, "Random player has fortified a random country");
 		driver.changePhase();
 	}
 
@@ -102,7 +94,15 @@ public class RandomStrategy implements PlayerStrategy {
 	 * Distribute armies in startup phase.
 	 */
 	public String placeArmy(String[] strings, String string) {
-		return strings[new Random().nextInt(strings.length)];
+		return strings[driver.getRandom().nextInt(strings.length)];
+	}
+
+	/**
+	 * Distribute all armies in startup phase, countries with no army first.
+	 */
+	@Override
+	public int[] placeArmies(String[] countries, int[] countryArmies, int armies, String name) {
+		return ArmyPlacement.random(driver.getRandom(), countryArmies, armies);
 	}
 
 	/**
@@ -116,7 +116,7 @@ public class RandomStrategy implements PlayerStrategy {
 	 * {@inheritDoc}
 	 */
 	public int moveArmies(int aArmies, int maxArmies, String message) {
-		return new Random().nextInt(maxArmies+1-aArmies) + aArmies;
+		return driver.getRandom().nextInt(maxArmies+1-aArmies) + aArmies;
 	}
 
 	/**
@@ -132,8 +132,8 @@ public class RandomStrategy implements PlayerStrategy {
 	 * @param countryList list of countries player owns
 	 */
 	public void reinforcement(int armies, String[] countryList) {
-		randomAttacknumber = new Random().nextInt(6);
-		String country = countryList[new Random().nextInt(countryList.length)];
+		randomAttacknumber = driver.getRandom().nextInt(6);
+		String country = countryList[driver.getRandom().nextInt(countryList.length)];
 		driver.getCurrentPlayer().shiftArmiesOnReinforcement(country, armies);
 	}
 	
@@ -148,12 +148,17 @@ public class RandomStrategy implements PlayerStrategy {
 				countries.add(driver.getCountry(countryName));
 			}
 		}
-		CountryNode country = countries.get(new Random ().nextInt(countries.size()));
-		int armies = new Random().nextInt(country.getArmiesCount()+1)-1;
-		if (armies == 0) {
-			armies = 1;
+		CountryNode country = countries.get(driver.getRandom().nextInt(countries.size()));
+		/*move between 1 and all but one of the armies.*/
+		int armies = driver.getRandom().nextInt(country.getArmiesCount()-1)+1;
+		/*armies can only be moved to a neighbour owned by the same player.*/
+		ArrayList<CountryNode> neighbours = new ArrayList<CountryNode>();
+		for (CountryNode n : country.getNeighbours()) {
+			if (n.getOwner()==country.getOwner()) {
+				neighbours.add(n);
+			}
 		}
-		CountryNode neighbour = country.getNeighbours().get(new Random().nextInt(country.getNeighbours().size()));
+		CountryNode neighbour = neighbours.get(driver.getRandom().nextInt(neighbours.size()));
 		driver.getCurrentPlayer().getArmiesShiftedAfterFortification(country.getCountryName(), neighbour.getCountryName(), armies);
 	}
 
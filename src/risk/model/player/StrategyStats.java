@@ -0,0 +1,149 @@
+package risk.model.player;
+
+import risk.model.gamemode.GameState;
+import risk.model.util.LatencyHistogram;
+
+/**
+ * Timing of the decisions of one player, recorded by TimedStrategy.
+ * For each phase it keeps a histogram of the time taken by the strategy, the bytes it allocated,
+ * the decisions that went over the deadline and the decisions replaced by the default move.
+ * Statistics of the same player in several games can be added together.
+ */
+public class StrategyStats {
+
+	/**
+	 * Name of the player.
+	 */
+	private String name;
+
+	/**
+	 * Name of the strategy of the player.
+	 */
+	private String strategy;
+
+	/**
+	 * Durations of the decisions of each phase, indexed as <code>GameState.PHASES</code>.
+	 */
+	private LatencyHistogram[] latencies = new LatencyHistogram[GameState.PHASES.length];
+
+	/**
+	 * Bytes allocated by the decisions of each phase, -1 if the virtual machine can not measure them.
+	 */
+	private long[] allocated = new long[GameState.PHASES.length];
+
+	/**
+	 * Decisions of each phase that took longer than the deadline.
+	 */
+	private long[] overruns = new long[GameState.PHASES.length];
+
+	/**
+	 * Decisions of each phase replaced by the default move.
+	 */
+	private long[] fallbacks = new long[GameState.PHASES.length];
+
+	/**
+	 * Creates empty statistics.
+	 * @param newName name of the player.
+	 * @param newStrategy name of the strategy.
+	 */
+	public StrategyStats(String newName, String newStrategy) {
+		this.name = newName;
+		this.strategy = newStrategy;
+		for(int i=0; i<this.latencies.length; i++) {
+			this.latencies[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Records a decision.
+	 * @param phase phase index, as <code>GameState.PHASES</code>.
+	 * @param nanos time taken.
+	 * @param bytes bytes allocated, -1 if not measured.
+	 * @param overrun true if the decision took longer than the deadline.
+	 */
+	public void record(int phase, long nanos, long bytes, boolean overrun) {
+		this.latencies[phase].record(nanos);
+		if(bytes<0 || this.allocated[phase]<0) {
+			this.allocated[phase] = -1;
+		}
+		else {
+			this.allocated[phase] += bytes;
+		}
+		if(overrun) {
+			this.overruns[phase]++;
+		}
+	}
+
+	/**
+	 * Records a decision replaced by the default move.
+	 * @param phase phase index, as <code>GameState.PHASES</code>.
+	 */
+	public void recordFallback(int phase) {
+		this.fallbacks[phase]++;
+	}
+
+	/**
+	 * Adds the statistics of another game of the same player.
+	 * @param other statistics to be added.
+	 */
+	public void add(StrategyStats other) {
+		for(int i=0; i<this.latencies.length; i++) {
+			this.latencies[i].add(other.latencies[i]);
+			this.allocated[i] = this.allocated[i]<0 || other.allocated[i]<0 ? -1 : this.allocated[i] + other.allocated[i];
+			this.overruns[i] += other.overruns[i];
+			this.fallbacks[i] += other.fallbacks[i];
+		}
+	}
+
+	/**
+	 * Gives the name of the player.
+	 * @return name of the player.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Gives the name of the strategy.
+	 * @return name of the strategy.
+	 */
+	public String getStrategy() {
+		return this.strategy;
+	}
+
+	/**
+	 * Gives the durations of the decisions of a phase.
+	 * @param phase phase index, as <code>GameState.PHASES</code>.
+	 * @return histogram of durations in nanoseconds.
+	 */
+	public LatencyHistogram getLatency(int phase) {
+		return this.latencies[phase];
+	}
+
+	/**
+	 * Gives the bytes allocated by the decisions of a phase, on the thread of the game.
+	 * @param phase phase index, as <code>GameState.PHASES</code>.
+	 * @return bytes allocated, -1 if not measured.
+	 */
+	public long getAllocated(int phase) {
+		return this.allocated[phase];
+	}
+
+	/**
+	 * Gives the decisions of a phase that took longer than the deadline.
+	 * @param phase phase index, as <code>GameState.PHASES</code>.
+	 * @return number of overruns.
+	 */
+	public long getOverruns(int phase) {
+		return this.overruns[phase];
+	}
+
+	/**
+	 * Gives the decisions of a phase replaced by the default move.
+	 * @param phase phase index, as <code>GameState.PHASES</code>.
+	 * @return number of default moves.
+	 */
+	public long getFallbacks(int phase) {
+		return this.fallbacks[phase];
+	}
+}
@@ -0,0 +1,78 @@
+package risk.model.player;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts the bytes allocated by a thread, together with the bytes allocated by helper threads on its behalf.
+ * A search spread over worker threads adds the bytes of its workers to the thread that asked for it,
+ * so TimedStrategy charges every decision with all it allocated whatever thread did the work.
+ */
+final class ThreadAllocation {
+
+	/**
+	 * Allocation counter of the virtual machine, null if it has none.
+	 */
+	private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+	/**
+	 * Bytes allocated by helper threads on behalf of each thread.
+	 */
+	private static final ThreadLocal<long[]> HELPED = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			return new long[1];
+		}
+	};
+
+	/**
+	 * Private constructor, all methods are static.
+	 */
+	private ThreadAllocation() {}
+
+	/**
+	 * Gives the allocation counter of the virtual machine.
+	 * @return thread bean that can measure allocated bytes, null if there is none.
+	 */
+	private static com.sun.management.ThreadMXBean threadBean() {
+		try {
+			java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if(bean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+				if(threads.isThreadAllocatedMemorySupported()) {
+					threads.setThreadAllocatedMemoryEnabled(true);
+					return threads;
+				}
+			}
+		}catch(RuntimeException | LinkageError e) {
+			/*no allocation counts on this virtual machine.*/
+		}
+		return null;
+	}
+
+	/**
+	 * Gives the bytes allocated so far by the current thread alone.
+	 * @return allocated bytes, -1 if not measured.
+	 */
+	static long own() {
+		return THREADS==null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Gives the bytes allocated so far by the current thread and by the helper threads that worked for it.
+	 * @return allocated bytes, -1 if not measured.
+	 */
+	static long total() {
+		long bytes = own();
+		return bytes<0 ? -1 : bytes + HELPED.get()[0];
+	}
+
+	/**
+	 * Adds bytes allocated by a helper thread on behalf of the current thread.
+	 * @param bytes allocated bytes, ignored if not measured.
+	 */
+	static void addHelped(long bytes) {
+		if(bytes>0) {
+			HELPED.get()[0] += bytes;
+		}
+	}
+}
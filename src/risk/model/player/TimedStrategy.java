@@ -0,0 +1,184 @@
+package risk.model.player;
+
+import java.util.ArrayList;
+
+import risk.model.gamemode.GameDriver;
+import risk.model.gamemode.GameState;
+import risk.model.util.GameEvent.Level;
+
+/**
+ * Strategy that measures the decisions of another strategy.
+ * Every reinforcement, attack and fortification call is timed and recorded in StrategyStats
+ * with the bytes allocated during the call, on the game thread and on the worker threads a search ran on for it.
+ * <p>
+ * With a deadline, a DeadlineAware strategy is told when each decision is due. A strategy can not be stopped in the
+ * middle of a move, so a call that still goes over the deadline is counted as an overrun and, in the attack phase
+ * where a strategy is asked again after every attack, the rest of the phase is played with the default move of ending the attacks.
+ * All other calls are passed on unchanged.
+ */
+public class TimedStrategy implements PlayerStrategy {
+
+	/**
+	 * GameDriver instance of the game.
+	 */
+	private GameDriver driver;
+
+	/**
+	 * Strategy being measured.
+	 */
+	private PlayerStrategy strategy;
+
+	/**
+	 * Statistics of the player.
+	 */
+	private StrategyStats stats;
+
+	/**
+	 * Time allowed for one decision in nanoseconds, 0 for no deadline.
+	 */
+	private long budgetNanos;
+
+	/**
+	 * True once an attack went over the deadline in this turn.
+	 */
+	private boolean attackOverrun;
+
+	/**
+	 * Constructor wrapping a strategy.
+	 * @param nDriver GameDriver Instance.
+	 * @param newStrategy strategy to be measured.
+	 * @param newStats statistics the decisions are recorded in.
+	 * @param budgetMillis time allowed for one decision in milliseconds, 0 for no deadline.
+	 */
+	public TimedStrategy(GameDriver nDriver, PlayerStrategy newStrategy, StrategyStats newStats, long budgetMillis) {
+		driver = nDriver;
+		strategy = newStrategy;
+		stats = newStats;
+		budgetNanos = Math.max(0, budgetMillis)*1000000L;
+	}
+
+	/**
+	 * Gives the strategy being measured.
+	 * @return wrapped strategy.
+	 */
+	public PlayerStrategy getStrategy() {
+		return this.strategy;
+	}
+
+	/**
+	 * Gives the statistics of the player.
+	 * @return statistics.
+	 */
+	public StrategyStats getStats() {
+		return this.stats;
+	}
+
+	/**
+	 * Starts timing a decision.
+	 * @return start time and allocated bytes.
+	 */
+	private long[] start() {
+		long now = System.nanoTime();
+		if(this.strategy instanceof DeadlineAware) {
+			((DeadlineAware) this.strategy).setDeadline(this.budgetNanos==0 ? 0 : now + this.budgetNanos);
+		}
+		return new long[] {now, ThreadAllocation.total()};
+	}
+
+	/**
+	 * Records a decision.
+	 * @param phase phase index, as <code>GameState.PHASES</code>.
+	 * @param start value returned by <code>start</code>.
+	 * @return true if the decision went over the deadline.
+	 */
+	private boolean stop(int phase, long[] start) {
+		long nanos = System.nanoTime() - start[0];
+		long bytes = ThreadAllocation.total();
+		boolean overrun = this.budgetNanos>0 && nanos>this.budgetNanos;
+		this.stats.record(phase, nanos, bytes<0 || start[1]<0 ? -1 : bytes-start[1], overrun);
+		if(overrun) {
+			driver.log(Level.DEBUG, "{} took {} ms in {}", this.stats.getName(), nanos/1000000, GameState.PHASES[phase]);
+		}
+		return overrun;
+	}
+
+	/**
+	 * Times the reinforcement of the strategy, a new turn starts without attack overrun.
+	 * @see risk.model.player.PlayerStrategy#reinforcementPhase(int, java.lang.String[])
+	 */
+	@Override
+	public void reinforcementPhase(int armies, String[] countryList) {
+		this.attackOverrun = false;
+		long[] start = start();
+		strategy.reinforcementPhase(armies, countryList);
+		stop(GameState.REINFORCEMENT, start);
+	}
+
+	/**
+	 * Times an attack of the strategy, or ends the attacks once an attack of this turn went over the deadline.
+	 * @see risk.model.player.PlayerStrategy#attackPhase(java.util.ArrayList)
+	 */
+	@Override
+	public void attackPhase(ArrayList<String> countryList) {
+		if(this.attackOverrun) {
+			this.stats.recordFallback(GameState.ATTACK);
+			driver.log(Level.INFO, "{} is out of time and ends attack", this.stats.getName());
+			driver.changePhase();
+			return;
+		}
+		long[] start = start();
+		strategy.attackPhase(countryList);
+		this.attackOverrun = stop(GameState.ATTACK, start);
+	}
+
+	/**
+	 * Times the fortification of the strategy.
+	 * @see risk.model.player.PlayerStrategy#fortificationPhase(java.util.ArrayList)
+	 */
+	@Override
+	public void fortificationPhase(ArrayList<String> countryList) {
+		long[] start = start();
+		strategy.fortificationPhase(countryList);
+		stop(GameState.FORTIFICATION, start);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String placeArmy(String[] strings, String string) {
+		return strategy.placeArmy(strings, string);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int[] placeArmies(String[] countries, int[] countryArmies, int armies, String name) {
+		return strategy.placeArmies(countries, countryArmies, armies, name);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int selectDiceNumber(int diceToRoll, String pName) {
+		return strategy.selectDiceNumber(diceToRoll, pName);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int moveArmies(int aArmies, int maxArmies, String message) {
+		return strategy.moveArmies(aArmies, maxArmies, message);
+	}
+
+	/**
+	 * Gives the name of the strategy being measured, so a measured player is saved with its own strategy.
+	 */
+	@Override
+	public String getStrategyName() {
+		return strategy.getStrategyName();
+	}
+}
@@ -7,7 +7,7 @@ import risk.model.player.Player;
  * This class manages the turn and its phases.
  * @author Gurpreet
  * @author Gunpreet
- * @version 1.2
+ * @version 1.3
  */
 public class TurnManager {
 	
@@ -27,6 +27,28 @@ public class TurnManager {
 	 */
 	private boolean wonCard = false;
 	
+	/**
+	 * Steps the turn loop can take next.
+	 */
+	private enum Step {
+		/** Nothing requested, the loop returns. */
+		NONE,
+		/** Run the current phase again. */
+		CONTINUE,
+		/** Move to the next phase and run it. */
+		CHANGE
+	}
+	
+	/**
+	 * Step requested by the player of the current phase, executed by the turn loop.
+	 */
+	private Step pendingStep = Step.NONE;
+	
+	/**
+	 * True while the turn loop is running, nested requests are then only recorded.
+	 */
+	private boolean running = false;
+	
 	/**
 	 * Stores instance of GameDriver class.
 	 */
@@ -56,38 +78,97 @@ public class TurnManager {
 	 */
 	public void startTurn(Player currentPlayer) {
 		currentPlayer.setArmies(this.getCurrentPlayer().getArmies());
-		currentPlayer.reinforcementPhase();
+		runLoop(Step.CONTINUE);
 	}
 	
 	/**
 	 * Function to switch between different phases and notify observers. Also if a player win a territory during attack phase
 	 * calls <code>issueCard()</code> method from <code>GameDriver</code>.
+	 * When called from inside a phase the change is only recorded and done by the turn loop after the phase returns.
 	 */
 	public void changePhase() {
-		if(!isGameOver()) {
-			if(this.getPhase().equals("Reinforcement")) {
-				this.setPhase("Attack");
-				getCurrentPlayer().attackPhase();
-			}
-			else if(this.getPhase().equals("Attack")) {
-				if(wonCard) {
-					driver.issueCard();
-					wonCard = false;
+		runLoop(Step.CHANGE);
+	}
+	
+	/**
+	 * Refreshes the phases.
+	 * When called from inside a phase the phase is run again by the turn loop after the current one returns.
+	 */
+	public void continuePhase() {
+		runLoop(Step.CONTINUE);
+	}
+	
+	/**
+	 * Turn loop that runs the phases one after another until a phase waits for user input or the game is over.
+	 * Players request the next step through changePhase or continuePhase instead of calling the next phase
+	 * directly, so a computer-only game runs in constant stack depth.
+	 * @param step step requested by the caller.
+	 */
+	private void runLoop(Step step) {
+		pendingStep = step;
+		if(running) {
+			return;
+		}
+		running = true;
+		try {
+			while(pendingStep!=Step.NONE && !isGameOver()) {
+				Step next = pendingStep;
+				pendingStep = Step.NONE;
+				if(next==Step.CHANGE) {
+					nextPhase();
 				}
-				this.setPhase("Fortification");
-				getCurrentPlayer().fortificationPhase();
-			}
-			else if(this.getPhase().equals("Fortification")) {
-				driver.setNextPlayerTurn();
-				if(!isGameOver()) {
-					this.setPhase("Reinforcement");
-					getCurrentPlayer().reinforcementPhase();
+				else {
+					runPhase();
 				}
 			}
-			else {
-				driver.announceGameOver(getCurrentPlayer().getName());
+		}
+		finally {
+			pendingStep = Step.NONE;
+			running = false;
+		}
+	}
+	
+	/**
+	 * Moves to the next phase and runs it.
+	 */
+	private void nextPhase() {
+		if(this.getPhase().equals("Reinforcement")) {
+			this.setPhase("Attack");
+			getCurrentPlayer().attackPhase();
+		}
+		else if(this.getPhase().equals("Attack")) {
+			if(wonCard) {
+				driver.issueCard();
+				wonCard = false;
+			}
+			this.setPhase("Fortification");
+			getCurrentPlayer().fortificationPhase();
+		}
+		else if(this.getPhase().equals("Fortification")) {
+			driver.setNextPlayerTurn();
+			if(!isGameOver()) {
+				this.setPhase("Reinforcement");
+				getCurrentPlayer().reinforcementPhase();
 			}
 		}
+		else {
+			driver.announceGameOver(getCurrentPlayer().getName());
+		}
+	}
+	
+	/**
+	 * Runs the current phase again.
+	 */
+	private void runPhase() {
+		if(this.getPhase().equals("Reinforcement")) {
+			getCurrentPlayer().reinforcementPhase();
+		}
+		else if(this.getPhase().equals("Attack")) {
+			getCurrentPlayer().attackPhase();
+		}
+		else if(this.getPhase().equals("Fortification")) {
+			getCurrentPlayer().fortificationPhase();
+		}
 	}
 	
 	/**
@@ -98,23 +179,6 @@ public class TurnManager {
 		return driver.getCurrentPlayer();
 	}
 
-	/**
-	 * Refreshes the phases.
-	 */
-	public void continuePhase() {
-		if(!isGameOver()) {
-			if(this.getPhase().equals("Reinforcement")) {
-				getCurrentPlayer().reinforcementPhase();
-			}
-			else if(this.getPhase().equals("Attack")) {
-				getCurrentPlayer().attackPhase();
-			}
-			else if(this.getPhase().equals("Fortification")) {
-				getCurrentPlayer().fortificationPhase();
-			}
-		}
-	}
-
 	/**
 	 * Get the current phase name.
 	 * @return the phase
@@ -0,0 +1,100 @@
+package risk.model.util;
+
+/**
+ * Log message sent by GameDriver to its observers.
+ * The message is kept as a pattern and its arguments and only formatted when <code>toString</code> is first called,
+ * so a message that no observer reads is never built. Each <code>{}</code> in the pattern is replaced by the next argument.
+ */
+public class GameEvent {
+
+	/**
+	 * Levels of log messages, from the most detailed to the most important.
+	 */
+	public enum Level {
+		/**
+		 * Details of every army placed and every dice rolled.
+		 */
+		DEBUG,
+		/**
+		 * Moves of the players.
+		 */
+		INFO
+	}
+
+	/**
+	 * Level of this message.
+	 */
+	private Level level;
+
+	/**
+	 * Message pattern.
+	 */
+	private String pattern;
+
+	/**
+	 * Arguments of the pattern.
+	 */
+	private Object[] args;
+
+	/**
+	 * Formatted message, null until first needed.
+	 */
+	private String message;
+
+	/**
+	 * Creates a log message.
+	 * @param newLevel level of the message.
+	 * @param newPattern message pattern with one <code>{}</code> for each argument.
+	 * @param newArgs arguments of the pattern.
+	 */
+	public GameEvent(Level newLevel, String newPattern, Object... newArgs) {
+		this.level = newLevel;
+		this.pattern = newPattern;
+		this.args = newArgs;
+	}
+
+	/**
+	 * Gives the level of the message.
+	 * @return level of the message.
+	 */
+	public Level getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * Gives the formatted message.
+	 * @return message with the arguments filled in.
+	 */
+	@Override
+	public String toString() {
+		if(this.message==null) {
+			this.message = format(this.pattern, this.args);
+		}
+		return this.message;
+	}
+
+	/**
+	 * Replaces each <code>{}</code> of a pattern by the next argument.
+	 * Placeholders left without an argument are kept as they are.
+	 * @param pattern message pattern.
+	 * @param args arguments of the pattern.
+	 * @return formatted message.
+	 */
+	public static String format(String pattern, Object... args) {
+		if(args==null || args.length==0) {
+			return pattern;
+		}
+		StringBuilder s = new StringBuilder(pattern.length() + 16*args.length);
+		int start = 0;
+		for(Object arg : args) {
+			int at = pattern.indexOf("{}", start);
+			if(at<0) {
+				break;
+			}
+			s.append(pattern, start, at).append(arg);
+			start = at+2;
+		}
+		s.append(pattern, start, pattern.length());
+		return s.toString();
+	}
+}
@@ -1,20 +1,23 @@
 package risk.model.util;
 
 import java.awt.Dimension;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Observable;
 import java.util.Observer;
 
-import javax.swing.BoxLayout;
 import javax.swing.JFrame;
-import javax.swing.JLabel;
-import javax.swing.JPanel;
+import javax.swing.JList;
+import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
-
-import risk.model.gamemode.GameDriver;
-import risk.model.player.Player;
+import javax.swing.SwingUtilities;
 
 /**
  * Displays the logging window for the game, implements Observer pattern.
+ * Only the last messages are kept, in a LogListModel shown by a JList that renders the visible rows only.
+ * Messages are queued by the game and moved to the list in one batch on the event dispatch thread,
+ * and the queue is bounded by the same capacity, so the logger uses the same memory however long the game is.
+ * A LogFileSink can be set to keep every message in a file.
  * @author Gunpreet
  * @author Amitt
  */
@@ -25,24 +28,59 @@ public class GameLogger extends JFrame implements Observer {
 	 * {@inheritDoc}
 	 */
 	private static final long serialVersionUID = -8766321280014020596L;
-	
+
+	/**
+	 * Default number of messages shown.
+	 */
+	public static final int DEFAULT_CAPACITY = 5000;
+
 	/**
-	 * Panel for the logging window.
+	 * Messages shown in the logging window.
 	 */
-	private JPanel panel;
-	
+	private LogListModel model;
+
+	/**
+	 * List for the logging window.
+	 */
+	private JList<String> list;
+
 	/**
 	 * Scroll Pane for the logging window.
 	 */
 	private JScrollPane scroll;
-	
+
+	/**
+	 * Messages waiting to be moved to the list, at most the capacity of the list.
+	 */
+	private ArrayDeque<Object> pending = new ArrayDeque<Object>();
+
+	/**
+	 * True while a batch is queued on the event dispatch thread.
+	 */
+	private boolean flushQueued = false;
+
+	/**
+	 * File every message is written to, null if none.
+	 */
+	private volatile LogFileSink sink;
+
 	/**
 	 * Constructor to initialize GameLogger
 	 */
 	public GameLogger(){
-		panel = new JPanel();
-		panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
-		scroll = new JScrollPane(panel);
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor to initialize GameLogger showing a number of messages.
+	 * @param capacity number of messages shown, older messages are dropped.
+	 */
+	public GameLogger(int capacity){
+		model = new LogListModel(capacity);
+		list = new JList<String>(model);
+		/*all rows have the height of the prototype, so the list never measures rows that are not visible.*/
+		list.setPrototypeCellValue("Attack: Attacker: Northwest Territory Defender: Northwest Territory");
+		scroll = new JScrollPane(list);
 		scroll.setPreferredSize(new Dimension(400,800));
 		this.add(scroll);
 		this.pack();
@@ -50,15 +88,77 @@ public class GameLogger extends JFrame implements Observer {
 		this.setVisible(true);
 	}
 
+	/**
+	 * Sets the file every message is written to.
+	 * @param newSink file sink, null to stop writing messages to a file.
+	 */
+	public void setFileSink(LogFileSink newSink) {
+		this.sink = newSink;
+	}
+
+	/**
+	 * Gives the messages shown in the logging window.
+	 * @return list model of the messages.
+	 */
+	public LogListModel getModel() {
+		return this.model;
+	}
+
 	/**
 	 * Observer method called on notifyObservers for GameLogger.
+	 * The message is queued and shown with the other messages queued before the event dispatch thread gets to it.
 	 */
 	@Override
 	public void update(Observable o, Object arg) {
-		panel.add(new JLabel((String) arg));
-		this.validate();
+		LogFileSink fileSink = this.sink;
+		if(fileSink!=null) {
+			fileSink.write(arg);
+		}
+		synchronized(pending) {
+			if(pending.size()==model.getCapacity()) {
+				pending.pollFirst();
+			}
+			pending.addLast(arg);
+			if(flushQueued) {
+				return;
+			}
+			flushQueued = true;
+		}
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				flush();
+			}
+		});
 	}
-	
+
+	/**
+	 * Moves the queued messages to the list, on the event dispatch thread.
+	 * The list stays at its last row if it was there before.
+	 */
+	public void flush() {
+		Object[] messages;
+		synchronized(pending) {
+			messages = pending.toArray();
+			pending.clear();
+			flushQueued = false;
+		}
+		if(messages.length==0) {
+			return;
+		}
+		/*messages are formatted here, only the ones that are shown.*/
+		ArrayList<String> batch = new ArrayList<String>(messages.length);
+		for(Object message : messages) {
+			batch.add(String.valueOf(message));
+		}
+		JScrollBar bar = scroll.getVerticalScrollBar();
+		boolean atEnd = bar.getValue()+bar.getVisibleAmount()>=bar.getMaximum();
+		model.addAll(batch);
+		if(atEnd) {
+			list.ensureIndexIsVisible(model.getSize()-1);
+		}
+	}
+
 	/**
 	 * Main method to run the logger.
 	 * @param s command-line arguments.
@@ -69,5 +169,5 @@ public class GameLogger extends JFrame implements Observer {
 			g.update(null,"Line "+i);
 		}
 	}
-	
+
 }
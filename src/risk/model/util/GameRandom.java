@@ -0,0 +1,119 @@
+package risk.model.util;
+
+import java.util.Random;
+
+/**
+ * Random generator of one game, a SplitMix64 generator with a single <code>long</code> of state.
+ * It extends Random so it can be passed to every method taking a Random, like Collections.shuffle,
+ * but it is not thread safe and each game needs its own instance.
+ * A generator can be split into a new independent generator, so a tournament seeded with one number gives
+ * every game its own stream and any game can be played again exactly from its seed.
+ */
+public class GameRandom extends Random {
+
+	/**
+	 * Serial Version id for Random.
+	 * {@inheritDoc}
+	 */
+	private static final long serialVersionUID = 2818446150271326413L;
+
+	/**
+	 * Increment of the state on every number, the golden ratio in 64 bits.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Current state of the generator.
+	 */
+	private long state;
+
+	/**
+	 * Creates a generator with a seed that differs on every call.
+	 */
+	public GameRandom() {
+		this(mix(System.nanoTime()) ^ mix(Thread.currentThread().getId() + GOLDEN_GAMMA));
+	}
+
+	/**
+	 * Creates a generator with a seed, generators with the same seed give the same numbers.
+	 * @param seed seed of the generator.
+	 */
+	public GameRandom(long seed) {
+		super(0);
+		this.state = seed;
+	}
+
+	/**
+	 * Sets the seed of the generator.
+	 * @param seed new seed.
+	 */
+	@Override
+	public void setSeed(long seed) {
+		this.state = seed;
+	}
+
+	/**
+	 * Gives the current state, a generator set to this state gives the same numbers from this point on.
+	 * @return state of the generator.
+	 */
+	public long getState() {
+		return this.state;
+	}
+
+	/**
+	 * Sets the state of the generator, see <code>getState</code>.
+	 * @param newState state to continue from.
+	 */
+	public void setState(long newState) {
+		this.state = newState;
+	}
+
+	/**
+	 * Creates a new generator seeded from this one. The numbers of the new generator do not depend on
+	 * the numbers this generator gives later.
+	 * @return new generator.
+	 */
+	public GameRandom split() {
+		return new GameRandom(mix(nextLong()));
+	}
+
+	/**
+	 * Gives the next 64 random bits.
+	 * @return random long.
+	 */
+	@Override
+	public long nextLong() {
+		this.state += GOLDEN_GAMMA;
+		return mix(this.state);
+	}
+
+	/**
+	 * Gives the next random bits, used by all other methods of Random.
+	 * @param bits number of bits, 1 to 32.
+	 * @return random bits in the low bits of the result.
+	 */
+	@Override
+	protected int next(int bits) {
+		return (int) (nextLong() >>> (64-bits));
+	}
+
+	/**
+	 * Gives a random double between 0 inclusive and 1 exclusive.
+	 * @return random double.
+	 */
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * Mixes the bits of a value, the output function of SplitMix64.
+	 * @param z value to be mixed.
+	 * @return mixed value.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
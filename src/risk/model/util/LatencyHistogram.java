@@ -0,0 +1,137 @@
+package risk.model.util;
+
+/**
+ * Histogram of durations in nanoseconds with a fixed number of buckets.
+ * Each power of two is split into 16 buckets, so a percentile is within 1/16 of the true value
+ * however many durations are recorded, and recording never allocates.
+ * It is not thread safe.
+ */
+public class LatencyHistogram {
+
+	/**
+	 * Number of buckets in each power of two.
+	 */
+	private static final int SUB_BUCKETS = 16;
+
+	/**
+	 * Bits of the sub bucket index.
+	 */
+	private static final int SUB_BITS = 4;
+
+	/**
+	 * Count of durations in each bucket.
+	 */
+	private long[] counts = new long[SUB_BUCKETS*(64-SUB_BITS)];
+
+	/**
+	 * Number of durations recorded.
+	 */
+	private long count;
+
+	/**
+	 * Longest duration recorded.
+	 */
+	private long max;
+
+	/**
+	 * Sum of the durations recorded.
+	 */
+	private long total;
+
+	/**
+	 * Records a duration.
+	 * @param nanos duration in nanoseconds, negative durations are taken as 0.
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		this.counts[bucket(value)]++;
+		this.count++;
+		this.total += value;
+		this.max = Math.max(this.max, value);
+	}
+
+	/**
+	 * Gives the bucket of a duration.
+	 * @param value duration, not negative.
+	 * @return bucket index.
+	 */
+	private static int bucket(long value) {
+		if(value<SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent-SUB_BITS)) & (SUB_BUCKETS-1);
+		return SUB_BUCKETS + (exponent-SUB_BITS)*SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * Gives the largest duration that falls in a bucket.
+	 * @param bucket bucket index.
+	 * @return upper bound of the bucket.
+	 */
+	private static long upperBound(int bucket) {
+		if(bucket<SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket-SUB_BUCKETS)/SUB_BUCKETS;
+		long sub = SUB_BUCKETS + (bucket-SUB_BUCKETS)%SUB_BUCKETS;
+		return ((sub+1) << shift) - 1;
+	}
+
+	/**
+	 * Adds the durations of another histogram to this one.
+	 * @param other histogram to be added.
+	 */
+	public void add(LatencyHistogram other) {
+		for(int i=0; i<this.counts.length; i++) {
+			this.counts[i] += other.counts[i];
+		}
+		this.count += other.count;
+		this.total += other.total;
+		this.max = Math.max(this.max, other.max);
+	}
+
+	/**
+	 * Gives the number of durations recorded.
+	 * @return number of durations.
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Gives the longest duration recorded.
+	 * @return duration in nanoseconds, 0 if none.
+	 */
+	public long getMax() {
+		return this.max;
+	}
+
+	/**
+	 * Gives the sum of the durations recorded.
+	 * @return total in nanoseconds.
+	 */
+	public long getTotal() {
+		return this.total;
+	}
+
+	/**
+	 * Gives a percentile of the durations.
+	 * @param percent percentile, from 0 to 100.
+	 * @return duration in nanoseconds that this percentage of the durations does not exceed, 0 if none were recorded.
+	 */
+	public long getPercentile(double percent) {
+		if(this.count==0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percent/100*this.count));
+		long seen = 0;
+		for(int i=0; i<this.counts.length; i++) {
+			seen += this.counts[i];
+			if(seen>=rank) {
+				return Math.min(upperBound(i), this.max);
+			}
+		}
+		return this.max;
+	}
+}
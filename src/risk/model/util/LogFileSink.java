@@ -0,0 +1,247 @@
+package risk.model.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes every log message to a file on its own thread, so the game never waits for the disk.
+ * Messages are formatted by the writer thread and added at the end of the file, so a sink opened on the log of an
+ * earlier game keeps it. When the file reaches its size limit, it is renamed to <code>name.1</code>, older files move
+ * up by one and the oldest is deleted; a sink keeping a single file starts it again.
+ * If the writer falls behind by more than the size of its queue, the game waits for it instead of dropping messages.
+ * A sink must be closed when its game is over; a sink still open when the program exits is closed then.
+ */
+public class LogFileSink implements Closeable {
+
+	/**
+	 * Default size limit of one file, in bytes.
+	 */
+	public static final long DEFAULT_MAX_BYTES = 10*1024*1024;
+
+	/**
+	 * Default number of files kept, the current one included.
+	 */
+	public static final int DEFAULT_FILES = 5;
+
+	/**
+	 * Number of messages waiting to be written before the game waits for the writer.
+	 */
+	private static final int QUEUE_SIZE = 8192;
+
+	/**
+	 * Line separator of the file.
+	 */
+	private static final byte[] NEW_LINE = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+	/**
+	 * Marker put in the queue by <code>close</code>.
+	 */
+	private static final Object CLOSE = new Object();
+
+	/**
+	 * Current log file.
+	 */
+	private File file;
+
+	/**
+	 * Size limit of one file, in bytes.
+	 */
+	private long maxBytes;
+
+	/**
+	 * Number of files kept, the current one included.
+	 */
+	private int files;
+
+	/**
+	 * Messages waiting to be written.
+	 */
+	private BlockingQueue<Object> queue = new ArrayBlockingQueue<Object>(QUEUE_SIZE);
+
+	/**
+	 * Thread writing the messages.
+	 */
+	private Thread writer;
+
+	/**
+	 * Closes the sink if the program exits before it is closed.
+	 */
+	private Thread shutdownHook;
+
+	/**
+	 * True once <code>close</code> was called.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Stream of the current file, only used by the writer thread.
+	 */
+	private OutputStream out;
+
+	/**
+	 * Bytes written to the current file.
+	 */
+	private long written;
+
+	/**
+	 * Creates a sink with the default size limit and number of files.
+	 * @param newFile log file.
+	 */
+	public LogFileSink(File newFile) {
+		this(newFile, DEFAULT_MAX_BYTES, DEFAULT_FILES);
+	}
+
+	/**
+	 * Creates a sink and starts its writer thread.
+	 * @param newFile log file.
+	 * @param newMaxBytes size limit of one file in bytes.
+	 * @param newFiles number of files kept, at least 1.
+	 */
+	public LogFileSink(File newFile, long newMaxBytes, int newFiles) {
+		this.file = newFile;
+		this.maxBytes = Math.max(1, newMaxBytes);
+		this.files = Math.max(1, newFiles);
+		this.writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeAll();
+			}
+		}, "log-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+		this.shutdownHook = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				close();
+			}
+		}, "log-close");
+		Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+	}
+
+	/**
+	 * Queues a message to be written, messages given after <code>close</code> are ignored.
+	 * @param message message, written with <code>String.valueOf</code>.
+	 */
+	public void write(Object message) {
+		if(closed) {
+			return;
+		}
+		try {
+			queue.put(message);
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Writes the messages queued so far, stops the writer thread and closes the file.
+	 */
+	@Override
+	public void close() {
+		synchronized(this) {
+			if(closed) {
+				return;
+			}
+			closed = true;
+		}
+		if(Thread.currentThread()!=shutdownHook) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			}catch(IllegalStateException e) {
+				/*the program is exiting, the hook runs anyway.*/
+			}
+		}
+		try {
+			queue.put(CLOSE);
+			writer.join();
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Loop of the writer thread, the file is flushed whenever the queue is empty.
+	 */
+	private void writeAll() {
+		try {
+			while(true) {
+				Object message = queue.take();
+				if(message==CLOSE) {
+					break;
+				}
+				writeLine(String.valueOf(message));
+				if(queue.isEmpty() && out!=null) {
+					out.flush();
+				}
+			}
+		}catch(IOException e) {
+			System.err.println("Log file "+file+" can not be written: "+e);
+			closed = true;
+			queue.clear();
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}finally {
+			try {
+				if(out!=null) {
+					out.close();
+				}
+			}catch(IOException e) {
+				System.err.println("Log file "+file+" can not be closed: "+e);
+			}
+		}
+	}
+
+	/**
+	 * Writes one message, moving to a new file first if the current one is full.
+	 * The file is opened for appending when the first message is written, its size counts towards the limit.
+	 * After a rotation the file is opened empty, so it never grows past the limit even if it could not be renamed.
+	 * @param line message.
+	 * @throws IOException if the file can not be written.
+	 */
+	private void writeLine(String line) throws IOException {
+		byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+		if(out==null) {
+			written = file.length();
+		}
+		boolean rotated = false;
+		if(written>0 && written+bytes.length+NEW_LINE.length>maxBytes) {
+			if(out!=null) {
+				out.close();
+				out = null;
+			}
+			rotate();
+			written = 0;
+			rotated = true;
+		}
+		if(out==null) {
+			out = new BufferedOutputStream(new FileOutputStream(file, !rotated));
+		}
+		out.write(bytes);
+		out.write(NEW_LINE);
+		written += bytes.length + NEW_LINE.length;
+	}
+
+	/**
+	 * Renames the full file to <code>name.1</code> after moving the older files up by one, the oldest is deleted.
+	 * With a single file nothing is kept. A file that can not be renamed is started again by <code>writeLine</code>.
+	 */
+	private void rotate() {
+		if(files<2) {
+			return;
+		}
+		new File(file.getPath()+"."+(files-1)).delete();
+		for(int i=files-2; i>=1; i--) {
+			new File(file.getPath()+"."+i).renameTo(new File(file.getPath()+"."+(i+1)));
+		}
+		if(!file.renameTo(new File(file.getPath()+".1"))) {
+			System.err.println("Log file "+file+" can not be renamed, it is started again");
+		}
+	}
+}
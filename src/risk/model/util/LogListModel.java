@@ -0,0 +1,108 @@
+package risk.model.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * List of the last log messages for a JList, kept in a ring buffer of fixed capacity.
+ * Once the buffer is full, every message added drops the oldest one, so the memory used does not grow with the game.
+ * It must only be used on the event dispatch thread, like any Swing model.
+ */
+public class LogListModel extends AbstractListModel<String> {
+
+	/**
+	 * Serial Version id.
+	 */
+	private static final long serialVersionUID = 4400768153012473186L;
+
+	/**
+	 * Messages, the oldest at <code>start</code>.
+	 */
+	private String[] lines;
+
+	/**
+	 * Index of the oldest message in <code>lines</code>.
+	 */
+	private int start;
+
+	/**
+	 * Number of messages kept.
+	 */
+	private int size;
+
+	/**
+	 * Creates an empty list.
+	 * @param capacity number of messages kept, at least 1.
+	 */
+	public LogListModel(int capacity) {
+		this.lines = new String[Math.max(1, capacity)];
+	}
+
+	/**
+	 * Gives the number of messages the list keeps.
+	 * @return capacity of the list.
+	 */
+	public int getCapacity() {
+		return this.lines.length;
+	}
+
+	/**
+	 * Adds messages after the last one, dropping the oldest messages that no longer fit.
+	 * Listeners are told once of the messages dropped and once of the messages added.
+	 * @param batch messages to be added, in order.
+	 */
+	public void addAll(ArrayList<String> batch) {
+		int skip = Math.max(0, batch.size()-lines.length);
+		int added = batch.size()-skip;
+		if(added==0) {
+			return;
+		}
+		int removed = Math.max(0, size+added-lines.length);
+		start = (start+removed)%lines.length;
+		size -= removed;
+		if(removed>0) {
+			fireIntervalRemoved(this, 0, removed-1);
+		}
+		for(int i=skip; i<batch.size(); i++) {
+			lines[(start+size)%lines.length] = batch.get(i);
+			size++;
+		}
+		fireIntervalAdded(this, size-added, size-1);
+	}
+
+	/**
+	 * Removes every message.
+	 */
+	public void clear() {
+		int removed = size;
+		start = 0;
+		size = 0;
+		Arrays.fill(lines, null);
+		if(removed>0) {
+			fireIntervalRemoved(this, 0, removed-1);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Gives a message, the oldest kept is at index 0.
+	 * @param index index of the message.
+	 * @return message.
+	 */
+	@Override
+	public String getElementAt(int index) {
+		if(index<0 || index>=size) {
+			throw new IndexOutOfBoundsException("Index "+index+" of "+size);
+		}
+		return this.lines[(start+index)%lines.length];
+	}
+}
@@ -7,6 +7,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.Callable;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -51,17 +52,24 @@ public class CardsView extends JPanel implements Observer {
 	}
 	
 	/**
-	 * Shows a dialog to the player to exchange the cards to get additional armies
+	 * Shows a dialog to the player to exchange the cards to get additional armies.
+	 * It is called by the game thread, the cards are exchanged on that thread after the answer.
 	 * @param player current player whose turn is going on
 	 */
 	public void showCards(Player player){
-		this.removeAll();
-		/*Cards exchange Dialog Box.*/
+		/*Cards exchange Dialog Box, shown on the event dispatch thread while the game waits for the answer.*/
 		String cards = "";
 		for (risk.model.Card card : player.getCards()){ 
 			cards += (card.getName()+",");
 		}
-		int cardExchange = JOptionPane.showConfirmDialog (null, cards,"Warning",JOptionPane.YES_OPTION);
+		final String message = cards;
+		int cardExchange = SwingThread.call(new Callable<Integer>() {
+			@Override
+			public Integer call() {
+				removeAll();
+				return JOptionPane.showConfirmDialog (null, message,"Warning",JOptionPane.YES_OPTION);
+			}
+		});
 		if(cardExchange == JOptionPane.YES_OPTION){
 			exchangeCards(player);
 		}
@@ -90,7 +98,7 @@ public class CardsView extends JPanel implements Observer {
 	@Override
 	public void update(Observable o, Object arg) {
 		Player player = ((GameDriver) o).getCurrentPlayer();
-		if (((String) arg).equals("Cards")){
+		if ("Cards".equals(arg)){
 			if( player.getCards().size()>2 && player.getCards().size() <5){
 				if(player.haveDistinctCards() || player.haveThreeSameTypeCards()){					
 					this.showCards(player);
@@ -0,0 +1,107 @@
+package risk.view;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Coalesces the updates of a view into frames.
+ * The game thread calls <code>request</code> after every change; the view is then refreshed once on the event dispatch
+ * thread with everything changed so far, and at most once per frame however fast the game runs.
+ */
+public class FrameThrottle {
+
+	/**
+	 * Default number of frames per second.
+	 */
+	public static final int DEFAULT_FRAMES_PER_SECOND = 30;
+
+	/**
+	 * Refresh of the view, run on the event dispatch thread.
+	 */
+	private Runnable refresh;
+
+	/**
+	 * Shortest time between two refreshes in nanoseconds.
+	 */
+	private long frameNanos;
+
+	/**
+	 * Time of the last refresh.
+	 */
+	private long lastFrame;
+
+	/**
+	 * True while a refresh is queued.
+	 */
+	private boolean queued = false;
+
+	/**
+	 * Timer delaying a refresh to the next frame.
+	 */
+	private Timer timer;
+
+	/**
+	 * Creates a throttle with the default frame rate.
+	 * @param newRefresh refresh of the view.
+	 */
+	public FrameThrottle(Runnable newRefresh) {
+		this(newRefresh, DEFAULT_FRAMES_PER_SECOND);
+	}
+
+	/**
+	 * Creates a throttle.
+	 * @param newRefresh refresh of the view.
+	 * @param framesPerSecond highest number of refreshes per second.
+	 */
+	public FrameThrottle(Runnable newRefresh, int framesPerSecond) {
+		this.refresh = newRefresh;
+		this.frameNanos = 1000000000L/Math.max(1, framesPerSecond);
+		this.lastFrame = System.nanoTime() - this.frameNanos;
+		this.timer = new Timer(0, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				frame();
+			}
+		});
+		this.timer.setRepeats(false);
+	}
+
+	/**
+	 * Asks for a refresh, it can be called from any thread.
+	 * Requests made before the refresh runs are served by the same refresh.
+	 */
+	public void request() {
+		synchronized(this) {
+			if(queued) {
+				return;
+			}
+			queued = true;
+		}
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				frame();
+			}
+		});
+	}
+
+	/**
+	 * Refreshes the view, or waits for the next frame if the last refresh was too recent.
+	 */
+	private void frame() {
+		long wait = lastFrame + frameNanos - System.nanoTime();
+		if(wait>0) {
+			timer.setInitialDelay((int) Math.max(1, wait/1000000));
+			timer.restart();
+			return;
+		}
+		synchronized(this) {
+			queued = false;
+		}
+		lastFrame = System.nanoTime();
+		refresh.run();
+	}
+}
@@ -1,44 +1,228 @@
 package risk.view;
 
+import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
-import java.awt.GridBagConstraints;
-import java.awt.GridBagLayout;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Observable;
 import java.util.Observer;
 
 import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
-import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
 
+import risk.model.map.CountryNode;
 import risk.model.map.Map;
+import risk.model.map.MapDelta;
+import risk.model.map.MapNode;
 
 /**
  * Controls the Map view on the main window.
+ * The view keeps the owner and armies of every country and only redraws the countries in each MapDelta it gets.
+ * With a map image, the countries are drawn as markers on a cached image and only the area of a changed marker is
+ * drawn again and repainted. Without an image, the countries are rows of a table and only the changed rows are updated.
+ * Deltas sent by the game thread are queued and applied together by a FrameThrottle, a country changed several times
+ * between two frames is drawn once.
  */
 public class MapView extends JPanel implements Observer {
-	
+
+	/**
+	 * Width of the marker of a country on the map image.
+	 */
+	private static final int MARKER_WIDTH = 30;
+
+	/**
+	 * Height of the marker of a country on the map image.
+	 */
+	private static final int MARKER_HEIGHT = 14;
+
+	/**
+	 * Colors given to the owners in the order they are first seen.
+	 */
+	private static final Color[] OWNER_COLORS = {new Color(220, 50, 47), new Color(38, 139, 210), new Color(133, 153, 0),
+			new Color(211, 54, 130), new Color(181, 137, 0), new Color(42, 161, 152)};
+
 	/**
 	 * BufferedReader Object to read the image file.
 	 */
 	private BufferedImage image;
-	
+
+	/**
+	 * Map image with the marker of every country drawn on it, null until the map is laid out.
+	 */
+	private BufferedImage canvas;
+
 	/**
 	 * Boolean to check for .bmp file for the map.
 	 */
 	private boolean graphicalMap = false;
-	
+
+	/**
+	 * Map shown by the view.
+	 */
+	private Map map;
+
+	/**
+	 * Name of each country, indexed by country id.
+	 */
+	private String[] names = new String[0];
+
+	/**
+	 * Owner of each country, indexed by country id.
+	 */
+	private String[] owners = new String[0];
+
+	/**
+	 * Armies of each country, indexed by country id.
+	 */
+	private int[] armies = new int[0];
+
+	/**
+	 * Area of the marker of each country on the map image, indexed by country id, null for countries not shown.
+	 */
+	private Rectangle[] markers = new Rectangle[0];
+
+	/**
+	 * Color of each owner.
+	 */
+	private HashMap<String, Color> colors = new HashMap<String, Color>();
+
+	/**
+	 * Table of the countries when there is no map image.
+	 */
+	private CountryTableModel table = new CountryTableModel();
+
+	/**
+	 * Deltas waiting for the next frame, in the order they were sent.
+	 */
+	private ArrayList<MapDelta> pending = new ArrayList<MapDelta>();
+
+	/**
+	 * Applies the pending deltas once per frame.
+	 */
+	private FrameThrottle throttle = new FrameThrottle(new Runnable() {
+		@Override
+		public void run() {
+			flush();
+		}
+	});
+
 	/**
 	 * Serial Version id for JFrame.
 	 * {@inheritDoc}
 	 */
 	private static final long serialVersionUID = 2353535256045293828L;
 
+	/**
+	 * Rows of the country table, one per country in the order of the map file.
+	 */
+	private static class CountryTableModel extends AbstractTableModel {
+
+		/**
+		 * Serial Version id.
+		 */
+		private static final long serialVersionUID = -3606532102950424734L;
+
+		/**
+		 * Names of the columns.
+		 */
+		private static final String[] COLUMNS = {"Continent", "Country", "Armies", "Owner", "Neighbours"};
+
+		/**
+		 * Cells of the table.
+		 */
+		private ArrayList<String[]> rows = new ArrayList<String[]>();
+
+		/**
+		 * Row of each country, indexed by country id, -1 for countries not shown.
+		 */
+		private int[] rowOf = new int[0];
+
+		/**
+		 * Lays out the table for a map.
+		 * @param newMap map to be shown.
+		 * @param count number of countries in the graph of the map.
+		 */
+		void layout(Map newMap, int count) {
+			rows.clear();
+			rowOf = new int[count];
+			Arrays.fill(rowOf, -1);
+			for(MapNode m : newMap.getMapData()) {
+				for(CountryNode n : m.getCountries()) {
+					StringBuilder neighbours = new StringBuilder();
+					for(String s : n.getNeighbourCountriesString()) {
+						neighbours.append(s).append(", ");
+					}
+					rowOf[n.getId()] = rows.size();
+					rows.add(new String[] {m.getContinentName()+", "+m.getControlValue(), n.getCountryName(), "", "", neighbours.toString()});
+				}
+			}
+			fireTableDataChanged();
+		}
+
+		/**
+		 * Sets the owner and armies of a country.
+		 * @param id id of the country.
+		 * @param owner name of the owner.
+		 * @param armies armies in the country.
+		 */
+		void setCountry(int id, String owner, int armies) {
+			int row = rowOf[id];
+			if(row<0) {
+				return;
+			}
+			rows.get(row)[2] = String.valueOf(armies);
+			rows.get(row)[3] = owner;
+			fireTableRowsUpdated(row, row);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getRowCount() {
+			return rows.size();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getColumnCount() {
+			return COLUMNS.length;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String getColumnName(int column) {
+			return COLUMNS[column];
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Object getValueAt(int row, int column) {
+			return rows.get(row)[column];
+		}
+	}
+
 	/**
 	 * Sets the map view of the main window.
 	 * @param newImage image file uploaded.
@@ -55,9 +239,10 @@ public class MapView extends JPanel implements Observer {
 	    this.setBackground(Color.WHITE);
 	    this.setOpaque(true);
 	    this.setLayout(null);
+	    this.setToolTipText("");
 	    this.graphicalMap = true;
 	}
-	
+
 	/**
 	 * Sets the dimensions of the map view.
 	 */
@@ -66,72 +251,221 @@ public class MapView extends JPanel implements Observer {
 	}
 
 	/**
-	 * Displays the map file onto the map view.
+	 * Displays the map image with the markers of the countries onto the map view.
 	 */
 	protected void paintComponent(Graphics g) {
 		super.paintComponent(g);
-		if(image!=null) {	
+		if(canvas!=null) {
+			g.drawImage(canvas, 0, 0, this);
+		}
+		else if(image!=null) {
 	    	g.drawImage(image, 0, 0, this);
 	    }
 	}
 
 	/**
-	 * Sets map data on the map view in a tabular format.
-	 * @param newMapData Map data to be displayed.
-	 */
-	public void setMap(String[][] newMapData){
-		this.removeAll();
-		JPanel pane = new JPanel();
-		GridBagLayout gb = new GridBagLayout();
-		pane.setLayout(gb);
-		int i = 0;
-		for(String[] o : newMapData){
-			int j=0;
-			for(String k: o){
-			    GridBagConstraints gbc = new GridBagConstraints();
-			    gbc.ipadx = 20;
-			    gbc.gridx = j;
-			    gbc.gridy = i;
-				pane.add(new JLabel(k), gbc);
-				j++;
+	 * Gives the name, owner and armies of the country under the mouse on the map image.
+	 * @param event mouse event of the tool tip.
+	 * @return text of the tool tip, null if there is no country under the mouse.
+	 */
+	@Override
+	public String getToolTipText(MouseEvent event) {
+		for(int i=0; i<markers.length; i++) {
+			if(markers[i]!=null && markers[i].contains(event.getPoint())) {
+				return names[i]+" "+owners[i]+" "+armies[i];
 			}
-			i++;
 		}
-		JScrollPane scroll = new JScrollPane(pane);
-		scroll.setPreferredSize(getSize());
-		this.add(scroll);
-		this.validate();
+		return null;
 	}
-	
-	/**
-	 * Sets the coordinates on the map file image.
-	 * @param newMapData Map data to be displayed.
-	 */
-	public void setGraphicalMap(String[][] newMapData) {
-		this.removeAll();
-		
-		for(String[] o: newMapData){
-			JPanel panel = new JPanel();
-			panel.setSize(5, 5);
-			panel.setBackground(Color.BLACK);
-			panel.setLocation(Integer.parseInt(o[0]), Integer.parseInt(o[4]));
-			panel.add(new JLabel(" "));
-			String text = o[1]+" "+o[3]+" "+o[2];
-			panel.setToolTipText(text);
-			this.add(panel);
-		}
-		this.validate();
+
+	/**
+	 * Lays out the view for a map, only the names and places of the countries are used.
+	 * @param newMap map to be shown.
+	 */
+	private void layoutMap(Map newMap) {
+		this.map = newMap;
+		int count = newMap.getGraph().getCountryCount();
+		names = new String[count];
+		owners = new String[count];
+		armies = new int[count];
+		markers = new Rectangle[count];
+		Arrays.fill(owners, "");
+		int width = 0;
+		int height = 0;
+		for(MapNode m : newMap.getMapData()) {
+			for(CountryNode n : m.getCountries()) {
+				int id = n.getId();
+				names[id] = n.getCountryName();
+				int[] xy = n.getCoordinates();
+				markers[id] = new Rectangle(xy[0]-MARKER_WIDTH/2, xy[1]-MARKER_HEIGHT/2, MARKER_WIDTH, MARKER_HEIGHT);
+				width = Math.max(width, markers[id].x+MARKER_WIDTH);
+				height = Math.max(height, markers[id].y+MARKER_HEIGHT);
+			}
+		}
+		if(!graphicalMap) {
+			table.layout(newMap, count);
+			if(getComponentCount()==0) {
+				this.setLayout(new BorderLayout());
+				this.add(new JScrollPane(new JTable(table)), BorderLayout.CENTER);
+				this.validate();
+			}
+			return;
+		}
+		if(image!=null) {
+			width = image.getWidth();
+			height = image.getHeight();
+		}
+		canvas = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+		drawArea(new Rectangle(0, 0, canvas.getWidth(), canvas.getHeight()));
+		this.setPreferredSize(new Dimension(canvas.getWidth(), canvas.getHeight()));
+		repaint();
+	}
+
+	/**
+	 * Draws an area of the cached map image again: the background of the map and every marker touching the area.
+	 * @param area area to be drawn.
+	 */
+	private void drawArea(Rectangle area) {
+		Graphics2D g = canvas.createGraphics();
+		try {
+			g.setClip(area);
+			g.setColor(Color.WHITE);
+			g.fillRect(area.x, area.y, area.width, area.height);
+			if(image!=null) {
+				g.drawImage(image, area.x, area.y, area.x+area.width, area.y+area.height,
+						area.x, area.y, area.x+area.width, area.y+area.height, null);
+			}
+			g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			FontMetrics metrics = g.getFontMetrics();
+			for(int i=0; i<markers.length; i++) {
+				Rectangle marker = markers[i];
+				if(marker==null || !marker.intersects(area)) {
+					continue;
+				}
+				g.setColor(owners[i].isEmpty() ? Color.BLACK : colorOf(owners[i]));
+				g.fillRoundRect(marker.x, marker.y, marker.width, marker.height, 8, 8);
+				g.setColor(Color.WHITE);
+				String text = String.valueOf(armies[i]);
+				g.drawString(text, marker.x+(marker.width-metrics.stringWidth(text))/2,
+						marker.y+(marker.height+metrics.getAscent()-metrics.getDescent())/2);
+			}
+		}finally {
+			g.dispose();
+		}
+	}
+
+	/**
+	 * Gives the color of an owner, owners get the next free color when first seen.
+	 * @param owner name of the owner.
+	 * @return color of the owner.
+	 */
+	private Color colorOf(String owner) {
+		Color color = colors.get(owner);
+		if(color==null) {
+			color = OWNER_COLORS[colors.size()%OWNER_COLORS.length];
+			colors.put(owner, color);
+		}
+		return color;
+	}
+
+	/**
+	 * Applies the countries that changed to the view, only their markers or rows are drawn again.
+	 * @param delta countries that changed.
+	 */
+	public void applyDelta(MapDelta delta) {
+		ArrayList<MapDelta> deltas = new ArrayList<MapDelta>(1);
+		deltas.add(delta);
+		applyDeltas(deltas);
+	}
+
+	/**
+	 * Applies deltas in order, a country in several deltas is drawn once with its last values.
+	 * Deltas before the last full delta are skipped, the layout draws everything again.
+	 * @param deltas countries that changed, in the order they were sent.
+	 */
+	private void applyDeltas(ArrayList<MapDelta> deltas) {
+		int first = 0;
+		for(int k=0; k<deltas.size(); k++) {
+			if(deltas.get(k).isFull()) {
+				first = k;
+			}
+		}
+		MapDelta start = deltas.get(first);
+		if(start.isFull() || start.getMap()!=this.map) {
+			layoutMap(start.getMap());
+		}
+		boolean[] changed = new boolean[owners.length];
+		for(int k=first; k<deltas.size(); k++) {
+			MapDelta delta = deltas.get(k);
+			for(int i=0; i<delta.size(); i++) {
+				int id = delta.getCountry(i);
+				owners[id] = delta.getOwner(i);
+				armies[id] = delta.getArmies(i);
+				changed[id] = true;
+			}
+		}
+		for(int id=0; id<changed.length; id++) {
+			if(!changed[id]) {
+				continue;
+			}
+			if(!graphicalMap) {
+				table.setCountry(id, owners[id], armies[id]);
+			}
+			else if(canvas!=null && markers[id]!=null) {
+				drawArea(markers[id]);
+				repaint(markers[id]);
+			}
+		}
+	}
+
+	/**
+	 * Applies the deltas queued so far, on the event dispatch thread.
+	 */
+	public void flush() {
+		ArrayList<MapDelta> deltas;
+		synchronized(pending) {
+			if(pending.isEmpty()) {
+				return;
+			}
+			deltas = new ArrayList<MapDelta>(pending);
+			pending.clear();
+		}
+		applyDeltas(deltas);
+	}
+
+	/**
+	 * Gives the owner of a country as shown by the view.
+	 * @param id id of the country.
+	 * @return name of the owner, empty if none.
+	 */
+	public String getOwner(int id) {
+		return this.owners[id];
+	}
+
+	/**
+	 * Gives the armies of a country as shown by the view.
+	 * @param id id of the country.
+	 * @return armies in the country.
+	 */
+	public int getArmies(int id) {
+		return this.armies[id];
 	}
 
 	/**
 	 * Observer pattern function for Observers to update when there is a notification from the observable.
+	 * The delta is queued for the next frame, it holds a copy of the changes so the game can go on meanwhile.
 	 */
 	@Override
-	public void update(Observable obs, Object map) {
-		if(graphicalMap){
-			setGraphicalMap(((Map) obs).getMapDataObject());
-		}else{
-			setMap(((Map) obs).getMapObject());
+	public void update(Observable obs, Object arg) {
+		if(!(arg instanceof MapDelta)) {
+			return;
+		}
+		synchronized(pending) {
+			if(((MapDelta) arg).isFull()) {
+				pending.clear();
+			}
+			pending.add((MapDelta) arg);
 		}
+		throttle.request();
 	}
 }
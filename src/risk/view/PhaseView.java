@@ -3,6 +3,7 @@ package risk.view;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
+import java.util.ArrayList;
 import java.util.Observable;
 import java.util.Observer;
 
@@ -17,6 +18,7 @@ import risk.model.player.Player;
 
 /**
  * Implements the Phase View panel of the main window using Observer Pattern.
+ * Messages sent by the game thread are queued and shown together once per frame.
  * @author Gunpreet
  * @version 1.2
  */
@@ -28,6 +30,11 @@ public class PhaseView extends JPanel implements Observer{
 	 */
 	private static final long serialVersionUID = 5240018585440964453L;
 	
+	/**
+	 * Number of messages of a phase kept, older messages of a long phase are dropped.
+	 */
+	private static final int MAX_MESSAGES = 200;
+	
 	/**
 	 * Store the current phase info
 	 */
@@ -38,7 +45,25 @@ public class PhaseView extends JPanel implements Observer{
 	 */
 	private JPanel panel;
 	
+	/**
+	 * Scroll pane of the messages.
+	 */
 	private JScrollPane scroll;
+	
+	/**
+	 * Messages of the current phase, the panel shows them at the next frame.
+	 */
+	private ArrayList<String> messages = new ArrayList<String>();
+	
+	/**
+	 * Shows the messages once per frame.
+	 */
+	private FrameThrottle throttle = new FrameThrottle(new Runnable() {
+		@Override
+		public void run() {
+			refresh();
+		}
+	});
 
 	/**
 	 * Constructor to initialize PhaseView.
@@ -55,16 +80,37 @@ public class PhaseView extends JPanel implements Observer{
 
 	/**
 	 * Observer method called on notifyObservers for PhaseView.
+	 * The message is kept with the other messages of the phase and the panel is refreshed at the next frame.
 	 */
 	@Override
 	public void update(Observable o, Object arg) {
 		String current = ((GameDriver) o).getTurnManager().getPhase();
-		if(!this.phase.equals(current)) {
-			this.phase = current;
-			panel.removeAll();
+		synchronized(messages) {
+			if(!this.phase.equals(current)) {
+				this.phase = current;
+				messages.clear();
+			}
+			if(messages.size()==MAX_MESSAGES) {
+				messages.remove(0);
+			}
+			messages.add(String.valueOf(arg));
+		}
+		throttle.request();
+	}
+	
+	/**
+	 * Shows the messages of the current phase, on the event dispatch thread.
+	 */
+	private void refresh() {
+		String[] lines;
+		synchronized(messages) {
+			lines = messages.toArray(new String[messages.size()]);
+		}
+		panel.removeAll();
+		for(String line : lines) {
+			panel.add(new JLabel(line));
 		}
 		scroll.setPreferredSize(new Dimension(this.getWidth(),this.getHeight()));
-		panel.add(new JLabel((String) arg));
 		this.validate();
 		this.repaint();
 	}
@@ -0,0 +1,138 @@
+package risk.view;
+
+import java.awt.FlowLayout;
+import java.awt.event.ActionListener;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.event.ChangeListener;
+
+/**
+ * Window with the playback controls of a game between computer players: pause, step, speed and
+ * how many turns are played for every rendered turn.
+ */
+public class PlaybackView extends JFrame {
+
+	/**
+	 * Serial Version id for JFrame.
+	 * {@inheritDoc}
+	 */
+	private static final long serialVersionUID = 3061552395386017315L;
+
+	/**
+	 * Button to pause or resume the game.
+	 */
+	private JButton pause;
+
+	/**
+	 * Button to play one turn of a paused game.
+	 */
+	private JButton step;
+
+	/**
+	 * Dropdown of the speeds.
+	 */
+	private JComboBox<String> speeds;
+
+	/**
+	 * Spinner of the number of turns played for every rendered turn.
+	 */
+	private JSpinner renderEvery;
+
+	/**
+	 * Creates the playback window.
+	 * @param speedNames names of the speeds, in the order of their index.
+	 * @param speedIndex index of the speed selected first.
+	 */
+	public PlaybackView(String[] speedNames, int speedIndex) {
+		super("Playback");
+		pause = new JButton("Pause");
+		step = new JButton("Step");
+		step.setEnabled(false);
+		speeds = new JComboBox<String>(speedNames);
+		speeds.setSelectedIndex(speedIndex);
+		renderEvery = new JSpinner(new SpinnerNumberModel(1, 1, 1000, 1));
+		this.setLayout(new FlowLayout());
+		this.add(pause);
+		this.add(step);
+		this.add(new JLabel("Speed"));
+		this.add(speeds);
+		this.add(new JLabel("Render every"));
+		this.add(renderEvery);
+		this.add(new JLabel("turns"));
+		this.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+		this.pack();
+		this.setVisible(true);
+	}
+
+	/**
+	 * Shows the controls of a paused or a running game.
+	 * @param paused true if the game is paused.
+	 */
+	public void setPaused(boolean paused) {
+		pause.setText(paused ? "Resume" : "Pause");
+		step.setEnabled(paused);
+	}
+
+	/**
+	 * Disables the controls once the game is over.
+	 */
+	public void gameOver() {
+		pause.setEnabled(false);
+		step.setEnabled(false);
+		speeds.setEnabled(false);
+		renderEvery.setEnabled(false);
+	}
+
+	/**
+	 * Gives the index of the selected speed.
+	 * @return index in the names given to the constructor.
+	 */
+	public int getSpeedIndex() {
+		return speeds.getSelectedIndex();
+	}
+
+	/**
+	 * Gives the number of turns played for every rendered turn.
+	 * @return 1 to render every turn.
+	 */
+	public int getRenderEvery() {
+		return (Integer) renderEvery.getValue();
+	}
+
+	/**
+	 * Adds listener to the pause button.
+	 * @param listener listener of the button.
+	 */
+	public void pauseButtonAction(ActionListener listener) {
+		pause.addActionListener(listener);
+	}
+
+	/**
+	 * Adds listener to the step button.
+	 * @param listener listener of the button.
+	 */
+	public void stepButtonAction(ActionListener listener) {
+		step.addActionListener(listener);
+	}
+
+	/**
+	 * Adds listener to the speed dropdown.
+	 * @param listener listener of the dropdown.
+	 */
+	public void speedAction(ActionListener listener) {
+		speeds.addActionListener(listener);
+	}
+
+	/**
+	 * Adds listener to the render every spinner.
+	 * @param listener listener of the spinner.
+	 */
+	public void renderEveryAction(ChangeListener listener) {
+		renderEvery.addChangeListener(listener);
+	}
+}
@@ -130,7 +130,7 @@ public class SetUpDialog {
 	public String[][] getPlayerInfo() {
 		int n = getInput(2,6,"Enter number of Players");
 		String[][] playerNames = new String[n][2];
-		String[] behaviors = {"aggressive", "benevolent", "cheater", "human", "random"};
+		String[] behaviors = {"aggressive", "benevolent", "cheater", "human", "random", "mcts"};
 		JPanel panel = new JPanel();
 		JTextField field = new JTextField(10);
 		JComboBox<String> options = new JComboBox<String>(behaviors);
@@ -156,6 +156,14 @@ public class SetUpDialog {
 		return playerNames;
 	}
 	
+	/**
+	 * Shows why a map file can not be played.
+	 * @param message errors found in the map file, one per line.
+	 */
+	public void showMapErrors(String message) {
+		JOptionPane.showMessageDialog(null, message, "Cannot load Map file", JOptionPane.ERROR_MESSAGE);
+	}
+	
 	/**
 	 * Places army on the selected countries.
 	 * @param countryList List of countries where the player can place armies.
@@ -0,0 +1,51 @@
+package risk.view;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs code of the views on the event dispatch thread when it is called from the game thread.
+ */
+public final class SwingThread {
+
+	/**
+	 * Not to be created, only static methods.
+	 */
+	private SwingThread() {
+	}
+
+	/**
+	 * Runs code on the event dispatch thread, at once if already on it, otherwise later.
+	 * @param code code changing the views.
+	 */
+	public static void run(Runnable code) {
+		if(SwingUtilities.isEventDispatchThread()) {
+			code.run();
+		}
+		else {
+			SwingUtilities.invokeLater(code);
+		}
+	}
+
+	/**
+	 * Runs code on the event dispatch thread and waits for its result, used to ask the user from the game thread.
+	 * @param code code asking the user.
+	 * @param <T> type of the result.
+	 * @return result of the code.
+	 */
+	public static <T> T call(Callable<T> code) {
+		FutureTask<T> task = new FutureTask<T>(code);
+		run(task);
+		try {
+			return task.get();
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the user", e);
+		}catch(ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+}
@@ -220,7 +220,7 @@ public class TournamentInfo extends JFrame{
 		playerPanel.setLayout(new GridBagLayout());
 		behaviors = new ArrayList<JComboBox<String>>();
 		names = new ArrayList<JTextField>();
-		String[] tempBeh = {"aggressive", "benevolent", "cheater", "human","random"};
+		String[] tempBeh = {"aggressive", "benevolent", "cheater", "human","random","mcts"};
 		for(int i=0; i< (int) playerCount.getValue(); i++) {
 			GridBagConstraints c = new GridBagConstraints();
 			c.gridx = 0;
@@ -2,6 +2,7 @@ package risk.view;
 
 import java.awt.Color;
 import java.awt.FlowLayout;
+import java.util.Locale;
 import java.util.Observable;
 import java.util.Observer;
 
@@ -9,12 +10,14 @@ import javax.swing.BorderFactory;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 
+import risk.model.gamemode.DominationStats;
 import risk.model.gamemode.GameDriver;
-import risk.model.player.Player;
 
 /**
  * This class implements the World Domination View which shows 
- * the portion of countries each player occupy.
+ * the portion of countries, the continents and the armies each player holds.
+ * The view reads the DominationStats of the game on every notification, which takes O(players),
+ * and is refreshed at the next frame only when they changed.
  * @author Amitt
  * @version 1.2
  */
@@ -25,6 +28,21 @@ public class WorldDominationView extends JPanel implements Observer {
 	 * {@inheritDoc}
 	 */
 	private static final long serialVersionUID = -1084389704252002294L;
+	
+	/**
+	 * Last stats of the game, shown at the next frame.
+	 */
+	private volatile DominationStats stats;
+	
+	/**
+	 * Shows the last stats once per frame.
+	 */
+	private FrameThrottle throttle = new FrameThrottle(new Runnable() {
+		@Override
+		public void run() {
+			refresh();
+		}
+	});
 
 	/**
 	 * Creates World Domination View on the Main frame
@@ -38,20 +56,38 @@ public class WorldDominationView extends JPanel implements Observer {
 	
 	/**
 	 * Observer pattern function for Observers to update when there is a notification from the observable.
+	 * The stats are taken on the game thread and the view is refreshed only if they changed.
 	 */
 	@Override
 	public void update(Observable o, Object arg) {
-		if(arg.equals("Reinforcement") || arg.equals("Fortification")){
-			this.removeAll();
-			JLabel label = new JLabel("<html><b>World Domination View</b></html>");
-			this.add(label);
-			
-			int totalCountries = ((GameDriver) o).getMap().getCountryCount();
-			System.out.println(totalCountries);
-			for (Player player : ((GameDriver) o).getPlayers()){
-				System.out.println(player.getPlayerCountryCount());
-				this.add(new JLabel(" "+player.getName() + ": " + ((float)(player.getPlayerCountryCount()/(float)totalCountries))*100 + "% "));
-			}
+		DominationStats current = ((GameDriver) o).getDominationStats();
+		if(!current.equals(this.stats)) {
+			this.stats = current;
+			throttle.request();
+		}
+	}
+	
+	/**
+	 * Gives the stats shown by the view.
+	 * @return last stats of the game, null before the first notification.
+	 */
+	public DominationStats getStats() {
+		return this.stats;
+	}
+	
+	/**
+	 * Shows the last stats, on the event dispatch thread.
+	 */
+	private void refresh() {
+		DominationStats shown = this.stats;
+		this.removeAll();
+		JLabel label = new JLabel("<html><b>World Domination View</b></html>");
+		this.add(label);
+		for(int i=0; i<shown.size(); i++) {
+			this.add(new JLabel(String.format(Locale.ROOT, " %s: %.1f%%, %d continents, %d armies ",
+					shown.getName(i), shown.getPercentage(i), shown.getContinents(i), shown.getArmies(i))));
 		}
+		this.validate();
+		this.repaint();
 	}
 }
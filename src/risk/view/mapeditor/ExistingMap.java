@@ -191,6 +191,14 @@ public class ExistingMap extends JFrame {
 		JOptionPane.showMessageDialog(contentPane, "Map file validation error", "Error", JOptionPane.ERROR_MESSAGE);
 	}
 	
+	/**
+	 * Function to display the lines of a map file that can not be read.
+	 * @param errors errors found while reading the map file.
+	 */
+	public void showReadErrors(ArrayList<String> errors) {
+		JOptionPane.showMessageDialog(contentPane, "Cannot load Map file with errors:\n"+String.join("\n", errors), "Error", JOptionPane.ERROR_MESSAGE);
+	}
+	
 	/**
 	 * Function to display error message dialog box.
 	 */
@@ -4,9 +4,20 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import test.bench.TestBenchmarkRunner;
+import test.risk.controller.TestGameLoop;
+import test.risk.controller.TestPlaybackController;
+import test.risk.model.gamemode.TestBattleOdds;
+import test.risk.model.gamemode.TestDice;
+import test.risk.model.gamemode.TestDominationStats;
 import test.risk.model.gamemode.TestGameDriver;
+import test.risk.model.gamemode.TestGameSnapshot;
+import test.risk.model.gamemode.TestGameState;
+import test.risk.model.gamemode.TestTournamentMode;
 import test.risk.model.map.TestCountryNode;
+import test.risk.model.map.TestMapDelta;
 import test.risk.model.map.TestMapFile;
+import test.risk.model.map.TestMapGraph;
 import test.risk.model.map.TestMapModel;
 import test.risk.model.map.TestMapReader;
 import test.risk.model.map.TestMapValidation;
@@ -14,8 +25,12 @@ import test.risk.model.map.TestMapWriter;
 import test.risk.model.player.TestAggressiveStrategy;
 import test.risk.model.player.TestBenevolentStrategy;
 import test.risk.model.player.TestCheaterStrategy;
+import test.risk.model.player.TestMctsStrategy;
 import test.risk.model.player.TestPlayer;
 import test.risk.model.player.TestRandomStrategy;
+import test.risk.model.player.TestTimedStrategy;
+import test.risk.model.util.TestLogFileSink;
+import test.risk.model.util.TestLogListModel;
 
 /**
  * This Test Suite calls all the test classes.
@@ -27,13 +42,28 @@ import test.risk.model.player.TestRandomStrategy;
 				TestMapValidation.class,
 				TestPlayer.class,
 				TestGameDriver.class,
+				TestTournamentMode.class,
+				TestDominationStats.class,
+				TestDice.class,
+				TestBattleOdds.class,
+				TestGameSnapshot.class,
+				TestGameState.class,
 				TestMapModel.class,
 				TestMapWriter.class,
 				TestMapReader.class,
+				TestMapGraph.class,
+				TestMapDelta.class,
 				TestAggressiveStrategy.class,
 				TestBenevolentStrategy.class,
 				TestCheaterStrategy.class,
-				TestRandomStrategy.class
+				TestMctsStrategy.class,
+				TestTimedStrategy.class,
+				TestRandomStrategy.class,
+				TestLogListModel.class,
+				TestLogFileSink.class,
+				TestGameLoop.class,
+				TestPlaybackController.class,
+				TestBenchmarkRunner.class
 			})
 
 public class AllTests {
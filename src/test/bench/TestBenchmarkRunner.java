@@ -0,0 +1,66 @@
+package test.bench;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import bench.Benchmark;
+import bench.BenchmarkRunner;
+import bench.BenchmarkRunner.Result;
+import bench.EngineBenchmarks;
+
+/**
+ * TestCase for BenchmarkRunner and the engine benchmarks.
+ */
+public class TestBenchmarkRunner {
+
+	/**
+	 * Tests that a result is compared with its baseline on time and on checksum.
+	 */
+	@Test
+	public void testCompare() {
+		Result base = new Result("b", 10, 100, 1, 42);
+		assertEquals("", BenchmarkRunner.compare(new Result("b", 10, 119, 1, 42), base, 20));
+		assertEquals("REGRESSION", BenchmarkRunner.compare(new Result("b", 10, 121, 1, 42), base, 20));
+		assertEquals("CHECKSUM", BenchmarkRunner.compare(new Result("b", 10, 50, 1, 43), base, 20));
+		assertEquals("", BenchmarkRunner.compare(base, null, 20));
+	}
+
+	/**
+	 * Tests that every engine benchmark has the same checksum when it is set up again, so that runs can be compared.
+	 */
+	@Test
+	public void testChecksumsAreReproducible() {
+		ArrayList<Benchmark> first = EngineBenchmarks.all();
+		ArrayList<Benchmark> second = EngineBenchmarks.all();
+		assertEquals(first.size(), second.size());
+		for(int i=0; i<first.size(); i++) {
+			first.get(i).setUp();
+			second.get(i).setUp();
+			assertEquals(first.get(i).getName(), first.get(i).operation(), second.get(i).operation());
+		}
+	}
+
+	/**
+	 * Tests that the runner measures operations.
+	 */
+	@Test
+	public void testRun() {
+		BenchmarkRunner runner = new BenchmarkRunner();
+		runner.setIterations(0, 2, 5);
+		Result result = runner.run(new Benchmark("count") {
+			private long n;
+
+			@Override
+			public long operation() {
+				return ++n;
+			}
+		});
+		assertEquals("count", result.getName());
+		assertEquals(1, result.getChecksum());
+		assertTrue(result.getOperations()>0);
+		assertTrue(result.getMean()>0);
+	}
+}
@@ -0,0 +1,67 @@
+package test.risk.controller;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import risk.controller.GameLoop;
+
+/**
+ * This test class tests the thread running the commands of a game.
+ */
+public class TestGameLoop {
+
+	/**
+	 * Tests that the commands run in order on the thread of the loop, and that a failing command does not stop it.
+	 * @throws Exception if interrupted while waiting for the loop.
+	 */
+	@Test
+	public void testCommandsRunInOrder() throws Exception {
+		final GameLoop loop = new GameLoop("test-loop");
+		final List<Integer> done = Collections.synchronizedList(new ArrayList<Integer>());
+		final boolean[] onLoop = {true};
+		for(int i=0; i<100; i++) {
+			final int n = i;
+			loop.submit(new Runnable() {
+				@Override
+				public void run() {
+					onLoop[0] &= loop.isLoopThread();
+					if(n==50) {
+						throw new IllegalStateException("command "+n+" fails");
+					}
+					done.add(n);
+				}
+			});
+		}
+		loop.stop();
+		loop.join(5000);
+		assertEquals(99, done.size());
+		assertEquals(Integer.valueOf(49), done.get(49));
+		assertEquals(Integer.valueOf(51), done.get(50));
+		assertTrue(onLoop[0]);
+		assertFalse(loop.isLoopThread());
+	}
+
+	/**
+	 * Tests that commands given after the loop was stopped are ignored.
+	 * @throws Exception if interrupted while waiting for the loop.
+	 */
+	@Test
+	public void testStopIgnoresLaterCommands() throws Exception {
+		GameLoop loop = new GameLoop("test-loop");
+		final List<Integer> done = Collections.synchronizedList(new ArrayList<Integer>());
+		loop.stop();
+		loop.submit(new Runnable() {
+			@Override
+			public void run() {
+				done.add(1);
+			}
+		});
+		loop.join(5000);
+		assertTrue(done.isEmpty());
+	}
+}
@@ -0,0 +1,123 @@
+package test.risk.controller;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import risk.controller.PlaybackController;
+import risk.controller.PlaybackController.Speed;
+import risk.model.gamemode.GameDriver;
+
+/**
+ * This test class tests the pace and the rendered turns of the playback of a game.
+ */
+public class TestPlaybackController {
+
+	/**
+	 * Game played back.
+	 */
+	private GameDriver driver;
+
+	/**
+	 * Playback tested.
+	 */
+	private PlaybackController playback;
+
+	/**
+	 * Creates a game and its playback.
+	 */
+	@Before
+	public void setUp() {
+		driver = new GameDriver(".//data//test//testMap.map", 0);
+		playback = new PlaybackController();
+	}
+
+	/**
+	 * Tests that only every Nth turn is rendered and that a turn lasts as long as the speed asks for.
+	 */
+	@Test
+	public void testRenderEveryNthTurn() {
+		playback.setSpeed(Speed.FAST);
+		playback.setRenderEvery(3);
+		long start = System.nanoTime();
+		StringBuilder rendered = new StringBuilder();
+		for(int i=0; i<6; i++) {
+			playback.turnEnded(driver);
+			rendered.append(playback.isRendering() ? 'R' : '-');
+		}
+		assertEquals("--R--R", rendered.toString());
+		assertTrue((System.nanoTime()-start)/1000000L >= 5*Speed.FAST.getTurnMillis());
+	}
+
+	/**
+	 * Tests that a game does not wait by default, at the highest speed, and the views only sample it.
+	 */
+	@Test
+	public void testMaxSpeed() {
+		assertEquals(Speed.MAX, playback.getSpeed());
+		long start = System.nanoTime();
+		int rendered = 0;
+		for(int i=0; i<10000; i++) {
+			playback.turnEnded(driver);
+			if(playback.isRendering()) {
+				rendered++;
+			}
+		}
+		long millis = (System.nanoTime()-start)/1000000L;
+		assertTrue(millis < 1000);
+		assertTrue(rendered <= millis/PlaybackController.SAMPLE_MILLIS + 1);
+		assertEquals(10000, playback.getTurns());
+	}
+
+	/**
+	 * Tests that a paused game waits at the end of the turn, plays one turn for each step and goes on when resumed.
+	 * @throws Exception if interrupted while waiting for the game.
+	 */
+	@Test
+	public void testPauseAndStep() throws Exception {
+		playback.setSpeed(Speed.MAX);
+		playback.pause();
+		final int[] played = {0};
+		Thread game = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				for(int i=0; i<3; i++) {
+					playback.turnEnded(driver);
+					synchronized(played) {
+						played[0]++;
+					}
+				}
+			}
+		});
+		game.start();
+		Thread.sleep(100);
+		synchronized(played) {
+			assertEquals(0, played[0]);
+		}
+		playback.step();
+		Thread.sleep(100);
+		synchronized(played) {
+			assertEquals(1, played[0]);
+		}
+		assertTrue(playback.isRendering());
+		playback.resume();
+		game.join(5000);
+		assertEquals(3, played[0]);
+	}
+
+	/**
+	 * Tests that a game with a playback ends normally and renders its last state.
+	 */
+	@Test
+	public void testGameWithPlayback() {
+		playback.setSpeed(Speed.MAX);
+		playback.setRenderEvery(10);
+		GameDriver game = new GameDriver(".//data//test//testMap.map", 50);
+		game.setPlayback(playback);
+		game.runGame(new String[][] {{"Player1","benevolent"},{"Player2","benevolent"}});
+		assertEquals("draw", game.getWinner());
+		assertTrue(playback.getTurns() > 0);
+		assertTrue(playback.isRendering());
+	}
+}
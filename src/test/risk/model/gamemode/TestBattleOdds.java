@@ -0,0 +1,101 @@
+package test.risk.model.gamemode;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import risk.model.gamemode.BattleOdds;
+
+/**
+ * This class tests the exact battle odds.
+ */
+public class TestBattleOdds {
+
+	/**
+	 * Allowed rounding error.
+	 */
+	private static final double DELTA = 1e-9;
+
+	/**
+	 * This method tests the single round tables against the known odds.
+	 */
+	@Test
+	public void testRoundProbability() {
+		assertEquals(21.0/36, BattleOdds.roundProbability(1, 1, 1), DELTA);
+		assertEquals(2890.0/7776, BattleOdds.roundProbability(3, 2, 0), DELTA);
+		assertEquals(2611.0/7776, BattleOdds.roundProbability(3, 2, 1), DELTA);
+		assertEquals(2275.0/7776, BattleOdds.roundProbability(3, 2, 2), DELTA);
+		assertEquals(0, BattleOdds.roundProbability(3, 1, 2), DELTA);
+	}
+
+	/**
+	 * This method tests that a campaign distribution adds up to one and matches a single round when only one round is possible.
+	 */
+	@Test
+	public void testCampaign() {
+		assertEquals(15.0/36, BattleOdds.winProbability(2, 1, 1), DELTA);
+		double[] result = BattleOdds.campaign(10, 7, 3);
+		double total = 0;
+		for(double p : result) {
+			total += p;
+		}
+		assertEquals(1, total, DELTA);
+		assertTrue(BattleOdds.winProbability(20, 2, 1) > BattleOdds.winProbability(5, 2, 1));
+	}
+
+	/**
+	 * This method tests that samples found in the cumulative distribution follow the odds of the campaign.
+	 */
+	@Test
+	public void testSampleFollowsOdds() {
+		Random rand = new Random(5);
+		int wins = 0;
+		int samples = 20000;
+		for(int i=0; i<samples; i++) {
+			if(BattleOdds.defenderLeft(BattleOdds.sample(rand, 6, 6, 1))==0) {
+				wins++;
+			}
+		}
+		assertEquals(BattleOdds.winProbability(6, 6, 1), (double) wins/samples, 0.02);
+	}
+
+	/**
+	 * This method tests that campaigns bigger than the cached ones are played round by round and end in a final state.
+	 */
+	@Test
+	public void testLargeCampaign() {
+		Random rand = new Random(7);
+		int big = BattleOdds.MAX_CACHED_ARMIES*2;
+		int wins = 0;
+		for(int i=0; i<200; i++) {
+			int outcome = BattleOdds.sample(rand, big, big/2, 1);
+			int a = BattleOdds.attackerLeft(outcome);
+			int d = BattleOdds.defenderLeft(outcome);
+			assertTrue(a>=1 && a<=big);
+			assertTrue(d>=0 && d<=big/2);
+			assertTrue(d==0 || a==1);
+			if(d==0) {
+				wins++;
+			}
+		}
+		assertTrue(wins>150);
+	}
+
+	/**
+	 * This method tests that sampled outcomes are final states of the campaign.
+	 */
+	@Test
+	public void testSample() {
+		Random rand = new Random(3);
+		for(int i=0; i<200; i++) {
+			int outcome = BattleOdds.sample(rand, 8, 5, 2);
+			int a = BattleOdds.attackerLeft(outcome);
+			int d = BattleOdds.defenderLeft(outcome);
+			assertTrue(a>=1 && a<=8);
+			assertTrue(d>=0 && d<=5);
+			assertTrue(d==0 || a<=2);
+		}
+	}
+}
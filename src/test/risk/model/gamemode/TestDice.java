@@ -0,0 +1,65 @@
+package test.risk.model.gamemode;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import risk.model.gamemode.Dice;
+
+/**
+ * This class tests the packed dice and battle resolution.
+ */
+public class TestDice {
+
+	/**
+	 * This method tests that dice are sorted from high to low.
+	 */
+	@Test
+	public void testSort() {
+		int dice = Dice.sort(2, 6, 4);
+		assertEquals(6, Dice.die(dice, 0));
+		assertEquals(4, Dice.die(dice, 1));
+		assertEquals(2, Dice.die(dice, 2));
+		dice = Dice.sort(3, 0, 5);
+		assertEquals(5, Dice.die(dice, 0));
+		assertEquals(3, Dice.die(dice, 1));
+		assertEquals(0, Dice.die(dice, 2));
+	}
+
+	/**
+	 * This method tests the losses of a battle, defender wins ties.
+	 */
+	@Test
+	public void testBattle() {
+		int losses = Dice.battle(Dice.sort(6, 4, 2), Dice.sort(4, 2, 0));
+		assertEquals(0, Dice.attackerLosses(losses));
+		assertEquals(2, Dice.defenderLosses(losses));
+		losses = Dice.battle(Dice.sort(5, 3, 1), Dice.sort(5, 1, 0));
+		assertEquals(1, Dice.attackerLosses(losses));
+		assertEquals(1, Dice.defenderLosses(losses));
+		losses = Dice.battle(Dice.sort(6, 6, 6), Dice.sort(1, 0, 0));
+		assertEquals(0, Dice.attackerLosses(losses));
+		assertEquals(1, Dice.defenderLosses(losses));
+	}
+
+	/**
+	 * This method tests that a roll has the requested number of dice between 1 and 6.
+	 */
+	@Test
+	public void testRoll() {
+		Random rand = new Random(7);
+		for(int n=0; n<=Dice.MAX_DICE; n++) {
+			int dice = Dice.roll(rand, n);
+			for(int k=0; k<Dice.MAX_DICE; k++) {
+				if(k<n) {
+					assertTrue(Dice.die(dice, k)>=1 && Dice.die(dice, k)<=6);
+				}
+				else {
+					assertEquals(0, Dice.die(dice, k));
+				}
+			}
+		}
+	}
+}
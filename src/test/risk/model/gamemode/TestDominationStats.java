@@ -0,0 +1,113 @@
+package test.risk.model.gamemode;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import risk.model.gamemode.DominationStats;
+import risk.model.gamemode.GameDriver;
+import risk.model.map.CountryNode;
+import risk.model.map.MapNode;
+import risk.model.player.Player;
+import risk.model.util.GameRandom;
+
+/**
+ * This class tests that the domination stats kept by the players match the map.
+ */
+public class TestDominationStats {
+
+	/**
+	 * Game the stats are taken from.
+	 */
+	private GameDriver driver;
+
+	/**
+	 * Plays a short game between computer players.
+	 */
+	@Before
+	public void setUp() {
+		driver = new GameDriver(".//data//test//testMap3.map", 10);
+		driver.setRandom(new GameRandom(5));
+		driver.runGame(new String[][] {{"Player1","aggressive"},{"Player2","random"},{"Player3","benevolent"}});
+	}
+
+	/**
+	 * Tests that the stats are the same as counted by walking every country of the map.
+	 */
+	@Test
+	public void testStatsMatchMap() {
+		assertStatsMatchMap(driver.getDominationStats());
+	}
+
+	/**
+	 * Tests that changes of armies and owners are kept up to date in the stats.
+	 */
+	@Test
+	public void testStatsFollowChanges() {
+		DominationStats before = driver.getDominationStats();
+		assertEquals(before, driver.getDominationStats());
+		assertTrue(driver.getPlayers().size()>1);
+		Player first = driver.getPlayers().get(0);
+		Player last = driver.getPlayers().get(driver.getPlayers().size()-1);
+		CountryNode country = last.getCountries().get(0);
+		country.addArmy(4);
+		country.removeArmy();
+		assertStatsMatchMap(driver.getDominationStats());
+		country.setOwner(first);
+		country.setArmies(1);
+		DominationStats after = driver.getDominationStats();
+		assertStatsMatchMap(after);
+		assertFalse(before.equals(after));
+		assertEquals(before.getCountries(0)+1, after.getCountries(0));
+	}
+
+	/**
+	 * Tests that a neighbour the map file never declares is not counted as a country of the map.
+	 */
+	@Test
+	public void testUndeclaredNeighbourIsNotCounted() {
+		driver = new GameDriver(".//data//test//testMap.map", 10);
+		driver.setRandom(new GameRandom(5));
+		driver.runGame(new String[][] {{"Player1","aggressive"},{"Player2","random"}});
+		DominationStats stats = driver.getDominationStats();
+		assertEquals(driver.getMap().getGraph().getDeclaredCount(), stats.getTotalCountries());
+		assertTrue(stats.getTotalCountries()<driver.getMap().getGraph().getCountryCount());
+		assertStatsMatchMap(stats);
+	}
+
+	/**
+	 * Checks stats against the countries of the map.
+	 * @param stats stats to be checked.
+	 */
+	private void assertStatsMatchMap(DominationStats stats) {
+		assertEquals(driver.getPlayers().size(), stats.size());
+		int total = 0;
+		for(int i=0; i<stats.size(); i++) {
+			Player player = driver.getPlayers().get(i);
+			int countries = 0;
+			int armies = 0;
+			int continents = 0;
+			for(MapNode continent : driver.getMap().getMapData()) {
+				int owned = 0;
+				for(CountryNode country : continent.getCountries()) {
+					if(country.getOwner()==player) {
+						owned++;
+						armies += country.getArmiesCount();
+					}
+				}
+				countries += owned;
+				if(owned==continent.getCountriesCount()) {
+					continents++;
+				}
+			}
+			assertEquals(player.getName(), stats.getName(i));
+			assertEquals(countries, stats.getCountries(i));
+			assertEquals(armies, stats.getArmies(i));
+			assertEquals(continents, stats.getContinents(i));
+			assertEquals(countries*100f/stats.getTotalCountries(), stats.getPercentage(i), 0.001f);
+			total += countries;
+		}
+		assertEquals(stats.getTotalCountries(), total);
+	}
+}
@@ -3,6 +3,8 @@ package test.risk.model.gamemode;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Observable;
+import java.util.Observer;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -12,6 +14,8 @@ import risk.model.map.CountryNode;
 import risk.model.map.MapNode;
 import risk.model.player.HumanStrategy;
 import risk.model.player.Player;
+import risk.model.util.GameEvent.Level;
+import risk.model.util.GameRandom;
 
 
 /**
@@ -124,6 +128,41 @@ public class TestGameDriver {
 		assertEquals(0, country4.getArmiesCount());
 	}
 	
+	/**
+	 * This method tests that a campaign against a human defender asks the defender for its dice every round.
+	 */
+	@Test
+	public void testAttackUntilAsksHumanDefender() {
+		CountryNode from = driver.getMap().getCountry(0);
+		CountryNode to = from.getNeighbourCountries()[0];
+		ArrayList<CountryNode> attackerCountries = new ArrayList<CountryNode>();
+		attackerCountries.add(from);
+		ArrayList<CountryNode> defenderCountries = new ArrayList<CountryNode>();
+		defenderCountries.add(to);
+		player1 = new Player("Player1", 0, attackerCountries, driver);
+		player1.setStrategy(driver.createBehavior("aggressive"));
+		player2 = new Player("Player2", 0, defenderCountries, driver);
+		final int[] asked = {0};
+		player2.setStrategy(new HumanStrategy(driver) {
+			@Override
+			public int selectDiceNumber(int diceToRoll, String pName) {
+				asked[0]++;
+				return diceToRoll;
+			}
+		});
+		driver.setPlayerList(player1);
+		driver.setPlayerList(player2);
+		driver.setCurrentPlayer(player1);
+		player1.setTurnTrue();
+		from.setArmies(20);
+		to.setArmies(5);
+		/*only the campaign is played, the turn loop does not go on after it.*/
+		driver.getTurnManager().setGameOver(true);
+		driver.attackUntil(from.getCountryName(), to.getCountryName(), 1);
+		assertTrue(asked[0]>0);
+		assertTrue(to.getOwner()==player1 || from.getArmiesCount()==1);
+	}
+	
 	/**
 	 * This method tests the max method from GameDriver class.
 	 */
@@ -175,4 +214,65 @@ public class TestGameDriver {
 		driver.dividingCountries(mapData);
 		assertEquals(2,driver.getCurrentPlayer().getPlayerCountryCount());
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * This method tests that a long computer-only game runs in a flat turn loop without overflowing the stack.
+	 */
+	@Test
+	public void testLongComputerGame() {
+		GameDriver longGame = new GameDriver(".//data//test//testMap.map", 5000);
+		String[][] playerData = {{"Player3","benevolent"},{"Player4","benevolent"}};
+		longGame.runGame(playerData);
+		assertEquals("draw", longGame.getWinner());
+		assertTrue(longGame.getTurnManager().isGameOver());
+	}
+	
+	/**
+	 * This method tests that a long game of attacking players runs on a thread with a small stack:
+	 * every attack goes back to the turn loop instead of calling the next attack from the last one.
+	 * @throws InterruptedException if the test is interrupted.
+	 */
+	@Test
+	public void testLongAttackingGameOnSmallStack() throws InterruptedException {
+		final GameDriver longGame = new GameDriver(".//data//map//World.map", 3000);
+		longGame.setRandom(new GameRandom(7));
+		final Throwable[] failure = new Throwable[1];
+		Thread game = new Thread(null, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					longGame.runGame(new String[][] {{"Player1","aggressive"},{"Player2","random"},{"Player3","random"}});
+				}catch(Throwable t) {
+					failure[0] = t;
+				}
+			}
+		}, "long-game", 256*1024);
+		game.start();
+		game.join();
+		assertNull(failure[0]);
+		assertTrue(longGame.getTurnManager().isGameOver());
+		assertNotNull(longGame.getWinner());
+	}
+	
+	/**
+	 * This method tests that log messages below the log level are not sent and the others are formatted for the observers.
+	 */
+	@Test
+	public void testLogLevel() {
+		final ArrayList<String> messages = new ArrayList<String>();
+		driver.addObserver(new Observer() {
+			@Override
+			public void update(Observable o, Object arg) {
+				messages.add(String.valueOf(arg));
+			}
+		});
+		driver.setLogLevel(Level.INFO);
+		assertFalse(driver.isLogging(Level.DEBUG));
+		driver.log(Level.DEBUG, "{} placed 1 army on {}", "Player1", "Country1");
+		driver.log(Level.INFO, "Turn changed to {}", "Player2");
+		driver.nottifyObservers("Reinforcement");
+		assertEquals(2, messages.size());
+		assertEquals("Turn changed to Player2", messages.get(0));
+		assertEquals("Reinforcement", messages.get(1));
+	}
+}
@@ -0,0 +1,103 @@
+package test.risk.model.gamemode;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import risk.model.Card;
+import risk.model.gamemode.GameDriver;
+import risk.model.gamemode.GameSnapshot;
+import risk.model.player.Player;
+
+/**
+ * This class tests saving and loading games as binary snapshots.
+ */
+public class TestGameSnapshot {
+
+	/**
+	 * Map the games are played on.
+	 */
+	private static final String MAP = ".//data//test//testMap3.map";
+
+	/**
+	 * Game to be saved.
+	 */
+	private GameDriver driver;
+
+	/**
+	 * Sets up a game after the startup phase.
+	 */
+	@Before
+	public void setUp() {
+		String[][] players = {{"Player1","aggressive"},{"Player2","benevolent"}};
+		driver = new GameDriver(MAP, 20);
+		driver.createPlayers(players);
+		driver.startUpPhase();
+		driver.getPlayers().get(1).addCard(new Card("Artillery","Normal"));
+		driver.getTurnManager().setPhase("Attack");
+	}
+
+	/**
+	 * Saves the game to bytes.
+	 * @return saved game.
+	 * @throws IOException if the game can not be written.
+	 */
+	private byte[] save() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GameSnapshot.write(driver, out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * This method tests that a loaded game has the same countries, armies, cards, phase and random numbers.
+	 * @throws IOException if the game can not be saved or loaded.
+	 */
+	@Test
+	public void testSaveAndRestore() throws IOException {
+		ByteArrayInputStream in = new ByteArrayInputStream(save());
+		assertTrue(GameSnapshot.isSnapshot(in));
+		GameSnapshot snapshot = GameSnapshot.read(in);
+		GameDriver loaded = new GameDriver(snapshot.getMapFile(), snapshot.getMoveLimit());
+		snapshot.restore(loaded);
+		assertArrayEquals(driver.getMap().getArmyArray(), loaded.getMap().getArmyArray());
+		assertArrayEquals(driver.getMap().getOwnerArray(driver.getPlayers()), loaded.getMap().getOwnerArray(loaded.getPlayers()));
+		for(int i=0; i<driver.getPlayers().size(); i++) {
+			Player p = driver.getPlayers().get(i);
+			Player q = loaded.getPlayers().get(i);
+			assertEquals(p.getName(), q.getName());
+			assertEquals(p.getPlayerStrategy(), q.getPlayerStrategy());
+			assertArrayEquals(p.getCountriesNames(), q.getCountriesNames());
+			assertEquals(p.getCards().size(), q.getCards().size());
+		}
+		assertEquals(driver.getCurrentPlayer().getName(), loaded.getCurrentPlayer().getName());
+		assertEquals("Attack", loaded.getTurnManager().getPhase());
+		assertEquals(20, loaded.getMoveLimit());
+		assertEquals(driver.getCardPile().size(), loaded.getCardPile().size());
+		assertEquals(driver.getRandom().nextLong(), loaded.getRandom().nextLong());
+	}
+
+	/**
+	 * This method tests that a game can not be loaded on a different map.
+	 * @throws IOException if the game can not be saved or loaded.
+	 */
+	@Test(expected = IOException.class)
+	public void testRestoreOnOtherMap() throws IOException {
+		GameSnapshot snapshot = GameSnapshot.read(new ByteArrayInputStream(save()));
+		snapshot.restore(new GameDriver(".//data//test//testMap.map", 0));
+	}
+
+	/**
+	 * This method tests that a stream not starting with the snapshot magic number is not taken as a snapshot.
+	 * @throws IOException if the stream can not be read.
+	 */
+	@Test
+	public void testIsSnapshot() throws IOException {
+		assertFalse(GameSnapshot.isSnapshot(new ByteArrayInputStream(new byte[] {(byte) 0xAC, (byte) 0xED, 0, 5})));
+		assertFalse(GameSnapshot.isSnapshot(new ByteArrayInputStream(new byte[0])));
+	}
+}
@@ -0,0 +1,134 @@
+package test.risk.model.gamemode;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import risk.model.gamemode.GameDriver;
+import risk.model.gamemode.GameState;
+import risk.model.map.MapGraph;
+import risk.model.util.GameRandom;
+
+/**
+ * This class tests the copy on write game state used for looking ahead.
+ */
+public class TestGameState {
+
+	/**
+	 * Game the state is taken from.
+	 */
+	private GameDriver driver;
+
+	/**
+	 * Attacking country of the current player.
+	 */
+	private int from;
+
+	/**
+	 * Enemy neighbour of the attacking country.
+	 */
+	private int to;
+
+	/**
+	 * Sets up a game in the attack phase with one country of the current player ready to attack a neighbour.
+	 */
+	@Before
+	public void setUp() {
+		String[][] players = {{"Player1","aggressive"},{"Player2","benevolent"}};
+		driver = new GameDriver(".//data//test//testMap3.map", 20);
+		driver.setRandom(new GameRandom(5));
+		driver.createPlayers(players);
+		driver.startUpPhase();
+		driver.getTurnManager().setPhase("Attack");
+		MapGraph graph = driver.getMap().getGraph();
+		int current = driver.getPlayers().indexOf(driver.getCurrentPlayer());
+		int[] owners = driver.getMap().getOwnerArray(driver.getPlayers());
+		from = -1;
+		for(int i=0; i<graph.getCountryCount() && from<0; i++) {
+			for(int k=0; k<graph.getNeighbourCount(i) && owners[i]==current; k++) {
+				if(owners[graph.getNeighbour(i, k)]!=current) {
+					from = i;
+					to = graph.getNeighbour(i, k);
+				}
+			}
+		}
+		driver.getMap().getCountry(from).setArmies(10);
+		driver.getMap().getCountry(to).setArmies(1);
+	}
+
+	/**
+	 * Tests that the state has the owners and armies of the game and that moves do not change the game.
+	 */
+	@Test
+	public void testStateOfGame() {
+		int[] armies = driver.getMap().getArmyArray();
+		GameState state = GameState.of(driver);
+		for(int i=0; i<armies.length; i++) {
+			assertEquals(armies[i], state.getArmies(i));
+		}
+		assertEquals(GameState.ATTACK, state.getPhase());
+		assertEquals(driver.getCurrentPlayer().getName(), state.getPlayerName(state.getCurrentPlayer()));
+		assertTrue(state.canAttack(from, to));
+		state.attack(from, to, 0, 1);
+		state.occupy(from, to, 4);
+		assertEquals(state.getCurrentPlayer(), state.getOwner(to));
+		assertArrayEquals(armies, driver.getMap().getArmyArray());
+	}
+
+	/**
+	 * Tests that a fork and the state it was forked from do not see each other's moves.
+	 */
+	@Test
+	public void testForkIsCopyOnWrite() {
+		GameState state = GameState.of(driver);
+		GameState fork = state.fork();
+		fork.attack(from, to, 2, 0);
+		assertEquals(8, fork.getArmies(from));
+		assertEquals(10, state.getArmies(from));
+		state.attack(from, to, 0, 1);
+		assertEquals(0, state.getArmies(to));
+		assertEquals(1, fork.getArmies(to));
+		assertEquals(8, fork.getArmies(from));
+	}
+
+	/**
+	 * Tests that a whole turn can be taken back to a mark.
+	 */
+	@Test
+	public void testUndo() {
+		GameState state = GameState.of(driver);
+		int current = state.getCurrentPlayer();
+		int countries = state.getCountryCount(current);
+		int mark = state.mark();
+		state.attack(from, to, 0, 1);
+		state.occupy(from, to, 3);
+		state.endPhase();
+		assertEquals(1, state.getCardCount(current));
+		assertEquals(GameState.FORTIFICATION, state.getPhase());
+		state.fortify(to, from, 1);
+		state.endPhase();
+		assertEquals(GameState.REINFORCEMENT, state.getPhase());
+		assertNotEquals(current, state.getCurrentPlayer());
+		state.undo(mark);
+		assertEquals(current, state.getCurrentPlayer());
+		assertEquals(GameState.ATTACK, state.getPhase());
+		assertEquals(10, state.getArmies(from));
+		assertEquals(1, state.getArmies(to));
+		assertEquals(countries, state.getCountryCount(current));
+		assertEquals(0, state.getCardCount(current));
+	}
+
+	/**
+	 * Tests that random attacks on forks give the same results as on the state itself.
+	 */
+	@Test
+	public void testAttackUntil() {
+		GameState state = GameState.of(driver);
+		GameState fork = state.fork();
+		boolean won = state.attackUntil(from, to, 1, new GameRandom(3));
+		assertEquals(won, fork.attackUntil(from, to, 1, new GameRandom(3)));
+		assertEquals(state.getArmies(from), fork.getArmies(from));
+		assertTrue(state.getArmies(from)>=1);
+	}
+}
@@ -0,0 +1,135 @@
+package test.risk.model.gamemode;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import risk.model.gamemode.DominationStats;
+import risk.model.gamemode.GameState;
+import risk.model.gamemode.TournamentMode;
+import risk.model.player.StrategyStats;
+
+/**
+ * This class tests the headless tournament mode.
+ */
+public class TestTournamentMode {
+
+	/**
+	 * Map used by the tournament games.
+	 */
+	private String[] maps = {".//data//test//testMap3.map"};
+
+	/**
+	 * This method tests that a headless tournament fills the result of every game.
+	 */
+	@Test
+	public void testHeadlessTournament() {
+		String[][] players = {{"Player1","benevolent"},{"Player2","benevolent"}};
+		TournamentMode tournament = new TournamentMode(2, maps, players, 3, null, true);
+		tournament.start();
+		String[][] winners = tournament.getWinners();
+		assertEquals(maps[0], winners[0][0]);
+		assertEquals("draw", winners[0][1]);
+		assertEquals("draw", winners[0][2]);
+	}
+
+	/**
+	 * This method tests that games played in parallel fill the same results table as MainController expects.
+	 */
+	@Test
+	public void testParallelTournament() {
+		String[] twoMaps = {maps[0], ".//data//test//testMap.map"};
+		String[][] players = {{"Player1","benevolent"},{"Player2","aggressive"}};
+		TournamentMode tournament = new TournamentMode(3, twoMaps, players, 5, null, true);
+		tournament.setParallelism(4);
+		tournament.start();
+		String[][] winners = tournament.getWinners();
+		assertEquals(2, winners.length);
+		for(int i=0; i<twoMaps.length; i++) {
+			assertEquals(4, winners[i].length);
+			assertEquals(twoMaps[i], winners[i][0]);
+			for(int j=1; j<winners[i].length; j++) {
+				assertNotNull(winners[i][j]);
+			}
+		}
+	}
+
+	/**
+	 * This method tests that a tournament played again with the same seed has the same results, whatever the number of threads.
+	 */
+	@Test
+	public void testSeededTournamentIsReproducible() {
+		String[] cliff = {".//data//map//3D Cliff.map"};
+		String[][] players = {{"Player1","aggressive"},{"Player2","random"}};
+		TournamentMode first = new TournamentMode(4, cliff, players, 100, null, true);
+		first.setSeed(2017);
+		first.setParallelism(1);
+		first.start();
+		TournamentMode second = new TournamentMode(4, cliff, players, 100, null, true);
+		second.setSeed(2017);
+		second.setParallelism(4);
+		second.start();
+		assertArrayEquals(first.getWinners(), second.getWinners());
+	}
+
+	/**
+	 * This method tests that the timing of the players is added up over the games and written after the results.
+	 */
+	@Test
+	public void testDecisionStats() {
+		String[][] players = {{"Player1","aggressive"},{"Player2","random"}};
+		TournamentMode tournament = new TournamentMode(2, maps, players, 3, null, true);
+		tournament.setSeed(3);
+		tournament.start();
+		ArrayList<StrategyStats> stats = tournament.getStats();
+		assertEquals(2, stats.size());
+		assertEquals("Player1", stats.get(0).getName());
+		assertEquals("aggressive", stats.get(0).getStrategy());
+		assertTrue(stats.get(1).getLatency(GameState.REINFORCEMENT).getCount()>=2);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		tournament.printResults(new PrintStream(bytes));
+		String report = bytes.toString();
+		assertTrue(report.contains("Player\tStrategy\tPhase\tDecisions\tp50 ms\tp99 ms\tMax ms"));
+		assertTrue(report.contains("Player2\trandom\tFortification\t"));
+	}
+
+	/**
+	 * This method tests that the share of the map held at the end of each game is kept and reported.
+	 */
+	@Test
+	public void testDominationReport() {
+		String[][] players = {{"Player1","aggressive"},{"Player2","benevolent"}};
+		TournamentMode tournament = new TournamentMode(2, maps, players, 5, null, true);
+		tournament.setSeed(11);
+		tournament.start();
+		DominationStats[][] domination = tournament.getDomination();
+		assertEquals(1, domination.length);
+		assertNull(domination[0][0]);
+		for(int j=1; j<=2; j++) {
+			int countries = 0;
+			for(int k=0; k<domination[0][j].size(); k++) {
+				countries += domination[0][j].getCountries(k);
+				assertTrue(domination[0][j].getArmies(k)>=domination[0][j].getCountries(k));
+			}
+			assertEquals(domination[0][j].getTotalCountries(), countries);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		tournament.printResults(new PrintStream(bytes));
+		String report = bytes.toString();
+		assertTrue(report.contains("Map\tGame\tPlayer\tCountries\tMap %\tContinents\tArmies"));
+		assertTrue(report.contains(maps[0]+"\t2\t"));
+	}
+
+	/**
+	 * This method tests that a headless tournament can not have human players.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testHeadlessTournamentWithHuman() {
+		String[][] players = {{"Player1","human"},{"Player2","benevolent"}};
+		new TournamentMode(2, maps, players, 3, null, true);
+	}
+}
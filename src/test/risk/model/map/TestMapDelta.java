@@ -0,0 +1,98 @@
+package test.risk.model.map;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Observable;
+import java.util.Observer;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import risk.model.map.CountryNode;
+import risk.model.map.Map;
+import risk.model.map.MapDelta;
+import risk.view.MapView;
+
+/**
+ * This test class tests the countries sent to the observers of a map.
+ */
+public class TestMapDelta {
+
+	/**
+	 * Map observed.
+	 */
+	private Map map;
+
+	/**
+	 * Deltas received by the observer.
+	 */
+	private ArrayList<MapDelta> deltas;
+
+	/**
+	 * Loads a map and observes it.
+	 */
+	@Before
+	public void setUp() {
+		map = new Map(".//data//map//World.map");
+		deltas = new ArrayList<MapDelta>();
+		map.addObserver(new Observer() {
+			@Override
+			public void update(Observable o, Object arg) {
+				deltas.add((MapDelta) arg);
+			}
+		});
+	}
+
+	/**
+	 * Tests that the first notification has every country and later ones only the countries that changed.
+	 */
+	@Test
+	public void testOnlyChangedCountries() {
+		map.updateMap();
+		assertEquals(1, deltas.size());
+		assertTrue(deltas.get(0).isFull());
+		assertEquals(map.getGraph().getCountryCount(), deltas.get(0).size());
+		map.updateMap();
+		assertEquals(1, deltas.size());
+		CountryNode country = map.getCountry(3);
+		country.setArmies(7);
+		map.updateMap();
+		assertEquals(2, deltas.size());
+		MapDelta delta = deltas.get(1);
+		assertFalse(delta.isFull());
+		assertEquals(1, delta.size());
+		assertEquals(3, delta.getCountry(0));
+		assertEquals(7, delta.getArmies(0));
+		assertEquals("", delta.getOwner(0));
+		country.setArmies(8);
+		assertEquals(7, delta.getArmies(0));
+	}
+
+	/**
+	 * Tests that the map view keeps the state of the countries from the deltas, applied together on the event dispatch thread.
+	 * @throws Exception if the event dispatch thread is interrupted.
+	 */
+	@Test
+	public void testMapViewAppliesDelta() throws Exception {
+		final MapView tableView = new MapView();
+		final MapView imageView = new MapView(null);
+		map.addObserver(tableView);
+		map.addObserver(imageView);
+		map.updateMap();
+		map.getCountry(5).setArmies(4);
+		map.updateMap();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				tableView.flush();
+				imageView.flush();
+			}
+		});
+		assertEquals(4, tableView.getArmies(5));
+		assertEquals(4, imageView.getArmies(5));
+		assertEquals(map.getCountry(0).getArmiesCount(), imageView.getArmies(0));
+	}
+}
@@ -7,6 +7,10 @@ import risk.model.map.MapNode;
 import risk.model.map.MapReader;
 
 import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.util.ArrayList;
 import org.junit.Before;
 
@@ -51,5 +55,69 @@ public class TestMapFile {
 		}
 		assertEquals(expectedResult,actualResult);
 	}
+	
+	/**
+	 * Testing that lines with errors are skipped and reported with their line number, and that names are trimmed.
+	 * @throws IOException if the test map can not be written.
+	 */
+	@Test
+	public void testReadErrors() throws IOException {
+		File file = File.createTempFile("errors", ".map");
+		file.deleteOnExit();
+		FileWriter writer = new FileWriter(file);
+		writer.write("[Continents]\r\nAmericaN=5\r\nEurope\r\n\r\n[Territories]\r\n"
+				+ "Alaska,63,56,AmericaN,Canada \r\nCanada,111,75, AmericaN,Alaska,Montana\r\n"
+				+ "Paris,1,2,Europe,Alaska\r\nGroenlandia,x,76,AmericaN\r\n");
+		writer.close();
+		ArrayList<MapNode> actual = mapread.readMap(file.getPath());
+		assertEquals(1, actual.size());
+		assertEquals(2, actual.get(0).getCountriesCount());
+		assertEquals("Canada", actual.get(0).getCountries()[0].getNeighbourCountriesString()[0]);
+		ArrayList<String> errors = mapread.getErrors();
+		assertEquals(4, errors.size());
+		assertTrue(errors.get(0).startsWith("Line 3:"));
+		assertTrue(errors.get(1).startsWith("Line 8:"));
+		assertTrue(errors.get(2).startsWith("Line 9:"));
+		assertTrue(errors.get(3).startsWith("Line 7:") && errors.get(3).contains("Montana"));
+		assertTrue(mapread.isIncomplete());
+	}
+	
+	/**
+	 * Testing that a missing file gives an empty map and an error.
+	 */
+	@Test
+	public void testReadMissingFile() {
+		assertTrue(mapread.readMap(".//data//test//missing.map").isEmpty());
+		assertEquals(1, mapread.getErrors().size());
+		assertTrue(mapread.isIncomplete());
+	}
+
+	/**
+	 * Testing that a map with only undeclared neighbours is read in full, the neighbours are still reported.
+	 */
+	@Test
+	public void testUndeclaredNeighbourKeepsMapComplete() {
+		mapread.readMap(".//data//test//testMap.map");
+		assertEquals(1, mapread.getErrors().size());
+		assertFalse(mapread.isIncomplete());
+	}
 
+	/**
+	 * Testing that a map file that was read can be overwritten and deleted at once, as the map editor saves it back.
+	 * @throws IOException if the test map can not be written.
+	 */
+	@Test
+	public void testReadFileCanBeOverwritten() throws IOException {
+		File file = File.createTempFile("saved", ".map");
+		file.deleteOnExit();
+		FileWriter writer = new FileWriter(file);
+		writer.write("[Continents]\r\nAmericaN=5\r\n[Territories]\r\nAlaska,63,56,AmericaN\r\n");
+		writer.close();
+		assertEquals(1, mapread.readMap(file.getPath()).size());
+		writer = new FileWriter(file);
+		writer.write("[Continents]\r\n");
+		writer.close();
+		assertTrue(mapread.readMap(file.getPath()).isEmpty());
+		assertTrue(file.delete());
+	}
 }
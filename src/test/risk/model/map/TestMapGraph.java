@@ -0,0 +1,231 @@
+package test.risk.model.map;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import risk.model.gamemode.GameDriver;
+import risk.model.map.CountryNode;
+import risk.model.map.Map;
+import risk.model.map.MapCache;
+import risk.model.map.MapGraph;
+import risk.model.map.MapNode;
+import risk.model.map.MapReader;
+import risk.model.player.Player;
+
+/**
+ * This class tests the compiled map graph.
+ */
+public class TestMapGraph {
+
+	/**
+	 * Map loaded from test map file.
+	 */
+	private Map map;
+
+	/**
+	 * Compiled graph of the map.
+	 */
+	private MapGraph graph;
+
+	/**
+	 * Loads the test map before each test.
+	 */
+	@Before
+	public void setUp() {
+		map = new Map(".//data//test//testMap3.map");
+		graph = map.getGraph();
+	}
+
+	/**
+	 * Tests that countries get dense ids in map order and can be found by name.
+	 */
+	@Test
+	public void testIds() {
+		assertEquals(4, graph.getCountryCount());
+		assertEquals(4, graph.getDeclaredCount());
+		assertEquals(0, graph.getId("Alaska"));
+		assertEquals(3, graph.getId("Montana"));
+		assertEquals(-1, graph.getId("Atlantis"));
+		assertEquals("Canada", graph.getName(graph.getId("Canada")));
+		assertEquals(graph.getId("Canada"), map.getCountry("Canada").getId());
+		assertSame(map.getCountry("Canada"), map.getCountry(graph.getId("Canada")));
+	}
+
+	/**
+	 * Tests the adjacency arrays against the neighbour lists of the country nodes.
+	 */
+	@Test
+	public void testAdjacency() {
+		for(int i=0; i<graph.getCountryCount(); i++) {
+			CountryNode country = map.getCountry(i);
+			assertEquals(country.getNeighbours().size(), graph.getNeighbourCount(i));
+			for(int k=0; k<graph.getNeighbourCount(i); k++) {
+				assertEquals(country.getNeighbours().get(k).getCountryName(), graph.getName(graph.getNeighbour(i, k)));
+			}
+		}
+		assertTrue(graph.isNeighbour(graph.getId("Canada"), graph.getId("Montana")));
+		assertFalse(graph.isNeighbour(graph.getId("Alaska"), graph.getId("Montana")));
+	}
+
+	/**
+	 * Tests the continent of the countries.
+	 */
+	@Test
+	public void testContinents() {
+		assertEquals(1, graph.getContinentCount());
+		assertEquals("AmericaN", graph.getContinentName(0));
+		assertEquals(5, graph.getContinentValue(0));
+		assertEquals(4, graph.getContinentSize(0));
+		assertEquals(0, graph.getContinent(graph.getId("Groenlandia")));
+	}
+
+	/**
+	 * Tests the owner and army arrays.
+	 */
+	@Test
+	public void testOwnerAndArmyArrays() {
+		GameDriver driver = new GameDriver();
+		ArrayList<CountryNode> countries = new ArrayList<CountryNode>();
+		countries.add(map.getCountry("Canada"));
+		Player player = new Player("Player1", 0, countries, driver);
+		ArrayList<Player> players = new ArrayList<Player>();
+		players.add(player);
+		map.getCountry("Canada").addArmy(5);
+		int[] owners = map.getOwnerArray(players);
+		int[] armies = map.getArmyArray();
+		assertEquals(0, owners[graph.getId("Canada")]);
+		assertEquals(-1, owners[graph.getId("Alaska")]);
+		assertEquals(5, armies[graph.getId("Canada")]);
+	}
+
+	/**
+	 * Tests that nodes created from a graph are the same as the nodes read from the map file, neighbours not declared included.
+	 */
+	@Test
+	public void testInstantiateMatchesReader() {
+		ArrayList<MapNode> read = new MapReader().readMap(".//data//map//World2005.map");
+		ArrayList<MapNode> created = MapGraph.compile(read).instantiate();
+		assertEquals(read.size(), created.size());
+		for(int m=0; m<read.size(); m++) {
+			assertEquals(read.get(m).getContinentName(), created.get(m).getContinentName());
+			assertEquals(read.get(m).getControlValue(), created.get(m).getControlValue());
+			assertEquals(read.get(m).getCountriesCount(), created.get(m).getCountriesCount());
+			for(int c=0; c<read.get(m).getCountryList().size(); c++) {
+				CountryNode r = read.get(m).getCountryList().get(c);
+				CountryNode n = created.get(m).getCountryList().get(c);
+				assertEquals(r.getCountryName(), n.getCountryName());
+				assertArrayEquals(r.getCoordinates(), n.getCoordinates());
+				assertSame(created.get(m), n.getContinent());
+				assertArrayEquals(r.getNeighbourCountriesString(), n.getNeighbourCountriesString());
+			}
+		}
+		assertEquals(MapGraph.compile(read).getFingerprint(), MapGraph.compile(created).getFingerprint());
+	}
+
+	/**
+	 * Tests that the map cache parses a file once, gives every map its own nodes, reads a changed file again
+	 * and drops the least recently used map.
+	 * @throws Exception if the temporary map file can not be written.
+	 */
+	@Test
+	public void testMapCache() throws Exception {
+		MapCache cache = new MapCache(1);
+		File file = File.createTempFile("cache", ".map");
+		try {
+			Files.copy(Paths.get(".//data//test//testMap3.map"), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			MapGraph first = cache.getGraph(file.getPath());
+			assertSame(first, cache.getGraph(file.getPath()));
+			assertEquals(1, cache.getReads());
+			Map a = new Map(first, file.getPath());
+			Map b = new Map(first, file.getPath());
+			assertNotSame(a.getCountry("Canada"), b.getCountry("Canada"));
+			a.getCountry("Canada").setArmies(5);
+			assertEquals(0, b.getCountry("Canada").getArmiesCount());
+
+			FileOutputStream out = new FileOutputStream(file, true);
+			out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+			out.close();
+			MapGraph changed = cache.getGraph(file.getPath());
+			assertNotSame(first, changed);
+			assertEquals(first.getFingerprint(), changed.getFingerprint());
+			assertEquals(2, cache.getReads());
+
+			cache.getGraph(".//data//test//testMap.map");
+			assertEquals(1, cache.size());
+			cache.getGraph(file.getPath());
+			assertEquals(4, cache.getReads());
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Tests that threads asking for the same map at the same time get the same graph, read once.
+	 * @throws Exception if a thread is interrupted.
+	 */
+	@Test
+	public void testMapCacheReadsOnceForThreads() throws Exception {
+		final MapCache cache = new MapCache(4);
+		final CountDownLatch start = new CountDownLatch(1);
+		final MapGraph[] graphs = new MapGraph[8];
+		Thread[] threads = new Thread[graphs.length];
+		for(int i=0; i<threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					}catch(InterruptedException e) {
+						return;
+					}
+					graphs[index] = cache.getGraph(".//data//map//World.map");
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for(Thread t : threads) {
+			t.join();
+		}
+		assertEquals(1, cache.getReads());
+		for(MapGraph g : graphs) {
+			assertSame(graphs[0], g);
+		}
+	}
+
+	/**
+	 * Tests that the cache refuses a map file with lines that can not be read instead of giving part of the map.
+	 * @throws Exception if the temporary map file can not be written.
+	 */
+	@Test
+	public void testMapCacheRejectsIncompleteMap() throws Exception {
+		MapCache cache = new MapCache(2);
+		File file = File.createTempFile("broken", ".map");
+		try {
+			FileOutputStream out = new FileOutputStream(file);
+			out.write("[Continents]\r\nAmericaN=5\r\n[Territories]\r\nAlaska,x,56,AmericaN\r\n".getBytes(StandardCharsets.UTF_8));
+			out.close();
+			try {
+				cache.getGraph(file.getPath());
+				fail("map with errors was loaded");
+			}catch(IllegalArgumentException e) {
+				assertTrue(e.getMessage().contains("Line 4:"));
+			}
+			assertEquals(0, cache.size());
+		} finally {
+			file.delete();
+		}
+	}
+}
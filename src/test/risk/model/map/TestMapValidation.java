@@ -1,10 +1,16 @@
 package test.risk.model.map;
 
 import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import risk.model.map.CountryNode;
 import risk.model.map.Map;
+import risk.model.map.MapNode;
+import risk.model.map.MapValidator;
 
 /**
  * This test class tests all the functions of Map class.
@@ -74,4 +80,44 @@ public class TestMapValidation {
 		Boolean b = map.isMapNodesContainUniqueCountries();
 		assertFalse(b);
 	}
+
+	/**
+	 * Tests that the validator reports every violation of a map at once.
+	 */
+	@Test
+	public void testValidatorReportsAllViolations() {
+		path = ".//data//test//testMap4.map";
+		map = new Map(path);
+		MapValidator validator = map.getValidator();
+		assertFalse(validator.isValid());
+		assertFalse(validator.passed(MapValidator.Check.DUPLICATE_COUNTRY));
+		assertFalse(validator.passed(MapValidator.Check.ORPHAN_NEIGHBOUR));
+		assertFalse(validator.passed(MapValidator.Check.CONNECTED_MAP));
+		assertFalse(validator.passed(MapValidator.Check.CONNECTED_CONTINENT));
+		assertTrue(validator.passed(MapValidator.Check.EMPTY_CONTINENT));
+		assertTrue(validator.getErrors().contains("Country CanadaW is declared in AmericaN and again in AmericaS"));
+		assertTrue(validator.getErrors().contains("Neighbour Bielorusia of Ukrania is not a country of any continent"));
+	}
+
+	/**
+	 * Tests that a neighbour listed in one direction only is reported, and that it still connects the map.
+	 */
+	@Test
+	public void testAsymmetricNeighbour() {
+		int[] coordinates = {250, 250};
+		ArrayList<CountryNode> toB = new ArrayList<CountryNode>();
+		toB.add(new CountryNode("B", null, coordinates, null));
+		ArrayList<CountryNode> countries = new ArrayList<CountryNode>();
+		countries.add(new CountryNode("A", toB, coordinates, null));
+		countries.add(new CountryNode("B", new ArrayList<CountryNode>(), coordinates, null));
+		ArrayList<MapNode> continents = new ArrayList<MapNode>();
+		continents.add(new MapNode("C", countries, 1));
+		continents.add(new MapNode("Empty", new ArrayList<CountryNode>(), 1));
+		MapValidator validator = new MapValidator(continents);
+		assertFalse(validator.passed(MapValidator.Check.ASYMMETRIC_NEIGHBOUR));
+		assertFalse(validator.passed(MapValidator.Check.EMPTY_CONTINENT));
+		assertTrue(validator.passed(MapValidator.Check.CONNECTED_MAP));
+		assertTrue(validator.passed(MapValidator.Check.CONNECTED_CONTINENT));
+		assertEquals(2, validator.getErrors().size());
+	}
 }
@@ -1,5 +1,8 @@
 package test.risk.model.map;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
 import org.junit.Assert;
@@ -8,6 +11,7 @@ import org.junit.Test;
 
 import risk.model.map.CountryNode;
 import risk.model.map.MapNode;
+import risk.model.map.MapReader;
 import risk.model.map.MapWriter;
 
 /**
@@ -54,5 +58,51 @@ public class TestMapWriter {
 		mapWriter.writeMap(continents);
 		String path = mapWriter.getMapFilePath();
 		Assert.assertTrue(path!=null);
+		new File(path).delete();
+	}
+
+	/**
+	 * Tests that a written map is read back with the same continents, coordinates and neighbours.
+	 * @throws Exception if the temporary file can not be created.
+	 */
+	@Test
+	public void testWriteReadBack() throws Exception {
+		CountryNode india = new CountryNode("India", new ArrayList<CountryNode>(), new int[] {10, 20}, null);
+		CountryNode china = new CountryNode("China", new ArrayList<CountryNode>(), new int[] {30, 40}, null);
+		CountryNode japan = new CountryNode("Japan", null, null, null);
+		india.addNeighbour(china);
+		china.addNeighbour(india);
+		ArrayList<CountryNode> asia = new ArrayList<CountryNode>();
+		asia.add(india);
+		asia.add(china);
+		ArrayList<CountryNode> islands = new ArrayList<CountryNode>();
+		islands.add(japan);
+		ArrayList<MapNode> continents = new ArrayList<MapNode>();
+		continents.add(new MapNode("Asia", asia, 5));
+		continents.add(new MapNode("Islands", islands, 1));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		mapWriter.writeMap(continents, out);
+		String text = new String(out.toByteArray(), StandardCharsets.UTF_8);
+		Assert.assertTrue(text.contains("Asia=5\r\n"));
+		Assert.assertTrue(text.contains("India,10,20,Asia,China\r\n"));
+		Assert.assertTrue(text.contains("Japan,250,250,Islands\r\n"));
+
+		File file = File.createTempFile("writer", ".map");
+		try {
+			mapWriter.writeMapExisting(continents, file.getPath());
+			MapReader reader = new MapReader();
+			ArrayList<MapNode> read = reader.readMap(file.getPath());
+			Assert.assertTrue(reader.getErrors().isEmpty());
+			Assert.assertEquals(2, read.size());
+			Assert.assertEquals(5, read.get(0).getControlValue());
+			CountryNode readChina = read.get(0).getCountryList().get(1);
+			Assert.assertEquals("China", readChina.getCountryName());
+			Assert.assertEquals(30, readChina.getCoordinates()[0]);
+			Assert.assertEquals("India", readChina.getNeighbours().get(0).getCountryName());
+			Assert.assertEquals("Japan", read.get(1).getCountryList().get(0).getCountryName());
+		} finally {
+			file.delete();
+		}
 	}
 }
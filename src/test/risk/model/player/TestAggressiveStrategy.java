@@ -197,5 +197,25 @@ public class TestAggressiveStrategy {
 		}
 		assertEquals(1, count);
 	}
+	
+	/**
+	 * Test placeArmies method: countries with no army get one first and all armies are placed.
+	 */
+	@Test
+	public void testPlaceArmies() {
+		String [] countries = {"country0", "country1", "country2", "country3"};
+		int[] countryArmies = {0, 2, 0, 1};
+		PlayerStrategy aggressive = new AggressiveStrategy(driver);
+		int[] placed = aggressive.placeArmies(countries, countryArmies, 7, "player1");
+		int total = 0;
+		for (int i = 0; i<placed.length; i++) {
+			total += placed[i];
+		}
+		assertEquals(7, total);
+		assertTrue(placed[0]>=1);
+		assertTrue(placed[2]>=1);
+		placed = aggressive.placeArmies(countries, countryArmies, 1, "player1");
+		assertEquals(1, placed[0]+placed[2]);
+	}
 
 }
@@ -0,0 +1,119 @@
+package test.risk.model.player;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import risk.model.gamemode.GameDriver;
+import risk.model.map.CountryNode;
+import risk.model.map.MapGraph;
+import risk.model.player.Player;
+import risk.model.player.MctsStrategy;
+import risk.model.player.PlayerStrategy;
+import risk.model.util.GameRandom;
+
+/**
+ * TestCase for MctsStrategy
+ */
+public class TestMctsStrategy {
+
+	/**
+	 * Plays a game of an mcts player with a fixed number of iterations against an aggressive player.
+	 * @param seed seed of the game.
+	 * @return game after it ended.
+	 */
+	private GameDriver playGame(long seed) {
+		GameDriver driver = new GameDriver(".//data//map//World.map", 5);
+		driver.setRandom(new GameRandom(seed));
+		driver.createPlayers(new String[][] {{"Player1","mcts"},{"Player2","aggressive"}});
+		driver.getPlayers().get(0).setStrategy(new MctsStrategy(driver, 0, 40, 2));
+		driver.startUpPhase();
+		driver.getTurnManager().startTurn(driver.getCurrentPlayer());
+		return driver;
+	}
+
+	/**
+	 * Tests that GameDriver creates the mcts player.
+	 */
+	@Test
+	public void testCreateBehavior() {
+		PlayerStrategy mcts = new GameDriver().createBehavior("mcts");
+		assertTrue(mcts instanceof MctsStrategy);
+		assertEquals("mcts", mcts.getStrategyName());
+		assertEquals(7, mcts.moveArmies(3, 7, "Select armies to move:"));
+	}
+
+	/**
+	 * Tests that with a number of iterations instead of a time budget, games with the same seed are played the same way,
+	 * even with the search split among threads.
+	 */
+	@Test
+	public void testSeededGameIsReproducible() {
+		GameDriver first = playGame(11);
+		GameDriver second = playGame(11);
+		assertArrayEquals(first.getMap().getArmyArray(), second.getMap().getArmyArray());
+		assertArrayEquals(first.getMap().getOwnerArray(first.getPlayers()), second.getMap().getOwnerArray(second.getPlayers()));
+		assertEquals(first.getWinner(), second.getWinner());
+	}
+
+	/**
+	 * Starts a game on the World map and stops it in the attack phase of the first player.
+	 * The turn loop does not go on after a phase, so one decision can be tested alone.
+	 * @return game in the attack phase.
+	 */
+	private GameDriver attackPosition() {
+		GameDriver driver = new GameDriver(".//data//map//World.map", 50);
+		driver.setRandom(new GameRandom(3));
+		driver.createPlayers(new String[][] {{"Player1","mcts"},{"Player2","aggressive"}});
+		driver.startUpPhase();
+		driver.getTurnManager().setPhase("Attack");
+		driver.getTurnManager().setGameOver(true);
+		return driver;
+	}
+
+	/**
+	 * Tests that a decision with a time budget and no limit of iterations returns soon after its budget.
+	 */
+	@Test
+	public void testDecisionKeepsBudget() {
+		GameDriver driver = attackPosition();
+		MctsStrategy mcts = new MctsStrategy(driver, 50, 0, 2);
+		long start = System.nanoTime();
+		mcts.attackPhase(new ArrayList<String>());
+		long millis = (System.nanoTime()-start)/1000000;
+		assertTrue("decision took "+millis+" ms", millis<50+250);
+	}
+
+	/**
+	 * Tests that the search attacks the last country of the opponent from the country that is sure to take it,
+	 * rather than ending the phase or attacking from a country with two armies.
+	 */
+	@Test
+	public void testSearchPicksWinningAttack() {
+		GameDriver driver = attackPosition();
+		Player first = driver.getCurrentPlayer();
+		Player second = driver.getPlayers().get(1-driver.getPlayers().indexOf(first));
+		MapGraph graph = driver.getMap().getGraph();
+		int target = 0;
+		while(graph.getNeighbourCount(target)<2) {
+			target++;
+		}
+		for(int i=0; i<graph.getDeclaredCount(); i++) {
+			CountryNode country = driver.getMap().getCountry(i);
+			country.setOwner(i==target ? second : first);
+			country.setArmies(1);
+		}
+		CountryNode strong = driver.getMap().getCountry(graph.getNeighbour(target, 0));
+		CountryNode weak = driver.getMap().getCountry(graph.getNeighbour(target, 1));
+		strong.setArmies(30);
+		weak.setArmies(2);
+		MctsStrategy mcts = new MctsStrategy(driver, 0, 200, 1);
+		first.setStrategy(mcts);
+		mcts.attackPhase(new ArrayList<String>());
+		assertEquals(first, driver.getMap().getCountry(target).getOwner());
+		assertEquals(2, weak.getArmiesCount());
+		assertEquals(first.getName(), driver.getWinner());
+	}
+}
@@ -295,4 +295,45 @@ public class TestPlayer {
 		assertEquals(1, testPlayer.getCards().size());
 	}	
 	
+	/**
+	 * Testing that country lookup stays in sync when a country changes owner.
+	 */
+	@Test
+	public void testCountryIndexOnOwnerChange() {
+		Player other = new Player("OtherPlayer", 0, driver);
+		assertSame(country2, testPlayer.getCountry("Country2"));
+		assertTrue(testPlayer.ownsCountry(country2));
+		country2.setOwner(other);
+		assertNull(testPlayer.getCountry("Country2"));
+		assertFalse(testPlayer.ownsCountry(country2));
+		assertSame(country2, other.getCountry("Country2"));
+		assertEquals(3, testPlayer.getPlayerCountryCount());
+		assertEquals(1, other.getPlayerCountryCount());
+	}
+	
+	/**
+	 * Testing that continent control follows the owner of the continent's countries.
+	 */
+	@Test
+	public void testContinentOwnership() {
+		MapNode continent = new MapNode("Continent2", null, 5);
+		CountryNode a = new CountryNode("A", null, null, null);
+		CountryNode b = new CountryNode("B", null, null, null);
+		continent.addCountry(a);
+		continent.addCountry(b);
+		Player other = new Player("OtherPlayer", 0, driver);
+		a.setOwner(testPlayer);
+		assertFalse(testPlayer.ownsContinent(continent));
+		b.setOwner(testPlayer);
+		assertTrue(testPlayer.ownsContinent(continent));
+		assertEquals(3+5, testPlayer.getArmies());
+		b.setOwner(other);
+		assertFalse(testPlayer.ownsContinent(continent));
+		assertEquals(3, testPlayer.getArmies());
+		a.setOwner(other);
+		assertTrue(other.ownsContinent(continent));
+		other.addContinent(continent);
+		assertEquals(3+5, other.getArmies());
+	}
+	
 }
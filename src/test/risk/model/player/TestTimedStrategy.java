@@ -0,0 +1,140 @@
+package test.risk.model.player;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import risk.model.gamemode.GameDriver;
+import risk.model.gamemode.GameState;
+import risk.model.player.AggressiveStrategy;
+import risk.model.player.MctsStrategy;
+import risk.model.player.StrategyStats;
+import risk.model.player.TimedStrategy;
+import risk.model.util.GameRandom;
+import risk.model.util.LatencyHistogram;
+
+/**
+ * TestCase for TimedStrategy and the statistics it records.
+ */
+public class TestTimedStrategy {
+
+	/**
+	 * Creates a seeded game of an aggressive and a random player.
+	 * @param timing true to time the decisions of the players.
+	 * @return game ready to start.
+	 */
+	private GameDriver createGame(boolean timing) {
+		GameDriver driver = new GameDriver(".//data//map//World.map", 3);
+		driver.setRandom(new GameRandom(5));
+		driver.setDecisionTiming(timing);
+		driver.createPlayers(new String[][] {{"Player1","aggressive"},{"Player2","random"}});
+		return driver;
+	}
+
+	/**
+	 * Starts a game.
+	 * @param driver game created by <code>createGame</code>.
+	 */
+	private void play(GameDriver driver) {
+		driver.startUpPhase();
+		driver.getTurnManager().startTurn(driver.getCurrentPlayer());
+	}
+
+	/**
+	 * Tests that percentiles of the histogram are within a bucket of the true value.
+	 */
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentile(50));
+		for(long i=1; i<=1000; i++) {
+			histogram.record(i*1000);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000000, histogram.getMax());
+		assertEquals(500500000, histogram.getTotal());
+		assertEquals(500000, histogram.getPercentile(50), 500000/16);
+		assertEquals(990000, histogram.getPercentile(99), 990000/16);
+		assertEquals(1000000, histogram.getPercentile(100));
+		assertTrue(histogram.getPercentile(50)<=histogram.getPercentile(99));
+	}
+
+	/**
+	 * Tests that timing the players records every decision without changing the game.
+	 */
+	@Test
+	public void testTimedGameIsUnchanged() {
+		GameDriver plain = createGame(false);
+		GameDriver timed = createGame(true);
+		assertTrue(plain.getStrategyStats().isEmpty());
+		assertEquals("aggressive", timed.getPlayers().get(0).getPlayerStrategy());
+		play(plain);
+		play(timed);
+		assertArrayEquals(plain.getMap().getArmyArray(), timed.getMap().getArmyArray());
+		ArrayList<StrategyStats> stats = timed.getStrategyStats();
+		assertEquals(2, stats.size());
+		assertEquals("Player1", stats.get(0).getName());
+		assertEquals("random", stats.get(1).getStrategy());
+		for(StrategyStats player : stats) {
+			assertTrue(player.getLatency(GameState.REINFORCEMENT).getCount()>0);
+			assertTrue(player.getLatency(GameState.ATTACK).getCount()>=player.getLatency(GameState.FORTIFICATION).getCount());
+			assertEquals(0, player.getOverruns(GameState.ATTACK));
+		}
+	}
+
+	/**
+	 * Tests that a player going over the deadline in an attack ends its attacks for the rest of the turn.
+	 */
+	@Test
+	public void testOverrunEndsAttack() {
+		final GameDriver driver = createGame(false);
+		StrategyStats stats = new StrategyStats("Player1", "aggressive");
+		driver.getPlayers().get(0).setStrategy(new TimedStrategy(driver, new AggressiveStrategy(driver) {
+			@Override
+			public void attackPhase(ArrayList<String> countryList) {
+				try {
+					Thread.sleep(5);
+				}catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.attackPhase(countryList);
+			}
+		}, stats, 1));
+		play(driver);
+		long attacks = stats.getLatency(GameState.ATTACK).getCount();
+		assertEquals(attacks, stats.getOverruns(GameState.ATTACK));
+		assertTrue(attacks<=stats.getLatency(GameState.REINFORCEMENT).getCount());
+		assertTrue(stats.getFallbacks(GameState.ATTACK)>0);
+	}
+
+	/**
+	 * Times one attack decision of an mcts player in a game stopped after the phase.
+	 * @param threads number of threads of the search.
+	 * @return statistics of the decision.
+	 */
+	private StrategyStats timeSearch(int threads) {
+		GameDriver driver = createGame(false);
+		driver.startUpPhase();
+		driver.getTurnManager().setPhase("Attack");
+		driver.getTurnManager().setGameOver(true);
+		StrategyStats stats = new StrategyStats("Player1", "mcts");
+		new TimedStrategy(driver, new MctsStrategy(driver, 0, 400, threads), stats, 0).attackPhase(new ArrayList<String>());
+		return stats;
+	}
+
+	/**
+	 * Tests that the bytes allocated by the worker threads of a search are charged to the decision,
+	 * so a search split among threads is measured like the same search on the game thread.
+	 */
+	@Test
+	public void testWorkerAllocationsAreCounted() {
+		long single = timeSearch(1).getAllocated(GameState.ATTACK);
+		long split = timeSearch(4).getAllocated(GameState.ATTACK);
+		if(single<0) {
+			return;
+		}
+		assertTrue(single+" bytes on one thread, "+split+" on four", split>single/2);
+	}
+}
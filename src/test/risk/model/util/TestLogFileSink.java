@@ -0,0 +1,112 @@
+package test.risk.model.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import risk.model.util.LogFileSink;
+
+/**
+ * TestCase for the file sink of the game logger.
+ */
+public class TestLogFileSink {
+
+	/**
+	 * Log file of the test.
+	 */
+	private File file = new File("data"+File.separator+"test"+File.separator+"sink.log");
+
+	/**
+	 * Deletes the log files of the test.
+	 */
+	@After
+	public void tearDown() {
+		file.delete();
+		for(int i=1; i<5; i++) {
+			new File(file.getPath()+"."+i).delete();
+		}
+	}
+
+	/**
+	 * Tests that every message is written in order.
+	 * @throws IOException if the log can not be read.
+	 */
+	@Test
+	public void testWritesEveryMessage() throws IOException {
+		LogFileSink sink = new LogFileSink(file);
+		for(int i=0; i<20000; i++) {
+			sink.write("Line "+i);
+		}
+		sink.close();
+		sink.write("after close");
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertEquals(20000, lines.size());
+		assertEquals("Line 0", lines.get(0));
+		assertEquals("Line 19999", lines.get(19999));
+	}
+
+	/**
+	 * Tests that a sink opened on the log of an earlier game adds to it.
+	 * @throws IOException if the log can not be read.
+	 */
+	@Test
+	public void testAppendsToExistingLog() throws IOException {
+		for(int game=0; game<2; game++) {
+			LogFileSink sink = new LogFileSink(file);
+			for(int i=0; i<10; i++) {
+				sink.write("Game "+game+" line "+i);
+			}
+			sink.close();
+		}
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertEquals(20, lines.size());
+		assertEquals("Game 0 line 0", lines.get(0));
+		assertEquals("Game 1 line 9", lines.get(19));
+	}
+
+	/**
+	 * Tests that full files are renamed and only the last files are kept.
+	 * @throws IOException if the log can not be read.
+	 */
+	@Test
+	public void testRotation() throws IOException {
+		LogFileSink sink = new LogFileSink(file, 100, 3);
+		for(int i=0; i<100; i++) {
+			sink.write(String.format("Line %03d", i));
+		}
+		sink.close();
+		assertTrue(file.length()<=100);
+		assertTrue(new File(file.getPath()+".1").exists());
+		assertTrue(new File(file.getPath()+".2").exists());
+		assertFalse(new File(file.getPath()+".3").exists());
+		List<String> last = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertEquals("Line 099", last.get(last.size()-1));
+		List<String> older = Files.readAllLines(new File(file.getPath()+".1").toPath(), StandardCharsets.UTF_8);
+		assertEquals(String.format("Line %03d", 99-last.size()), older.get(older.size()-1));
+	}
+
+	/**
+	 * Tests that a sink keeping a single file starts it again when it is full instead of letting it grow.
+	 * @throws IOException if the log can not be read.
+	 */
+	@Test
+	public void testSingleFileStaysBounded() throws IOException {
+		LogFileSink sink = new LogFileSink(file, 100, 1);
+		for(int i=0; i<100; i++) {
+			sink.write(String.format("Line %03d", i));
+		}
+		sink.close();
+		assertTrue(file.length()<=100);
+		assertFalse(new File(file.getPath()+".0").exists());
+		assertFalse(new File(file.getPath()+".1").exists());
+		List<String> last = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertEquals("Line 099", last.get(last.size()-1));
+	}
+}
@@ -0,0 +1,97 @@
+package test.risk.model.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.Test;
+
+import risk.model.util.LogListModel;
+
+/**
+ * TestCase for the ring buffer of the game logger.
+ */
+public class TestLogListModel {
+
+	/**
+	 * Makes a batch of messages.
+	 * @param from number of the first message.
+	 * @param to number after the last message.
+	 * @return messages "Line from" to "Line to-1".
+	 */
+	private ArrayList<String> lines(int from, int to) {
+		ArrayList<String> batch = new ArrayList<String>();
+		for(int i=from; i<to; i++) {
+			batch.add("Line "+i);
+		}
+		return batch;
+	}
+
+	/**
+	 * Tests that the list keeps the last messages in order once it is full.
+	 */
+	@Test
+	public void testKeepsLastMessages() {
+		LogListModel model = new LogListModel(5);
+		model.addAll(lines(0, 3));
+		assertEquals(3, model.getSize());
+		assertEquals("Line 0", model.getElementAt(0));
+		model.addAll(lines(3, 7));
+		assertEquals(5, model.getSize());
+		assertEquals("Line 2", model.getElementAt(0));
+		assertEquals("Line 6", model.getElementAt(4));
+		model.addAll(lines(7, 20));
+		assertEquals(5, model.getSize());
+		assertEquals("Line 15", model.getElementAt(0));
+		assertEquals("Line 19", model.getElementAt(4));
+		model.clear();
+		assertEquals(0, model.getSize());
+	}
+
+	/**
+	 * Tests that listeners are told of the messages dropped and added with one event each.
+	 */
+	@Test
+	public void testEvents() {
+		LogListModel model = new LogListModel(4);
+		final ArrayList<String> events = new ArrayList<String>();
+		model.addListDataListener(new ListDataListener() {
+			@Override
+			public void intervalAdded(ListDataEvent e) {
+				events.add("added "+e.getIndex0()+"-"+e.getIndex1());
+			}
+
+			@Override
+			public void intervalRemoved(ListDataEvent e) {
+				events.add("removed "+e.getIndex0()+"-"+e.getIndex1());
+			}
+
+			@Override
+			public void contentsChanged(ListDataEvent e) {
+				events.add("changed");
+			}
+		});
+		model.addAll(lines(0, 3));
+		model.addAll(lines(3, 5));
+		assertEquals("added 0-2", events.get(0));
+		assertEquals("removed 0-0", events.get(1));
+		assertEquals("added 2-3", events.get(2));
+		assertEquals(3, events.size());
+	}
+
+	/**
+	 * Tests that a long game does not grow the list.
+	 */
+	@Test
+	public void testConstantMemory() {
+		LogListModel model = new LogListModel(100);
+		for(int i=0; i<10000; i++) {
+			model.addAll(lines(i*10, i*10+10));
+		}
+		assertEquals(100, model.getSize());
+		assertEquals("Line 99999", model.getElementAt(99));
+	}
+}